@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * DB接続プールの設定。
+ * spring.datasource.* の接続先で通常のプールと、営業中モードのCSVインポート専用のプールを作成し、
+ * {@link ImportRoutingDataSource} でスレッドごとに振り分ける。
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * @param lowPriorityMaxConnections 営業中モードのインポート専用プールの最大接続数。
+     *        チャンクのトランザクションとID採番の独立したトランザクションで同時に2接続を使うため、2以上とする。
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${csv.import.low-priority.max-connections:2}") int lowPriorityMaxConnections) {
+        HikariDataSource main = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+
+        HikariDataSource lowPriority = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        lowPriority.setPoolName("low-priority-import");
+        lowPriority.setMaximumPoolSize(lowPriorityPoolSize(lowPriorityMaxConnections));
+        // 取り込みをしていない間は接続を保持しない
+        lowPriority.setMinimumIdle(0);
+
+        return new ImportRoutingDataSource(main, lowPriority);
+    }
+
+    /**
+     * 営業中モードのインポート専用プールの接続数 (最小2)。
+     */
+    public static int lowPriorityPoolSize(int maxConnections) {
+        return Math.max(2, maxConnections);
+    }
+}
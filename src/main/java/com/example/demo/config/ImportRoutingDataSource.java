@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * アプリ全体のDB接続を、通常の接続プールと営業中モードのCSVインポート専用の小さな接続プールに振り分ける DataSource。
+ *
+ * {@link #withLowPriorityPool} の中 (そのスレッド) で取得される接続は、JPA・JdbcTemplate・
+ * REQUIRES_NEW の独立したトランザクション (ID採番など) を含めて全て専用プールから取得する。
+ * 💡 専用プールの上限 (csv.import.low-priority.max-connections) を超えて接続を使うことはないため、
+ *    営業中モードの取り込みが通常のプールを使い切り、ダッシュボードの更新APIを待たせることはない。
+ */
+public class ImportRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String LOW_PRIORITY = "low-priority-import";
+
+    // 💡 取り込みの処理スレッドにだけ設定する (fork-join の変換スレッドなどには引き継がない)
+    private static final ThreadLocal<Boolean> LOW_PRIORITY_SCOPE = new ThreadLocal<>();
+
+    private final HikariDataSource main;
+    private final HikariDataSource lowPriority;
+
+    public ImportRoutingDataSource(HikariDataSource main, HikariDataSource lowPriority) {
+        this.main = main;
+        this.lowPriority = lowPriority;
+        setDefaultTargetDataSource(main);
+        setTargetDataSources(Map.of(LOW_PRIORITY, lowPriority));
+    }
+
+    /**
+     * 処理中にこのスレッドで取得するDB接続を、営業中モードのインポート専用プールから取得する。
+     * (この中でトランザクションを開始すること。外側で開始済みのトランザクションの接続はそのまま使われる)
+     */
+    public static <T> T withLowPriorityPool(Callable<T> task) throws Exception {
+        if (Boolean.TRUE.equals(LOW_PRIORITY_SCOPE.get())) {
+            return task.call();
+        }
+        LOW_PRIORITY_SCOPE.set(Boolean.TRUE);
+        try {
+            return task.call();
+        } finally {
+            LOW_PRIORITY_SCOPE.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(LOW_PRIORITY_SCOPE.get()) ? LOW_PRIORITY : null;
+    }
+
+    /**
+     * アプリ終了時に両方の接続プールを閉じる (Spring が @Bean の close メソッドとして呼び出す)。
+     */
+    public void close() {
+        lowPriority.close();
+        main.close();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.example.demo.service.UpdateLatencyMonitor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 更新APIの処理時間を計測し、{@link UpdateLatencyMonitor} に記録するインターセプター。
+ */
+@Component
+public class UpdateLatencyInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = UpdateLatencyInterceptor.class.getName() + ".start";
+
+    private final UpdateLatencyMonitor monitor;
+
+    public UpdateLatencyInterceptor(UpdateLatencyMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            monitor.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final UpdateLatencyInterceptor updateLatencyInterceptor;
+
+    public WebMvcConfig(UpdateLatencyInterceptor updateLatencyInterceptor) {
+        this.updateLatencyInterceptor = updateLatencyInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // ダッシュボードからの更新APIの応答時間を計測 (営業中モードのインポートの速度調整に使用)
+        registry.addInterceptor(updateLatencyInterceptor).addPathPatterns("/api/*/update");
+    }
+}
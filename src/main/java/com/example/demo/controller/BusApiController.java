@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 // 標準Javaユーティリティ
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -13,20 +14,25 @@ import jakarta.persistence.EntityNotFoundException;
 
 // Spring Framework
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 // アプリケーション固有のモデルとリポジトリ、サービス
+import com.example.demo.dto.BusListItem;
 import com.example.demo.model.BusSituation;
 import com.example.demo.model.ShuttleBusReservation;
-import com.example.demo.repository.BusSituationRepository;
 import com.example.demo.repository.ShuttleBusReservationRepository;
+import com.example.demo.service.DashboardService;
+import com.example.demo.service.MasterDataRegistry;
+import com.example.demo.service.TodayReadModel;
 import com.example.demo.service.UpdateNotificationService; 
 
 
@@ -40,8 +46,12 @@ public class BusApiController {
 
     // --- 依存性の注入 (DI) 対象フィールド ---
     private final ShuttleBusReservationRepository shuttleBusReservationRepository;
-    private final BusSituationRepository busSituationRepository;
+    private final MasterDataRegistry masterData;
     private final UpdateNotificationService notificationService;
+    // 一覧API (運用日の予約を表示する列のみ取得)
+    private final DashboardService dashboardService;
+    // 当日の読み取りモデル (更新をコミット後に反映)
+    private final TodayReadModel todayReadModel;
     
     // --- 定数フィールド ---
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
@@ -54,29 +64,45 @@ public class BusApiController {
     @Autowired
     public BusApiController(
         ShuttleBusReservationRepository shuttleBusReservationRepository,
-        BusSituationRepository busSituationRepository,
-        UpdateNotificationService notificationService) {
+        MasterDataRegistry masterData,
+        UpdateNotificationService notificationService,
+        DashboardService dashboardService,
+        TodayReadModel todayReadModel) {
         this.shuttleBusReservationRepository = shuttleBusReservationRepository;
-        this.busSituationRepository = busSituationRepository;
+        this.masterData = masterData;
         this.notificationService = notificationService; 
+        this.dashboardService = dashboardService;
+        this.todayReadModel = todayReadModel;
     }
 
     // ----------------------------------------------------------------------
     // --- API エンドポイント定義 ---
     // ----------------------------------------------------------------------
 
+    /**
+     * GET /api/bus/list?date=yyyy-MM-dd
+     * 運用日 (省略時は今日) の送迎バス予約を、ダッシュボードに表示する列のみのJSONで返す (予約日時・ID順)。
+     * 💡 画面の再描画なしに1タブ分を取り直すための読み取り専用API。エンティティは読み込まず、DTOを直接JSONに変換する。
+     * @param date 運用日 (Optional)
+     * @return BusListItem のリスト
+     */
+    @GetMapping("/list")
+    public List<BusListItem> list(
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return dashboardService.listBusReservations(date != null ? date : LocalDate.now());
+    }
+
     /**
      * GET /api/bus/situations
      * 全てのバス状況ステータス（BusSituation）を取得する。
+     * マスタのバージョンを ETag とし、変更がなければ 304 を返す。
+     * @param version 画面に埋め込まれたマスタのバージョン (一致する場合は長期キャッシュ可)
      * @return 昇順にソートされた BusSituation のリスト
      */
     @GetMapping("/situations")
-    public ResponseEntity<List<BusSituation>> getAllBusSituations() {
-    	System.out.println("--- API呼び出し: /api/bus/situations がリクエストされました ---");
-        // IDで昇順ソートして全件取得
-        List<BusSituation> situations = busSituationRepository.findAll(Sort.by("id").ascending());
-        System.out.println("--- 取得された BusSituation の件数: " + situations.size() + " 件 ---");
-        return ResponseEntity.ok(situations);
+    public ResponseEntity<List<BusSituation>> getAllBusSituations(
+            @RequestParam(value = "v", required = false) String version, WebRequest request) {
+        return MasterDataResponses.of(request, masterData.getVersion(), version, masterData::getBusSituations);
     }
     
     /**
@@ -130,7 +156,7 @@ public class BusApiController {
                 }
                 
                 Integer newStatusId = Integer.parseInt(valueStr); 
-                Optional<BusSituation> optionalStatus = busSituationRepository.findById(newStatusId);
+                Optional<BusSituation> optionalStatus = masterData.findBusSituation(newStatusId);
                 
                 if (optionalStatus.isEmpty()) {
                     // 参照整合性エラー: 存在しないBusSituation ID
@@ -237,6 +263,8 @@ public class BusApiController {
             // 4. 最終更新時刻を設定して保存
             shuttleBusReservation.setUpdateTime(now);
             shuttleBusReservationRepository.save(shuttleBusReservation);
+            // 💡 当日の読み取りモデルへはコミット後に反映する
+            todayReadModel.busReservationChanged(shuttleBusReservation.getId());
             
             String updateTimeStr = now.format(DATETIME_FORMATTER);
             
@@ -0,0 +1,42 @@
+package com.example.demo.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.service.ChangesService;
+
+/**
+ * 再接続時の差分同期用REST APIコントローラー。
+ * ベースパスは /api/changes
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangesApiController {
+
+    private final ChangesService changesService;
+
+    @Autowired
+    public ChangesApiController(ChangesService changesService) {
+        this.changesService = changesService;
+    }
+
+    /**
+     * GET /api/changes?since=1730179800000
+     * since 以降に更新された駐車場・来館者・送迎バスの行を返す (WebSocket の再接続時に画面から呼び出す)。
+     * @param since 前回の syncToken (エポックミリ秒) または ISO-8601 形式の日時
+     */
+    @GetMapping
+    public ResponseEntity<?> changesSince(@RequestParam(value = "since", required = false) String since) {
+        try {
+            return ResponseEntity.ok(changesService.findChangesSince(since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
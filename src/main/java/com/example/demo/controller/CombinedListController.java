@@ -1,57 +1,74 @@
 package com.example.demo.controller;
 
 // 標準Javaユーティリティ
+import java.time.LocalDate;
 import java.util.List;
 
 // Spring Framework
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam; 
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
 
-// アプリケーション固有のモデルとリポジトリ
+import jakarta.servlet.http.HttpServletResponse;
+
+// アプリケーション固有のモデルとサービス
+import com.example.demo.dto.BusListItem;
+import com.example.demo.dto.DashboardPage;
+import com.example.demo.dto.ParkingListItem;
+import com.example.demo.dto.VisitorListItem;
 import com.example.demo.model.ParkingStatus;
 import com.example.demo.model.VisitSituation;
-import com.example.demo.repository.ParkingRepository;
-import com.example.demo.repository.ParkingStatusRepository;
-import com.example.demo.repository.ShuttleBusReservationRepository;
-import com.example.demo.repository.VisitSituationRepository;
-import com.example.demo.repository.VisitorRepository;
+import com.example.demo.service.ChangesService;
+import com.example.demo.service.DashboardService;
+import com.example.demo.service.MasterDataRegistry;
+import com.example.demo.service.ParallelQueries;
+import com.example.demo.service.UpdateNotificationService;
 
 /**
  * ダッシュボード画面（複数の予約リストを統合表示する画面）を制御するコントローラー。
  * ベースパスは /dashboard
  */
 @Controller
-@RequestMapping("/dashboard") 
+@RequestMapping("/dashboard")
 public class CombinedListController {
 
+    // 「さらに読み込む」のレスポンスで次のページのカーソルを返すヘッダー (次のページがない場合は付けない)
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     // --- 依存性の注入 (DI) 対象フィールド ---
-    // 各データエンティティへのアクセス用リポジトリ
-    private final ParkingRepository parkingRepository;
-    private final VisitorRepository visitorRepository;
-    private final ShuttleBusReservationRepository shuttleBusReservationRepository;
-    private final ParkingStatusRepository parkingStatusRepository; 
-    private final VisitSituationRepository visitSituationRepository; 
+    // 運用日ごとの予約一覧 (予約日時の範囲検索 + キーセットページング)
+    private final DashboardService dashboardService;
+    // ステータスマスター (メモリ内レジストリ)
+    private final MasterDataRegistry masterData;
+    // 3つのリストの同時読み込み
+    private final ParallelQueries parallelQueries;
+    // 再接続時の差分同期の開始位置
+    private final ChangesService changesService;
+    // 再接続時の更新メッセージの再送の開始位置
+    private final UpdateNotificationService notificationService;
 
     /**
      * コンストラクタインジェクション。
-     * 必要な全てのリポジトリをSpringコンテナから受け取る。
+     * 必要なサービスをSpringコンテナから受け取る。
      */
     @Autowired
-    public CombinedListController(ParkingRepository parkingRepository,
-    							  VisitorRepository visitorRepository,
-                                  ShuttleBusReservationRepository shuttleBusReservationRepository,
-                                  ParkingStatusRepository parkingStatusRepository,
-                                  VisitSituationRepository visitSituationRepository) {
-        this.parkingRepository = parkingRepository;
-        this.visitorRepository = visitorRepository;
-        this.shuttleBusReservationRepository = shuttleBusReservationRepository;
-        this.parkingStatusRepository = parkingStatusRepository; 
-        this.visitSituationRepository = visitSituationRepository; 
+    public CombinedListController(DashboardService dashboardService,
+                                  MasterDataRegistry masterData,
+                                  ParallelQueries parallelQueries,
+                                  ChangesService changesService,
+                                  UpdateNotificationService notificationService) {
+        this.dashboardService = dashboardService;
+        this.masterData = masterData;
+        this.parallelQueries = parallelQueries;
+        this.changesService = changesService;
+        this.notificationService = notificationService;
     }
 
     // ----------------------------------------------------------------------
@@ -59,45 +76,67 @@ public class CombinedListController {
     // ----------------------------------------------------------------------
 
     /**
-     * GET /dashboard
+     * GET /dashboard?date=yyyy-MM-dd
      * ダッシュボード画面を表示するための全ての必要なデータをモデルに追加する。
+     * 各リストは指定した運用日 (省略時は今日) の予約の先頭ページのみ。続きは GET /dashboard/rows/{type} で取得する。
      * * @param model データをビューに渡すためのSpring UI Model
+     * @param date 表示する運用日 (Optional)
      * @param successMessage URLパラメータとして渡される成功通知メッセージ (Optional)
      * @param errorMessage URLパラメータとして渡されるエラー通知メッセージ (Optional)
+     * @param response リストごとの読み込み時間 (Server-Timing ヘッダー) の設定先
      * @return 遷移先のビュー名 ("dashboard.html"など)
      */
     @GetMapping
     public String showAllLists(Model model,
+                               @RequestParam(value = "date", required = false)
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
                                @RequestParam(value = "successMessage", required = false) String successMessage,
-                               @RequestParam(value = "errorMessage", required = false) String errorMessage) {
-        
-        // --- 1. メインの予約リストデータの取得とモデルへの追加 ---
-        
-        // 1. 駐車場予約リスト (parkings テーブルの全データ)
-        model.addAttribute("parkings", parkingRepository.findAll());
-        
-        // 2. 来館者予約リスト (visitors テーブルの全データ)
-        model.addAttribute("visits", visitorRepository.findAll()); 
-        
-        // 3. 送迎バス運行リスト (shuttlebus_reservations テーブルの全データ)
-        model.addAttribute("busReservations", shuttleBusReservationRepository.findAll()); 
-        
+                               @RequestParam(value = "errorMessage", required = false) String errorMessage,
+                               HttpServletResponse response) {
+
+        LocalDate operatingDate = date != null ? date : LocalDate.now();
+        model.addAttribute("operatingDate", operatingDate);
+        // 💡 WebSocket の再接続時に GET /api/changes?since= に渡す同期位置。読み込みの開始前に決める
+        //    (読み込み中に更新された行も、再接続時の差分に含まれるようにするため)
+        model.addAttribute("syncToken", changesService.currentToken());
+        // 💡 同じく GET /api/updates?after= に渡す /topic/updates の通番 (メモリに残っていれば、こちらを優先して使用する)
+        model.addAttribute("updateSequence", notificationService.currentSequence());
+
+        // --- 1. メインの予約リストデータの取得とモデルへの追加 (運用日の先頭ページ) ---
+        // 💡 3つのリストは互いに独立しているため、仮想スレッドで同時に読み込む
+        //    (今日以外の日付でDBを使用する場合、表示時間は3つのクエリの合計ではなく最も遅いクエリで決まる)
+        ParallelQueries.Batch batch = parallelQueries.start();
+        ParallelQueries.Query<DashboardPage<ParkingListItem>> parkingQuery =
+            batch.submit("parkings", () -> dashboardService.findParkings(operatingDate, null));
+        ParallelQueries.Query<DashboardPage<VisitorListItem>> visitQuery =
+            batch.submit("visits", () -> dashboardService.findVisitors(operatingDate, null));
+        ParallelQueries.Query<DashboardPage<BusListItem>> busQuery =
+            batch.submit("busReservations", () -> dashboardService.findBusReservations(operatingDate, null));
+        ParallelQueries.Query<DashboardPage<ParkingListItem>> unscheduledParkingQuery =
+            batch.submit("unscheduledParkings", () -> dashboardService.findUnscheduledParkings(null));
+        batch.join();
+        // クエリごとの所要時間 (ブラウザの開発者ツールで確認できる)
+        response.setHeader(ParallelQueries.SERVER_TIMING_HEADER, batch.serverTiming());
+
+        // 1. 駐車場予約リスト
+        addPage(model, "parkings", parkingQuery.get());
+        // 1-2. 予約日時が未定の駐車場予約 (運用日によらず表示する)
+        addPage(model, "unscheduledParkings", unscheduledParkingQuery.get());
+
+        // 2. 来館者予約リスト
+        addPage(model, "visits", visitQuery.get());
+
+        // 3. 送迎バス運行リスト
+        addPage(model, "busReservations", busQuery.get());
+
         // --- 2. ステータスマスターデータの取得とモデルへの追加 ---
-        
-        // 4. 駐車場利用状況リスト (ParkingStatus マスター) を取得し、IDで昇順ソート
-        List<ParkingStatus> parkingStatuses = parkingStatusRepository.findAll(
-            Sort.by(Sort.Direction.ASC, "statusId")
-        ); 
-        model.addAttribute("parkingStatuses", parkingStatuses); 
-        
-        // 5. 来館状況リスト (VisitSituation マスター) を取得し、IDで昇順ソート
-        List<VisitSituation> visitSituations = visitSituationRepository.findAll(
-            Sort.by(Sort.Direction.ASC, "id")
-        );
-        model.addAttribute("visitSituations", visitSituations); 
-        
+        addMasterData(model);
+
+        // 7. 3つのマスタとバージョンをまとめた初期データ (画面のJSが一覧APIを呼ばずに使用する)
+        model.addAttribute("masterData", masterData.getBootstrap());
+
         // --- 3. 通知メッセージのモデルへの追加 (リダイレクト時などに使用) ---
-        
+
         // URLパラメータとして渡された通知メッセージをビュー側に渡す
         if (successMessage != null) {
             model.addAttribute("successMessage", successMessage);
@@ -105,8 +144,81 @@ public class CombinedListController {
         if (errorMessage != null) {
             model.addAttribute("errorMessage", errorMessage);
         }
-        
+
         // 遷移先のビュー名 (Thymeleafなどで使用される)
         return "dashboard";
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /dashboard/rows/{type}?date=yyyy-MM-dd&after={cursor}
+     * 「さらに読み込む」: 指定したリストの次のページの行 (dashboard.html の行フラグメント) を返す。
+     * 次のページのカーソルは X-Next-Cursor ヘッダーで返す (最終ページの場合はヘッダーなし)。
+     * @param type parking / parking-unscheduled (予約日時未定の駐車場予約。date は使用しない) / visitor / bus
+     */
+    @GetMapping("/rows/{type}")
+    public String loadMoreRows(@PathVariable("type") String type,
+                               @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                               @RequestParam("after") String after,
+                               Model model, HttpServletResponse response) {
+        DashboardPage<?> page;
+        String fragment;
+        try {
+            switch (type) {
+                case "parking" -> {
+                    page = addPage(model, "parkings", dashboardService.findParkings(date, after));
+                    fragment = "parkingRows";
+                }
+                case "parking-unscheduled" -> {
+                    page = addPage(model, "parkings", dashboardService.findUnscheduledParkings(after));
+                    fragment = "parkingRows";
+                }
+                case "visitor" -> {
+                    page = addPage(model, "visits", dashboardService.findVisitors(date, after));
+                    fragment = "visitRows";
+                }
+                case "bus" -> {
+                    page = addPage(model, "busReservations", dashboardService.findBusReservations(date, after));
+                    fragment = "busRows";
+                }
+                default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "無効なリスト種別です: " + type);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        addMasterData(model);
+
+        if (page.isHasNext()) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return "dashboard :: " + fragment;
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内部処理 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * 1ページ分の行を name に、次のページのカーソルを name + "NextCursor" に追加する。
+     */
+    private static <T> DashboardPage<T> addPage(Model model, String name, DashboardPage<T> page) {
+        model.addAttribute(name, page.getItems());
+        model.addAttribute(name + "NextCursor", page.getNextCursor());
+        return page;
+    }
+
+    /**
+     * 行内の選択肢 (利用状況・来館状況・入出庫状況) に使用するマスタを追加する。
+     */
+    private void addMasterData(Model model) {
+        // 4. 駐車場利用状況リスト (ParkingStatus マスター、IDの昇順)
+        List<ParkingStatus> parkingStatuses = masterData.getParkingStatuses();
+        model.addAttribute("parkingStatuses", parkingStatuses);
+
+        // 5. 来館状況リスト (VisitSituation マスター、IDの昇順)
+        List<VisitSituation> visitSituations = masterData.getVisitSituations();
+        model.addAttribute("visitSituations", visitSituations);
+
+        // 6. 入出庫状況リスト (BusSituation マスター、IDの昇順)
+        model.addAttribute("busSituations", masterData.getBusSituations());
+    }
+}
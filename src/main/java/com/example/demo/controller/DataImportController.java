@@ -3,7 +3,6 @@ package com.example.demo.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,19 +12,21 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.example.demo.dto.ImportJob;
 import com.example.demo.model.BusSituation; // 💡 追加
 import com.example.demo.model.Parking;
 import com.example.demo.model.ParkingStatus;
 import com.example.demo.model.ShuttleBusReservation;
 import com.example.demo.model.VisitSituation;
 import com.example.demo.model.Visitor;
-import com.example.demo.repository.BusSituationRepository; // 💡 追加
 import com.example.demo.repository.ParkingRepository;
-import com.example.demo.repository.ParkingStatusRepository;
 import com.example.demo.repository.ShuttleBusReservationRepository;
-import com.example.demo.repository.VisitSituationRepository;
 import com.example.demo.repository.VisitorRepository;
-import com.example.demo.service.CsvService;
+import com.example.demo.service.ImportJobService;
+import com.example.demo.service.MasterDataRegistry;
+import com.example.demo.service.ParallelQueries;
 
 @Controller
 @RequestMapping("/dataimport")
@@ -33,32 +34,31 @@ public class DataImportController {
 
     // データ取得に必要なリポジトリを定義
     private final ParkingRepository parkingRepository;
-    private final ParkingStatusRepository parkingStatusRepository;
     private final VisitorRepository visitRepository;
-    private final VisitSituationRepository visitSituationRepository;
     private final ShuttleBusReservationRepository shuttleBusReservationRepository;
-    private final BusSituationRepository busSituationRepository; // 💡 追加: BusSituationRepository
+    // ステータスマスター (メモリ内レジストリ)
+    private final MasterDataRegistry masterData;
     
-    // CsvImportService のインスタンスを注入
-    private final CsvService csvService;
+    // CSVインポートジョブの登録
+    private final ImportJobService importJobService;
+    // 3つのリストの同時読み込み
+    private final ParallelQueries parallelQueries;
 
     @Autowired
     public DataImportController(
         ParkingRepository parkingRepository,
-        ParkingStatusRepository parkingStatusRepository,
         VisitorRepository visitRepository,
-        VisitSituationRepository visitSituationRepository,
         ShuttleBusReservationRepository shuttleBusReservationRepository,
-        BusSituationRepository busSituationRepository, // 💡 追加: BusSituationRepositoryをコンストラクタに追加
-        CsvService csvImportService) {
+        MasterDataRegistry masterData,
+        ImportJobService importJobService,
+        ParallelQueries parallelQueries) {
         
         this.parkingRepository = parkingRepository;
-        this.parkingStatusRepository = parkingStatusRepository;
         this.visitRepository = visitRepository;
-        this.visitSituationRepository = visitSituationRepository;
         this.shuttleBusReservationRepository = shuttleBusReservationRepository;
-        this.busSituationRepository = busSituationRepository; // 💡 初期化
-        this.csvService = csvImportService;
+        this.masterData = masterData;
+        this.importJobService = importJobService;
+        this.parallelQueries = parallelQueries;
     }
 
     // CSVインポートメニュー表示用のGetMapping
@@ -66,29 +66,43 @@ public class DataImportController {
     public String dataImportMenu(
     	    Model model, 
     	    @RequestParam(value = "activeTab", required = false) String activeTab,
-    	    @RequestParam(value = "messageFor", required = false) String messageFor){
+    	    @RequestParam(value = "messageFor", required = false) String messageFor,
+    	    HttpServletResponse response){
     	
     	System.out.println("Active Tab Parameter received: " + activeTab);
     	model.addAttribute("activeTab", activeTab);
     	
+        // 💡 3つのリストは互いに独立しているため、仮想スレッドで同時に読み込む (表示時間は最も遅いクエリで決まる)
+        //    各リストは状況マスタを結合して1クエリで読み込み、マスタはメモリ内レジストリから取得する (ID昇順)
+        ParallelQueries.Batch batch = parallelQueries.start();
+        ParallelQueries.Query<List<Parking>> parkingQuery =
+            batch.submit("parkings", parkingRepository::findAllByOrderByIdAsc);
+        ParallelQueries.Query<List<Visitor>> visitQuery =
+            batch.submit("visits", visitRepository::findAllByOrderByIdAsc);
+        ParallelQueries.Query<List<ShuttleBusReservation>> busQuery =
+            batch.submit("busReservations", shuttleBusReservationRepository::findAllByOrderByIdAsc);
+        batch.join();
+        // クエリごとの所要時間 (ブラウザの開発者ツールで確認できる)
+        response.setHeader(ParallelQueries.SERVER_TIMING_HEADER, batch.serverTiming());
+
         // 1. 駐車場予約リストとステータス (ID昇順でソート)
-        List<Parking> parkings = parkingRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+        List<Parking> parkings = parkingQuery.get();
         model.addAttribute("parkings", parkings);
-        List<ParkingStatus> parkingStatuses = parkingStatusRepository.findAll(Sort.by(Sort.Direction.ASC, "statusId"));
+        List<ParkingStatus> parkingStatuses = masterData.getParkingStatuses();
         model.addAttribute("parkingStatuses", parkingStatuses);
         
         // 2. 来館者予約リストと状況
-        List<Visitor> visits = visitRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+        List<Visitor> visits = visitQuery.get();
         model.addAttribute("visits", visits);
-        List<VisitSituation> visitSituations = visitSituationRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+        List<VisitSituation> visitSituations = masterData.getVisitSituations();
         model.addAttribute("visitSituations", visitSituations);
         
         // 3. 送迎バス運行リスト
-        List<ShuttleBusReservation> busReservations = shuttleBusReservationRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+        List<ShuttleBusReservation> busReservations = busQuery.get();
         model.addAttribute("busReservations", busReservations);
 
         // 💡 追加: 入出庫状況マスタデータを取得し、モデルに追加
-        List<BusSituation> busSituations = busSituationRepository.findAll(Sort.by(Sort.Direction.ASC, "id"));
+        List<BusSituation> busSituations = masterData.getBusSituations();
         model.addAttribute("busSituations", busSituations); 
         
         // メッセージ送信先の識別子をモデルに追加
@@ -106,7 +120,9 @@ public class DataImportController {
 
     // 駐車場予約リストの取り込み処理
     @PostMapping("/upload/parking")
-    public String uploadParkingCsv(@RequestParam("file") MultipartFile file, RedirectAttributes ra) {
+    public String uploadParkingCsv(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "tolerant", defaultValue = "false") boolean tolerant,
+            @RequestParam(value = "lowPriority", defaultValue = "false") boolean lowPriority, RedirectAttributes ra) {
         // CSVアップロードフォームが tab1 にあるため、タブキープ先は tab1
         final String TAB_ID = "tab1"; 
         
@@ -117,9 +133,13 @@ public class DataImportController {
         }
         
         try {
-            csvService.importParkingData(file); 
+            // 💡 取り込みはバックグラウンドジョブで実行し、進捗は画面にSTOMPで通知する
+            ImportJob job = importJobService.submitParkingImport(file, tolerant, lowPriority);
             
-            ra.addFlashAttribute("message", "駐車場予約CSVの取り込みに成功しました。");
+            ra.addFlashAttribute("message", "駐車場予約CSVの取り込み開始に成功しました。進捗は画面に表示されます。");
+            ra.addFlashAttribute("importJobId", job.getJobId());
+        } catch (IllegalStateException e) {
+            ra.addFlashAttribute("message", "エラー: " + e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             ra.addFlashAttribute("message", "エラー: 駐車場予約CSVの処理に失敗しました。詳細: " + e.getMessage());
@@ -130,7 +150,9 @@ public class DataImportController {
 
     // 来館者予約リストの取り込み処理
     @PostMapping("/upload/visit")
-    public String uploadVisitCsv(@RequestParam("file") MultipartFile file, RedirectAttributes ra) {
+    public String uploadVisitCsv(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "tolerant", defaultValue = "false") boolean tolerant,
+            @RequestParam(value = "lowPriority", defaultValue = "false") boolean lowPriority, RedirectAttributes ra) {
         // CSVアップロードフォームが tab2 にあるため、タブキープ先は tab2
         final String TAB_ID = "tab2";
         
@@ -141,9 +163,13 @@ public class DataImportController {
         }
 
         try {
-            csvService.importVisitData(file);
+            // 💡 取り込みはバックグラウンドジョブで実行し、進捗は画面にSTOMPで通知する
+            ImportJob job = importJobService.submitVisitImport(file, tolerant, lowPriority);
             
-            ra.addFlashAttribute("message", "来館者予約CSVの取り込みに成功しました。");
+            ra.addFlashAttribute("message", "来館者予約CSVの取り込み開始に成功しました。進捗は画面に表示されます。");
+            ra.addFlashAttribute("importJobId", job.getJobId());
+        } catch (IllegalStateException e) {
+            ra.addFlashAttribute("message", "エラー: " + e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             ra.addFlashAttribute("message", "エラー: 来館者予約CSVの処理に失敗しました。詳細: " + e.getMessage());
@@ -154,7 +180,9 @@ public class DataImportController {
 
     // 送迎バス運行リストの取り込み処理
     @PostMapping("/upload/bus")
-    public String uploadBusCsv(@RequestParam("file") MultipartFile file, RedirectAttributes ra) {
+    public String uploadBusCsv(@RequestParam("file") MultipartFile file,
+            @RequestParam(value = "tolerant", defaultValue = "false") boolean tolerant,
+            @RequestParam(value = "lowPriority", defaultValue = "false") boolean lowPriority, RedirectAttributes ra) {
         // CSVアップロードフォームが tab3 にあるため、タブキープ先は tab3
         final String TAB_ID = "tab3";
         
@@ -165,9 +193,13 @@ public class DataImportController {
         }
 
         try {
-            csvService.importBusData(file);
+            // 💡 取り込みはバックグラウンドジョブで実行し、進捗は画面にSTOMPで通知する
+            ImportJob job = importJobService.submitBusImport(file, tolerant, lowPriority);
             
-            ra.addFlashAttribute("message", "送迎バスCSVの取り込みに成功しました。");
+            ra.addFlashAttribute("message", "送迎バスCSVの取り込み開始に成功しました。進捗は画面に表示されます。");
+            ra.addFlashAttribute("importJobId", job.getJobId());
+        } catch (IllegalStateException e) {
+            ra.addFlashAttribute("message", "エラー: " + e.getMessage());
         } catch (Exception e) {
             e.printStackTrace();
             ra.addFlashAttribute("message", "エラー: 送迎バスCSVの処理に失敗しました。詳細: " + e.getMessage());
@@ -0,0 +1,77 @@
+package com.example.demo.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.demo.dto.ImportJob;
+import com.example.demo.service.ImportJobService;
+
+/**
+ * CSVインポートジョブの状況を返すREST APIコントローラー。
+ * ベースパスは /api/import/jobs
+ */
+@RestController
+@RequestMapping("/api/import/jobs")
+public class ImportJobApiController {
+
+    private final ImportJobService importJobService;
+
+    @Autowired
+    public ImportJobApiController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * GET /api/import/jobs
+     * 保持しているジョブの一覧 (新しい順)。
+     */
+    @GetMapping
+    public List<ImportJob> getRecentJobs() {
+        return importJobService.findRecentJobs();
+    }
+
+    /**
+     * GET /api/import/jobs/{jobId}
+     * 読み込み・保存・スキップ件数とスループットを返す。
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJob> getJob(@PathVariable String jobId) {
+        return importJobService.findJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET /api/import/jobs/{jobId}/errors
+     * エラー行を除いて取り込んだジョブの、不正な行の一覧 (行番号・列・理由) をCSVでダウンロードする。
+     * 💡 ファイルから直接レスポンスへ流すため、エラー件数が多くてもメモリに載せない。
+     */
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<StreamingResponseBody> downloadErrorReport(@PathVariable String jobId) {
+        return importJobService.findErrorReport(jobId)
+            .filter(Files::exists)
+            .map(path -> ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("import-errors-" + jobId + ".csv").build().toString())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(streamFile(path)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static StreamingResponseBody streamFile(Path path) {
+        return outputStream -> Files.copy(path, outputStream);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.service.MasterDataRegistry;
+import com.example.demo.service.TodayReadModel;
+
+/**
+ * ステータスマスター (駐車状況・来館状況・バス状況) のメモリ内レジストリを操作するREST APIコントローラー。
+ * ベースパスは /api/master-data
+ */
+@RestController
+@RequestMapping("/api/master-data")
+public class MasterDataApiController {
+
+    private final MasterDataRegistry masterData;
+    // 当日の読み取りモデルはマスタの名称を含むため、マスタと合わせて読み込み直す
+    private final TodayReadModel todayReadModel;
+
+    @Autowired
+    public MasterDataApiController(MasterDataRegistry masterData, TodayReadModel todayReadModel) {
+        this.masterData = masterData;
+        this.todayReadModel = todayReadModel;
+    }
+
+    /**
+     * POST /api/master-data/refresh
+     * マスタをDBで直接変更した後に、レジストリ (と当日の読み取りモデル) を読み込み直す。
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        masterData.refresh();
+        todayReadModel.reload();
+        return ResponseEntity.ok(Map.of(
+            "parkingStatuses", masterData.getParkingStatuses().size(),
+            "visitSituations", masterData.getVisitSituations().size(),
+            "busSituations", masterData.getBusSituations().size()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * ステータスマスターの一覧APIのレスポンス (ETag / Cache-Control 付き)。
+ *
+ * - ETag はマスタのバージョン (内容のハッシュ値)。If-None-Match が一致すれば本文なしの 304 を返す
+ * - ?v= に現在のバージョンを指定した場合は内容が変わらないURLのため、ブラウザに1年間キャッシュさせる
+ * - それ以外は毎回 ETag で再検証させる (no-cache)
+ */
+final class MasterDataResponses {
+
+    private static final CacheControl VERSIONED = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private MasterDataResponses() {
+    }
+
+    static <T> ResponseEntity<T> of(WebRequest request, String version, String requestedVersion, Supplier<T> body) {
+        CacheControl cacheControl = version.equals(requestedVersion) ? VERSIONED : REVALIDATE;
+        if (request.checkNotModified(version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(version).cacheControl(cacheControl).body(body.get());
+    }
+}
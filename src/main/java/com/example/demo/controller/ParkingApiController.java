@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 // 標準Javaユーティリティ
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -12,19 +13,25 @@ import jakarta.persistence.EntityNotFoundException;
 
 // Spring Framework
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 // アプリケーション固有のモデルとリポジトリ、サービス
+import com.example.demo.dto.ParkingListItem;
 import com.example.demo.model.Parking;
 import com.example.demo.model.ParkingStatus;
 import com.example.demo.repository.ParkingRepository;
-import com.example.demo.repository.ParkingStatusRepository;
+import com.example.demo.service.DashboardService;
+import com.example.demo.service.MasterDataRegistry;
+import com.example.demo.service.TodayReadModel;
 import com.example.demo.service.UpdateNotificationService; 
 
 /**
@@ -37,8 +44,12 @@ public class ParkingApiController {
 
     // --- 依存性の注入 (DI) 対象フィールド ---
     private final ParkingRepository parkingRepository;
-    private final ParkingStatusRepository parkingStatusRepository;
+    private final MasterDataRegistry masterData;
     private final UpdateNotificationService notificationService;
+    // 一覧API (運用日の予約を表示する列のみ取得)
+    private final DashboardService dashboardService;
+    // 当日の読み取りモデル (更新をコミット後に反映)
+    private final TodayReadModel todayReadModel;
     
     // --- 定数フィールド ---
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
@@ -50,26 +61,45 @@ public class ParkingApiController {
      */
     @Autowired
     public ParkingApiController(ParkingRepository parkingRepository,
-                                ParkingStatusRepository parkingStatusRepository,
-                                UpdateNotificationService notificationService) {
+                                MasterDataRegistry masterData,
+                                UpdateNotificationService notificationService,
+                                DashboardService dashboardService,
+                                TodayReadModel todayReadModel) {
         this.parkingRepository = parkingRepository;
-        this.parkingStatusRepository = parkingStatusRepository;
+        this.masterData = masterData;
         this.notificationService = notificationService; 
+        this.dashboardService = dashboardService;
+        this.todayReadModel = todayReadModel;
     }
     
     // ----------------------------------------------------------------------
     // --- API エンドポイント定義 ---
     // ----------------------------------------------------------------------
     
+    /**
+     * GET /api/parking/list?date=yyyy-MM-dd
+     * 運用日 (省略時は今日) の駐車場予約を、ダッシュボードに表示する列のみのJSONで返す (予約日時・ID順)。
+     * 💡 画面の再描画なしに1タブ分を取り直すための読み取り専用API。エンティティは読み込まず、DTOを直接JSONに変換する。
+     * @param date 運用日 (Optional)
+     * @return ParkingListItem のリスト
+     */
+    @GetMapping("/list")
+    public List<ParkingListItem> list(
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return dashboardService.listParkings(date != null ? date : LocalDate.now());
+    }
+
     /**
      * GET /api/parking/statuses
      * 駐車場利用状況（ParkingStatus）のマスターデータをJSON形式で返す。
-     * @return ParkingStatusのリスト
+     * マスタのバージョンを ETag とし、変更がなければ 304 を返す。
+     * @param version 画面に埋め込まれたマスタのバージョン (一致する場合は長期キャッシュ可)
+     * @return ParkingStatusのリスト (ID順)
      */
     @GetMapping("/statuses")
-    public List<ParkingStatus> getParkingStatusesApi() {
-        // findAll()のデフォルトソート（通常はID順）で全件返す
-        return parkingStatusRepository.findAll();
+    public ResponseEntity<List<ParkingStatus>> getParkingStatusesApi(
+            @RequestParam(value = "v", required = false) String version, WebRequest request) {
+        return MasterDataResponses.of(request, masterData.getVersion(), version, masterData::getParkingStatuses);
     }
     
     /**
@@ -144,7 +174,7 @@ public class ParkingApiController {
                 }
                 
                 Integer newStatusId = Integer.parseInt(valueStr); 
-                Optional<ParkingStatus> optionalStatus = parkingStatusRepository.findById(newStatusId);
+                Optional<ParkingStatus> optionalStatus = masterData.findParkingStatus(newStatusId);
                 
                 if (optionalStatus.isEmpty()) {
                     // 参照整合性エラー: 存在しないParkingStatus ID
@@ -205,6 +235,8 @@ public class ParkingApiController {
             parking.setUpdateTime(currentUpdateTime);
             
             parkingRepository.save(parking);
+            // 💡 当日の読み取りモデルへはコミット後に反映する
+            todayReadModel.parkingChanged(parking.getId());
             
             String updateTimeStr = currentUpdateTime.format(DATETIME_FORMATTER);
             
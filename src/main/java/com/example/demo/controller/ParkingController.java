@@ -7,24 +7,23 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.ResponseBody; // 💡 追加
 
-import com.example.demo.model.Parking;
+import com.example.demo.dto.ParkingListItem;
 import com.example.demo.model.ParkingStatus;
 import com.example.demo.repository.ParkingRepository;
-import com.example.demo.repository.ParkingStatusRepository;
+import com.example.demo.service.MasterDataRegistry;
 
 @Controller
 @RequestMapping("/parkings")
 public class ParkingController {
 
     private final ParkingRepository parkingRepository;
-    private final ParkingStatusRepository parkingStatusRepository;
+    private final MasterDataRegistry masterData;
 
     @Autowired
-    public ParkingController(ParkingRepository parkingRepository, ParkingStatusRepository parkingStatusRepository) {
+    public ParkingController(ParkingRepository parkingRepository, MasterDataRegistry masterData) {
         this.parkingRepository = parkingRepository;
-        this.parkingStatusRepository = parkingStatusRepository;
+        this.masterData = masterData;
     }
 
     // ... (listParkings メソッドはそのまま維持) ...
@@ -37,29 +36,17 @@ public class ParkingController {
     public String listParkings(Model model) {
         
         // 1. 駐車場予約リストを取得し、モデルに追加
-        List<Parking> parkings = parkingRepository.findAll();
+        List<ParkingListItem> parkings = parkingRepository.findAllListItems();
         model.addAttribute("parkings", parkings);
         
      // 2. 利用状況リストの取得と追加 
-        List<ParkingStatus> parkingStatuses = parkingStatusRepository.findAll(); 
+        List<ParkingStatus> parkingStatuses = masterData.getParkingStatuses(); 
         model.addAttribute("parkingStatuses", parkingStatuses); 
+        model.addAttribute("masterData", masterData.getBootstrap());
         
         // 2. テンプレート名 "dashboard" を返してメソッドを終了
         return "dashboard"; 
     }
     
-    // ==========================================================
-    // 💡 新規追加: JavaScriptからのAPIリクエストに対応するメソッド
-    // ==========================================================
-    /**
-     * 駐車場利用状況の選択肢データをJSON形式で返すAPIエンドポイント。
-     * URL: /api/parking/statuses に GETリクエスト
-     * 備考: @RequestMapping の /parkings をオーバーライドするため、フルパスで指定します。
-     */
-    @GetMapping("/api/parking/statuses")
-    @ResponseBody // 💡 これにより、List<ParkingStatus> がJSONとしてレスポンスボディに変換されます
-    public List<ParkingStatus> getParkingStatusesApi() {
-        // DBから利用状況リストをフェッチして返すだけ
-        return parkingStatusRepository.findAll();
-    }
+    // 💡 利用状況の選択肢データのAPIは ParkingApiController (GET /api/parking/statuses) に一本化
 }
\ No newline at end of file
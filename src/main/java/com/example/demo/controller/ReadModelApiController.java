@@ -0,0 +1,49 @@
+package com.example.demo.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.ReadModelCheck;
+import com.example.demo.service.TodayReadModel;
+
+/**
+ * 当日の読み取りモデル (メモリ内の今日の一覧) を確認・操作するREST APIコントローラー。
+ * ベースパスは /api/read-model
+ */
+@RestController
+@RequestMapping("/api/read-model")
+public class ReadModelApiController {
+
+    private final TodayReadModel todayReadModel;
+
+    @Autowired
+    public ReadModelApiController(TodayReadModel todayReadModel) {
+        this.todayReadModel = todayReadModel;
+    }
+
+    /**
+     * GET /api/read-model/check
+     * メモリ上の今日の一覧とDBを比較し、種類ごとに件数と不一致の行のIDを返す。
+     */
+    @GetMapping("/check")
+    public ResponseEntity<List<ReadModelCheck>> check() {
+        return ResponseEntity.ok(todayReadModel.check());
+    }
+
+    /**
+     * POST /api/read-model/reload
+     * DBを直接変更した後などに、今日の一覧をDBから読み込み直す。
+     * @return 読み込み直した後の整合性チェックの結果
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<List<ReadModelCheck>> reload() {
+        todayReadModel.reload();
+        return ResponseEntity.ok(todayReadModel.check());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.UpdateReplay;
+import com.example.demo.service.UpdateNotificationService;
+
+/**
+ * /topic/updates の更新メッセージを再送するREST APIコントローラー。
+ * ベースパスは /api/updates
+ */
+@RestController
+@RequestMapping("/api/updates")
+public class UpdatesApiController {
+
+    private final UpdateNotificationService notificationService;
+
+    @Autowired
+    public UpdatesApiController(UpdateNotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    /**
+     * GET /api/updates?after=1730179800123
+     * WebSocket の再接続時に、最後に受信した通番より後のメッセージをメモリから返す。
+     * (complete が false の場合は破棄済みのため、画面は GET /api/changes で取得し直す)
+     * @param after 最後に受信したメッセージの通番 (sequence)
+     */
+    @GetMapping
+    public ResponseEntity<UpdateReplay> replay(@RequestParam("after") long after) {
+        return ResponseEntity.ok(notificationService.replayAfter(after));
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.demo.controller;
 
 // 標準Javaユーティリティ
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -11,18 +13,25 @@ import jakarta.persistence.EntityNotFoundException;
 
 // Spring Framework
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 // アプリケーション固有のモデルとリポジトリ、サービス
+import com.example.demo.dto.VisitorListItem;
 import com.example.demo.model.VisitSituation;
 import com.example.demo.model.Visitor;
-import com.example.demo.repository.VisitSituationRepository;
 import com.example.demo.repository.VisitorRepository;
+import com.example.demo.service.DashboardService;
+import com.example.demo.service.MasterDataRegistry;
+import com.example.demo.service.TodayReadModel;
 import com.example.demo.service.UpdateNotificationService; 
 
 
@@ -36,8 +45,12 @@ public class VisitApiController {
 
     // --- 依存性の注入 (DI) 対象フィールド ---
     private final VisitorRepository visitorRepository;
-    private final VisitSituationRepository visitSituationRepository;
+    private final MasterDataRegistry masterData;
     private final UpdateNotificationService notificationService;
+    // 一覧API (運用日の予約を表示する列のみ取得)
+    private final DashboardService dashboardService;
+    // 当日の読み取りモデル (更新をコミット後に反映)
+    private final TodayReadModel todayReadModel;
     
     // --- 定数フィールド ---
     // クライアントとの間でやり取りする日付時刻フォーマット
@@ -50,17 +63,47 @@ public class VisitApiController {
      */
     @Autowired
     public VisitApiController(VisitorRepository visitorRepository,
-    		VisitSituationRepository visitSituationRepository,
-            UpdateNotificationService notificationService) {
+    		MasterDataRegistry masterData,
+            UpdateNotificationService notificationService,
+            DashboardService dashboardService,
+            TodayReadModel todayReadModel) {
         this.visitorRepository = visitorRepository;
-        this.visitSituationRepository = visitSituationRepository;
+        this.masterData = masterData;
         this.notificationService = notificationService; 
+        this.dashboardService = dashboardService;
+        this.todayReadModel = todayReadModel;
     }
 
     // ----------------------------------------------------------------------
     // --- API エンドポイント定義 ---
     // ----------------------------------------------------------------------
 
+    /**
+     * GET /api/visitor/list?date=yyyy-MM-dd
+     * 運用日 (省略時は今日) の来館者予約を、ダッシュボードに表示する列のみのJSONで返す (予約日時・ID順)。
+     * 💡 画面の再描画なしに1タブ分を取り直すための読み取り専用API。エンティティは読み込まず、DTOを直接JSONに変換する。
+     * @param date 運用日 (Optional)
+     * @return VisitorListItem のリスト
+     */
+    @GetMapping("/list")
+    public List<VisitorListItem> list(
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return dashboardService.listVisitors(date != null ? date : LocalDate.now());
+    }
+
+    /**
+     * GET /api/visitor/situations
+     * 来館状況（VisitSituation）のマスターデータをJSON形式で返す。
+     * マスタのバージョンを ETag とし、変更がなければ 304 を返す。
+     * @param version 画面に埋め込まれたマスタのバージョン (一致する場合は長期キャッシュ可)
+     * @return VisitSituationのリスト (ID順)
+     */
+    @GetMapping("/situations")
+    public ResponseEntity<List<VisitSituation>> getVisitSituationsApi(
+            @RequestParam(value = "v", required = false) String version, WebRequest request) {
+        return MasterDataResponses.of(request, masterData.getVersion(), version, masterData::getVisitSituations);
+    }
+
     /**
      * POST /api/visitor/update
      * 特定の来館者レコードの単一フィールドを更新する。
@@ -110,7 +153,7 @@ public class VisitApiController {
                 }
                 
                 Integer newStatusId = Integer.parseInt(valueStr); 
-                Optional<VisitSituation> optionalStatus = visitSituationRepository.findById(newStatusId);
+                Optional<VisitSituation> optionalStatus = masterData.findVisitSituation(newStatusId);
                 
                 if (optionalStatus.isEmpty()) {
                     // 参照整合性エラー: 存在しないVisitSituation ID
@@ -170,6 +213,8 @@ public class VisitApiController {
             visitor.setUpdateTime(currentUpdateTime);
             
             visitorRepository.save(visitor);
+            // 💡 当日の読み取りモデルへはコミット後に反映する
+            todayReadModel.visitorChanged(visitor.getId());
             
             String updateTimeStr = currentUpdateTime.format(DATETIME_FORMATTER);
             
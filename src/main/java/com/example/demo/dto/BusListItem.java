@@ -0,0 +1,94 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * ダッシュボード・一覧API (GET /api/{parking,visitor,bus}/list)・当日の読み取りモデルが扱う送迎バス予約の1行。
+ * ダッシュボードに表示する列のみを持つ不変のDTO。
+ * 💡 JPQL のコンストラクタ式 (SELECT new ...) で直接生成するため、エンティティは読み込まず、永続化コンテキストにも載らない。
+ */
+public class BusListItem {
+
+    private final Integer id;                         // ID
+    private final LocalDateTime visitReservationTime; // 参列者到着予定日時
+    private final String busName;                     // 運行バス会社名（定員）
+    private final String busDestination;              // 発着終着場所
+    private final LocalDateTime emptybusDepTime;      // 下車済バス出庫時刻
+    private final LocalDateTime scheduledDepTime;     // 参列者出発予定時刻
+    private final LocalDateTime departureTime;        // 乗車済バス出庫時刻
+    private final String familyNames;                 // 手配両家名
+    private final String managerName;                 // 担当
+    private final Short passengers;                   // 乗車数
+    private final Integer busSituationId;             // 入出庫状況 (ID)
+    private final String busSituationName;            // 入出庫状況 (名称)
+    private final LocalDateTime updateTime;           // 更新日時
+    private final String remarksColumn;               // 備考欄
+
+    public BusListItem(Integer id, LocalDateTime visitReservationTime, String busName, String busDestination,
+                       LocalDateTime emptybusDepTime, LocalDateTime scheduledDepTime, LocalDateTime departureTime,
+                       String familyNames, String managerName, Short passengers, Integer busSituationId,
+                       String busSituationName, LocalDateTime updateTime, String remarksColumn) {
+        this.id = id;
+        this.visitReservationTime = visitReservationTime;
+        this.busName = busName;
+        this.busDestination = busDestination;
+        this.emptybusDepTime = emptybusDepTime;
+        this.scheduledDepTime = scheduledDepTime;
+        this.departureTime = departureTime;
+        this.familyNames = familyNames;
+        this.managerName = managerName;
+        this.passengers = passengers;
+        this.busSituationId = busSituationId;
+        this.busSituationName = busSituationName;
+        this.updateTime = updateTime;
+        this.remarksColumn = remarksColumn;
+    }
+
+    public Integer getId() { return id; }
+    public LocalDateTime getVisitReservationTime() { return visitReservationTime; }
+    public String getBusName() { return busName; }
+    public String getBusDestination() { return busDestination; }
+    public LocalDateTime getEmptybusDepTime() { return emptybusDepTime; }
+    public LocalDateTime getScheduledDepTime() { return scheduledDepTime; }
+    public LocalDateTime getDepartureTime() { return departureTime; }
+    public String getFamilyNames() { return familyNames; }
+    public String getManagerName() { return managerName; }
+    public Short getPassengers() { return passengers; }
+    public Integer getBusSituationId() { return busSituationId; }
+    public String getBusSituationName() { return busSituationName; }
+    public LocalDateTime getUpdateTime() { return updateTime; }
+    public String getRemarksColumn() { return remarksColumn; }
+
+    /**
+     * 全列の値が等しい場合に等しい (当日の読み取りモデルとDBの整合性チェックで使用)。
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BusListItem other)) {
+            return false;
+        }
+        return Objects.equals(id, other.id)
+            && Objects.equals(visitReservationTime, other.visitReservationTime)
+            && Objects.equals(busName, other.busName)
+            && Objects.equals(busDestination, other.busDestination)
+            && Objects.equals(emptybusDepTime, other.emptybusDepTime)
+            && Objects.equals(scheduledDepTime, other.scheduledDepTime)
+            && Objects.equals(departureTime, other.departureTime)
+            && Objects.equals(familyNames, other.familyNames)
+            && Objects.equals(managerName, other.managerName)
+            && Objects.equals(passengers, other.passengers)
+            && Objects.equals(busSituationId, other.busSituationId)
+            && Objects.equals(busSituationName, other.busSituationName)
+            && Objects.equals(updateTime, other.updateTime)
+            && Objects.equals(remarksColumn, other.remarksColumn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, updateTime);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 再接続時の差分同期 (GET /api/changes?since=...) の結果。
+ * since 以降に更新された行を種類ごとに、一覧と同じ列 (表示する列のみ) で返す。
+ * syncToken は次回の since に指定する値 (この読み込みを開始した時点のサーバー時刻、エポックミリ秒)。
+ * complete が false の場合は変更が多すぎて一部のみを返しているため、クライアントは一覧全体を取得し直す。
+ */
+public class ChangesSince {
+
+    private final LocalDateTime since;
+    private final String syncToken;
+    private final boolean complete;
+    private final List<ParkingListItem> parkings;
+    private final List<VisitorListItem> visitors;
+    private final List<BusListItem> buses;
+
+    public ChangesSince(LocalDateTime since, String syncToken, boolean complete, List<ParkingListItem> parkings,
+                        List<VisitorListItem> visitors, List<BusListItem> buses) {
+        this.since = since;
+        this.syncToken = syncToken;
+        this.complete = complete;
+        this.parkings = parkings;
+        this.visitors = visitors;
+        this.buses = buses;
+    }
+
+    public LocalDateTime getSince() { return since; }
+    public String getSyncToken() { return syncToken; }
+    public boolean isComplete() { return complete; }
+    public List<ParkingListItem> getParkings() { return parkings; }
+    public List<VisitorListItem> getVisitors() { return visitors; }
+    public List<BusListItem> getBuses() { return buses; }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * ダッシュボードの一覧の1ページ分 (運用日の予約を予約日時・ID順に読み進める)。
+ * nextCursor は最終行の (予約日時, ID) を表す文字列で、「さらに読み込む」で次のページを要求するときに渡す。
+ */
+public class DashboardPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;   // 次のページがない場合は null
+
+    public DashboardPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return nextCursor != null; }
+}
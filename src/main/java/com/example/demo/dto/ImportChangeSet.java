@@ -0,0 +1,104 @@
+package com.example.demo.dto;
+
+import java.util.Arrays;
+
+/**
+ * CSVインポートで新規登録/更新した行のID (取り込み完了時にクライアントへ通知する)。
+ *
+ * IDが maxIds 件を超えた場合や、IDを特定できない方法で書き込んだ場合 (一時テーブル経由など) は
+ * 「不完全」とし、クライアントには一覧全体の再取得を促す。
+ * 取り込みの書き込みスレッドだけが使用する (スレッドセーフではない)。
+ */
+public class ImportChangeSet {
+
+    private final int maxIds;
+    private int[] insertedIds = new int[16];
+    private int insertedSize;
+    private int[] updatedIds = new int[16];
+    private int updatedSize;
+    private int insertedCount;  // IDを保持しなかった行も含む件数
+    private int updatedCount;
+    private boolean complete = true;
+
+    public ImportChangeSet(int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    public void addInserted(int id) {
+        insertedCount++;
+        if (hasRoom()) {
+            insertedIds = append(insertedIds, insertedSize++, id);
+        }
+    }
+
+    public void addUpdated(int id) {
+        updatedCount++;
+        if (hasRoom()) {
+            updatedIds = append(updatedIds, updatedSize++, id);
+        }
+    }
+
+    /**
+     * IDを特定できない行を件数だけ記録する。
+     */
+    public void addUnidentified(int inserted, int updated) {
+        insertedCount += inserted;
+        updatedCount += updated;
+        if (inserted + updated > 0) {
+            markIncomplete();
+        }
+    }
+
+    public void markIncomplete() {
+        complete = false;
+        insertedIds = new int[0];
+        insertedSize = 0;
+        updatedIds = new int[0];
+        updatedSize = 0;
+    }
+
+    /**
+     * コミット済みのチャンク分を合算する。
+     */
+    public void add(ImportChangeSet other) {
+        if (!other.complete) {
+            addUnidentified(other.insertedCount, other.updatedCount);
+            return;
+        }
+        for (int i = 0; i < other.insertedSize; i++) {
+            addInserted(other.insertedIds[i]);
+        }
+        for (int i = 0; i < other.updatedSize; i++) {
+            addUpdated(other.updatedIds[i]);
+        }
+    }
+
+    public boolean isEmpty() {
+        return insertedCount == 0 && updatedCount == 0;
+    }
+
+    private boolean hasRoom() {
+        if (!complete) {
+            return false;
+        }
+        if (insertedSize + updatedSize >= maxIds) {
+            markIncomplete();
+            return false;
+        }
+        return true;
+    }
+
+    private static int[] append(int[] ids, int size, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = id;
+        return ids;
+    }
+
+    public int[] getInsertedIds() { return Arrays.copyOf(insertedIds, insertedSize); }
+    public int[] getUpdatedIds() { return Arrays.copyOf(updatedIds, updatedSize); }
+    public int getInsertedCount() { return insertedCount; }
+    public int getUpdatedCount() { return updatedCount; }
+    public boolean isComplete() { return complete; }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.dto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * バックグラウンドで実行するCSVインポートジョブの状態。
+ * ジョブ状況API (/api/import/jobs) の応答と、STOMP (/topic/import-progress) の進捗通知の両方に使用する。
+ * 
+ * 💡 ワーカースレッドが更新し、リクエストスレッド/通知処理が読み取るため、各フィールドは volatile。
+ */
+public class ImportJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String jobId;
+    private final String entityType;   // 'parking', 'visitor', 'bus'
+    private final String fileName;
+    private final boolean tolerant;         // エラー行を除いて取り込むかどうか
+    private final boolean lowPriority;      // 営業中モード (更新を優先して少しずつ取り込む) かどうか
+    private final LocalDateTime startedAt;
+
+    private volatile Status status = Status.RUNNING;
+    private volatile int rowsRead;
+    private volatile int rowsWritten;
+    private volatile int rowsFailed;
+    private volatile LocalDateTime finishedAt;
+    private volatile String message;
+    private volatile ImportResult result;   // 完了時の 新規/更新/変更なし/エラー 件数
+    private volatile boolean errorReportAvailable;  // エラーレポートをダウンロードできるかどうか
+
+    public ImportJob(String jobId, String entityType, String fileName, boolean tolerant, boolean lowPriority) {
+        this.jobId = jobId;
+        this.entityType = entityType;
+        this.fileName = fileName;
+        this.tolerant = tolerant;
+        this.lowPriority = lowPriority;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    /**
+     * チャンクのコミットごとに累計件数を反映する。
+     */
+    public void updateProgress(int rowsRead, int rowsWritten, int rowsFailed) {
+        this.rowsRead = rowsRead;
+        this.rowsWritten = rowsWritten;
+        this.rowsFailed = rowsFailed;
+    }
+
+    public void complete(String message, ImportResult result) {
+        this.message = message;
+        this.result = result;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    /**
+     * 開始からの経過時間に対する保存件数 (件/秒)。
+     */
+    public double getRowsPerSecond() {
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long millis = Duration.between(startedAt, end).toMillis();
+        return millis <= 0 ? 0 : rowsWritten * 1000.0 / millis;
+    }
+
+    // GetterメソッドはJSON変換に必要
+    public String getJobId() { return jobId; }
+    public String getEntityType() { return entityType; }
+    public String getFileName() { return fileName; }
+    public boolean isTolerant() { return tolerant; }
+    public boolean isLowPriority() { return lowPriority; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public Status getStatus() { return status; }
+    public int getRowsRead() { return rowsRead; }
+    public int getRowsWritten() { return rowsWritten; }
+    public int getRowsFailed() { return rowsFailed; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getMessage() { return message; }
+    public ImportResult getResult() { return result; }
+    public boolean isErrorReportAvailable() { return errorReportAvailable; }
+
+    public void setErrorReportAvailable(boolean errorReportAvailable) {
+        this.errorReportAvailable = errorReportAvailable;
+    }
+}
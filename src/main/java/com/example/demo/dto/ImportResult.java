@@ -0,0 +1,77 @@
+package com.example.demo.dto;
+
+/**
+ * CSVインポートの結果件数。
+ * チャンクごとの結果を {@link #add(ImportResult)} で合算して、取り込み全体の件数とする。
+ */
+public class ImportResult {
+
+    private int inserted;   // 新規登録した行
+    private int updated;    // 内容が変わったため更新した行
+    private int unchanged;  // 既存行と内容が同じため書き込まなかった行
+    private int failed;     // 不正な行のため取り込まなかった行 (エラー行を除いて取り込む場合のみ)
+    private int duplicates; // ファイル内で自然キーが重複していたため採用しなかった行
+    private String duplicatePolicy; // 重複時の扱い (表示名)
+    private long resumedAfterRecord;  // チェックポイントから再開した場合の、前回までに取り込み済みの最終行番号
+
+    public ImportResult() {}
+
+    public ImportResult(int inserted, int updated, int unchanged) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    public void add(ImportResult other) {
+        this.inserted += other.inserted;
+        this.updated += other.updated;
+        this.unchanged += other.unchanged;
+        this.failed += other.failed;
+    }
+
+    public void addFailed(int count) {
+        this.failed += count;
+    }
+
+    /**
+     * 取り込んだ (読み飛ばさずに処理した) 行の合計。エラー行は含まない。
+     */
+    public int getTotal() {
+        return inserted + updated + unchanged;
+    }
+
+    /**
+     * 画面表示用の件数サマリー。例: "新規 10件 / 更新 3件 / 変更なし 120件"
+     */
+    public String getSummary() {
+        String summary = "新規 " + inserted + "件 / 更新 " + updated + "件 / 変更なし " + unchanged + "件";
+        if (failed > 0) {
+            summary += " / エラー " + failed + "件";
+        }
+        if (duplicates > 0) {
+            summary += " / ファイル内重複 " + duplicates + "件 (" + duplicatePolicy + ")";
+        }
+        if (resumedAfterRecord > 0) {
+            summary += " / " + resumedAfterRecord + "行目まで取り込み済みのため続きから再開";
+        }
+        return summary;
+    }
+
+    public void setDuplicates(int duplicates, String duplicatePolicy) {
+        this.duplicates = duplicates;
+        this.duplicatePolicy = duplicatePolicy;
+    }
+
+    public void setResumedAfterRecord(long resumedAfterRecord) {
+        this.resumedAfterRecord = resumedAfterRecord;
+    }
+
+    // GetterメソッドはJSON変換に必要
+    public int getInserted() { return inserted; }
+    public int getUpdated() { return updated; }
+    public int getUnchanged() { return unchanged; }
+    public int getFailed() { return failed; }
+    public int getDuplicates() { return duplicates; }
+    public String getDuplicatePolicy() { return duplicatePolicy; }
+    public long getResumedAfterRecord() { return resumedAfterRecord; }
+}
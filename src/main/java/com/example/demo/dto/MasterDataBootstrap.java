@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.example.demo.model.BusSituation;
+import com.example.demo.model.ParkingStatus;
+import com.example.demo.model.VisitSituation;
+
+/**
+ * ダッシュボード画面に埋め込むステータスマスターの初期データ (window.MASTER_DATA)。
+ * 画面表示時に一度だけ埋め込み、各タブのJSは一覧APIを呼ばずにこの値を使用する。
+ * version は一覧APIの ETag と同じ値。
+ */
+public class MasterDataBootstrap {
+
+    private final String version;
+    private final List<ParkingStatus> parkingStatuses;
+    private final List<VisitSituation> visitSituations;
+    private final List<BusSituation> busSituations;
+
+    public MasterDataBootstrap(String version, List<ParkingStatus> parkingStatuses,
+                               List<VisitSituation> visitSituations, List<BusSituation> busSituations) {
+        this.version = version;
+        this.parkingStatuses = parkingStatuses;
+        this.visitSituations = visitSituations;
+        this.busSituations = busSituations;
+    }
+
+    // GetterメソッドはJSON変換に必要
+    public String getVersion() { return version; }
+    public List<ParkingStatus> getParkingStatuses() { return parkingStatuses; }
+    public List<VisitSituation> getVisitSituations() { return visitSituations; }
+    public List<BusSituation> getBusSituations() { return busSituations; }
+}
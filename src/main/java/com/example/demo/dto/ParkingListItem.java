@@ -0,0 +1,95 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * ダッシュボード・一覧API (GET /api/{parking,visitor,bus}/list)・当日の読み取りモデルが扱う駐車場予約の1行。
+ * ダッシュボードに表示する列のみを持つ不変のDTO。
+ * 💡 JPQL のコンストラクタ式 (SELECT new ...) で直接生成するため、エンティティは読み込まず、永続化コンテキストにも載らない。
+ */
+public class ParkingListItem {
+
+    private final Integer id;                         // ID
+    private final LocalDateTime visitReservationTime; // 来館予定日時
+    private final String errandsRelationship;         // 用件と続柄
+    private final String carNumber;                   // 車両ナンバー
+    private final String visitorName;                 // 来館者氏名
+    private final String familyNames;                 // 参列家名
+    private final String managerName;                 // 担当
+    private final LocalDateTime departureTime;        // 出庫時刻
+    private final String parkingPermit;               // 駐車証No.
+    private final String parkingPosition;             // 駐車位置
+    private final Integer parkingStatusId;            // 利用状況 (ID)
+    private final String parkingStatusName;           // 利用状況 (名称)
+    private final LocalDateTime updateTime;           // 更新日時
+    private final String remarksColumn;               // 備考欄
+
+    public ParkingListItem(Integer id, LocalDateTime visitReservationTime, String errandsRelationship,
+                           String carNumber, String visitorName, String familyNames, String managerName,
+                           LocalDateTime departureTime, String parkingPermit, String parkingPosition,
+                           Integer parkingStatusId, String parkingStatusName, LocalDateTime updateTime,
+                           String remarksColumn) {
+        this.id = id;
+        this.visitReservationTime = visitReservationTime;
+        this.errandsRelationship = errandsRelationship;
+        this.carNumber = carNumber;
+        this.visitorName = visitorName;
+        this.familyNames = familyNames;
+        this.managerName = managerName;
+        this.departureTime = departureTime;
+        this.parkingPermit = parkingPermit;
+        this.parkingPosition = parkingPosition;
+        this.parkingStatusId = parkingStatusId;
+        this.parkingStatusName = parkingStatusName;
+        this.updateTime = updateTime;
+        this.remarksColumn = remarksColumn;
+    }
+
+    public Integer getId() { return id; }
+    public LocalDateTime getVisitReservationTime() { return visitReservationTime; }
+    public String getErrandsRelationship() { return errandsRelationship; }
+    public String getCarNumber() { return carNumber; }
+    public String getVisitorName() { return visitorName; }
+    public String getFamilyNames() { return familyNames; }
+    public String getManagerName() { return managerName; }
+    public LocalDateTime getDepartureTime() { return departureTime; }
+    public String getParkingPermit() { return parkingPermit; }
+    public String getParkingPosition() { return parkingPosition; }
+    public Integer getParkingStatusId() { return parkingStatusId; }
+    public String getParkingStatusName() { return parkingStatusName; }
+    public LocalDateTime getUpdateTime() { return updateTime; }
+    public String getRemarksColumn() { return remarksColumn; }
+
+    /**
+     * 全列の値が等しい場合に等しい (当日の読み取りモデルとDBの整合性チェックで使用)。
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ParkingListItem other)) {
+            return false;
+        }
+        return Objects.equals(id, other.id)
+            && Objects.equals(visitReservationTime, other.visitReservationTime)
+            && Objects.equals(errandsRelationship, other.errandsRelationship)
+            && Objects.equals(carNumber, other.carNumber)
+            && Objects.equals(visitorName, other.visitorName)
+            && Objects.equals(familyNames, other.familyNames)
+            && Objects.equals(managerName, other.managerName)
+            && Objects.equals(departureTime, other.departureTime)
+            && Objects.equals(parkingPermit, other.parkingPermit)
+            && Objects.equals(parkingPosition, other.parkingPosition)
+            && Objects.equals(parkingStatusId, other.parkingStatusId)
+            && Objects.equals(parkingStatusName, other.parkingStatusName)
+            && Objects.equals(updateTime, other.updateTime)
+            && Objects.equals(remarksColumn, other.remarksColumn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, updateTime);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * 当日の読み取りモデル (メモリ) とDBの整合性チェックの結果 (1種類の予約分)。
+ */
+public class ReadModelCheck {
+
+    private final String entityType;          // parking / visitor / bus
+    private final int memoryCount;            // メモリ上の件数
+    private final int databaseCount;          // DB上の件数
+    private final List<Integer> missingIds;    // DBにあり、メモリにない
+    private final List<Integer> unexpectedIds; // メモリにあり、DBにない
+    private final List<Integer> staleIds;      // 両方にあるが内容が異なる
+
+    public ReadModelCheck(String entityType, int memoryCount, int databaseCount, List<Integer> missingIds,
+                          List<Integer> unexpectedIds, List<Integer> staleIds) {
+        this.entityType = entityType;
+        this.memoryCount = memoryCount;
+        this.databaseCount = databaseCount;
+        this.missingIds = missingIds;
+        this.unexpectedIds = unexpectedIds;
+        this.staleIds = staleIds;
+    }
+
+    public String getEntityType() { return entityType; }
+    public int getMemoryCount() { return memoryCount; }
+    public int getDatabaseCount() { return databaseCount; }
+    public List<Integer> getMissingIds() { return missingIds; }
+    public List<Integer> getUnexpectedIds() { return unexpectedIds; }
+    public List<Integer> getStaleIds() { return staleIds; }
+    public boolean isConsistent() { return missingIds.isEmpty() && unexpectedIds.isEmpty() && staleIds.isEmpty(); }
+}
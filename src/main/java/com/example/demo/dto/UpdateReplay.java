@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * 更新メッセージの再送 (GET /api/updates?after=...) の結果。
+ * complete が true の場合、messages は after より後に /topic/updates へ送信した全てのメッセージ (通番順)。
+ * complete が false の場合は続きのメッセージを既にメモリから破棄しているため messages は空で、
+ * クライアントは差分同期 (GET /api/changes) で取得し直す。
+ */
+public class UpdateReplay {
+
+    private final long after;
+    private final long latestSequence;
+    private final boolean complete;
+    private final List<Object> messages;
+
+    public UpdateReplay(long after, long latestSequence, boolean complete, List<Object> messages) {
+        this.after = after;
+        this.latestSequence = latestSequence;
+        this.complete = complete;
+        this.messages = messages;
+    }
+
+    public long getAfter() { return after; }
+    public long getLatestSequence() { return latestSequence; }
+    public boolean isComplete() { return complete; }
+    public List<Object> getMessages() { return messages; }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * ダッシュボード・一覧API (GET /api/{parking,visitor,bus}/list)・当日の読み取りモデルが扱う来館者予約の1行。
+ * ダッシュボードに表示する列のみを持つ不変のDTO。
+ * 💡 JPQL のコンストラクタ式 (SELECT new ...) で直接生成するため、エンティティは読み込まず、永続化コンテキストにも載らない。
+ */
+public class VisitorListItem {
+
+    private final Integer id;                         // ID
+    private final LocalDateTime visitReservationTime; // 来館予定日時
+    private final String errandsRelationship;         // 用件
+    private final String visitorName;                 // 来館者氏名
+    private final String familyNames;                 // 参列家名
+    private final String managerName;                 // 担当
+    private final LocalDateTime compilationCmpTime;   // 対応完了時刻
+    private final Integer visitSituationId;           // 来館状況 (ID)
+    private final String visitSituationName;          // 来館状況 (名称)
+    private final LocalDateTime updateTime;           // 更新日時
+    private final String remarksColumn;               // 備考欄
+
+    public VisitorListItem(Integer id, LocalDateTime visitReservationTime, String errandsRelationship,
+                           String visitorName, String familyNames, String managerName,
+                           LocalDateTime compilationCmpTime, Integer visitSituationId, String visitSituationName,
+                           LocalDateTime updateTime, String remarksColumn) {
+        this.id = id;
+        this.visitReservationTime = visitReservationTime;
+        this.errandsRelationship = errandsRelationship;
+        this.visitorName = visitorName;
+        this.familyNames = familyNames;
+        this.managerName = managerName;
+        this.compilationCmpTime = compilationCmpTime;
+        this.visitSituationId = visitSituationId;
+        this.visitSituationName = visitSituationName;
+        this.updateTime = updateTime;
+        this.remarksColumn = remarksColumn;
+    }
+
+    public Integer getId() { return id; }
+    public LocalDateTime getVisitReservationTime() { return visitReservationTime; }
+    public String getErrandsRelationship() { return errandsRelationship; }
+    public String getVisitorName() { return visitorName; }
+    public String getFamilyNames() { return familyNames; }
+    public String getManagerName() { return managerName; }
+    public LocalDateTime getCompilationCmpTime() { return compilationCmpTime; }
+    public Integer getVisitSituationId() { return visitSituationId; }
+    public String getVisitSituationName() { return visitSituationName; }
+    public LocalDateTime getUpdateTime() { return updateTime; }
+    public String getRemarksColumn() { return remarksColumn; }
+
+    /**
+     * 全列の値が等しい場合に等しい (当日の読み取りモデルとDBの整合性チェックで使用)。
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof VisitorListItem other)) {
+            return false;
+        }
+        return Objects.equals(id, other.id)
+            && Objects.equals(visitReservationTime, other.visitReservationTime)
+            && Objects.equals(errandsRelationship, other.errandsRelationship)
+            && Objects.equals(visitorName, other.visitorName)
+            && Objects.equals(familyNames, other.familyNames)
+            && Objects.equals(managerName, other.managerName)
+            && Objects.equals(compilationCmpTime, other.compilationCmpTime)
+            && Objects.equals(visitSituationId, other.visitSituationId)
+            && Objects.equals(visitSituationName, other.visitSituationName)
+            && Objects.equals(updateTime, other.updateTime)
+            && Objects.equals(remarksColumn, other.remarksColumn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, updateTime);
+    }
+}
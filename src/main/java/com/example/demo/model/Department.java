@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 
 @Entity
@@ -14,9 +15,13 @@ public class Department {
 
     /**
      * department_id (INT PRIMARY KEY AUTO_INCREMENT)
+     * IDは id_sequences から採番する (AUTO_INCREMENT は使用しない)
      */
     @Id // 主キーであることを示す
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // 💡 AUTO_INCREMENTに対応
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "department_id_generator") // 💡 採番テーブルからまとめて払い出し (JDBCバッチ有効)
+    @TableGenerator(name = "department_id_generator", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+        valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.DEPARTMENTS,
+        allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "department_id") // データベースのカラム名を指定
     private Integer id;
 
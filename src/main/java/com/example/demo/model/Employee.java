@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 @Entity
 @Table(name = "EMPLOYEES") 
@@ -16,9 +17,13 @@ public class Employee {
 
     /**
      * employee_id (INT PRIMARY KEY AUTO_INCREMENT)
+     * IDは id_sequences から採番する (AUTO_INCREMENT は使用しない)
      */
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY) 
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "employee_id_generator") // 💡 採番テーブルからまとめて払い出し (JDBCバッチ有効)
+    @TableGenerator(name = "employee_id_generator", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+        valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.EMPLOYEES,
+        allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "employee_id") 
     private Integer id;
 
@@ -0,0 +1,31 @@
+package com.example.demo.model;
+
+/**
+ * 主キーの採番テーブル (id_sequences) の定義。
+ * 
+ * IDENTITY (AUTO_INCREMENT) 採番では INSERT ごとにIDを受け取る必要があり、Hibernate のJDBCバッチが無効になるため、
+ * 予約・社員・部署テーブルは採番テーブルから ALLOCATION_SIZE 件ずつまとめてIDを払い出す (pooled 方式)。
+ * 
+ * 💡 next_val は「払い出し済みIDの最大値 + ALLOCATION_SIZE」を表す。
+ *    next_val = V を読んだ処理は V を V + n に更新し、(V - ALLOCATION_SIZE + 1) から n 件を使用する。
+ *    JPA (@TableGenerator) と JDBC の一括登録 (IdBlockAllocator) は同じ規則で採番するため、IDは重複しない。
+ */
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // 1回の採番でまとめて確保するID数 (hibernate.jdbc.batch_size と合わせる)
+    public static final int ALLOCATION_SIZE = 50;
+
+    // 採番テーブル上のシーケンス名 (= テーブル名)
+    public static final String PARKINGS = "parkings";
+    public static final String VISITORS = "visitors";
+    public static final String SHUTTLEBUS_RESERVATIONS = "shuttlebus_reservations";
+    public static final String EMPLOYEES = "employees";
+    public static final String DEPARTMENTS = "departments";
+
+    private IdSequences() {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+/**
+ * CSVインポートの再開用チェックポイント。
+ * (種類, ファイルのハッシュ値) ごとに、コミット済みの最終CSV行番号を保持する。
+ */
+@Entity
+@Table(name = "IMPORT_CHECKPOINTS")
+public class ImportCheckpoint {
+
+    /**
+     * checkpoint_id (INT PRIMARY KEY AUTO_INCREMENT)
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "checkpoint_id")
+    private Integer id;
+
+    /**
+     * entity_type (VARCHAR(16) NOT NULL) 'parking', 'visitor', 'bus'
+     */
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+
+    /**
+     * file_hash (CHAR(64) NOT NULL) ファイル内容の SHA-256
+     */
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    /**
+     * file_name (VARCHAR(255))
+     */
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    /**
+     * last_record_number (BIGINT NOT NULL)
+     */
+    @Column(name = "last_record_number", nullable = false)
+    private long lastRecordNumber;
+
+    /**
+     * rows_committed (INT NOT NULL)
+     */
+    @Column(name = "rows_committed", nullable = false)
+    private int rowsCommitted;
+
+    /**
+     * update_time (DATETIME NOT NULL)
+     */
+    @UpdateTimestamp
+    @Column(name = "update_time", nullable = false)
+    private LocalDateTime updateTime;
+
+    public ImportCheckpoint() {
+    }
+
+    public ImportCheckpoint(String entityType, String fileHash, String fileName) {
+        this.entityType = entityType;
+        this.fileHash = fileHash;
+        this.fileName = fileName;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getLastRecordNumber() {
+        return lastRecordNumber;
+    }
+
+    public void setLastRecordNumber(long lastRecordNumber) {
+        this.lastRecordNumber = lastRecordNumber;
+    }
+
+    public int getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public void setRowsCommitted(int rowsCommitted) {
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    public LocalDateTime getUpdateTime() {
+        return updateTime;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.model;
+
+/**
+ * CSVインポートの完了時に /topic/updates へ送信する変更サマリー (1回の取り込みにつき1件)。
+ * クライアントはページ全体を再読み込みせず、変更された行だけを取得し直す。
+ * (complete が false の場合はIDの一覧が省略されているため、一覧全体を取得し直す)
+ * sequence は /topic/updates の通番 (行ごとの更新メッセージ RemoteUpdateMessage と共通)。
+ */
+public class ImportSummaryMessage {
+    // common.js の handleRemoteUpdate で RemoteUpdateMessage と区別するための種別
+    public static final String TYPE = "import_summary";
+
+    private String entityType;
+    private int[] insertedIds;
+    private int[] updatedIds;
+    private int insertedCount;
+    private int updatedCount;
+    private boolean complete;
+    private long sequence;
+    private String updateTime;
+    private String message;
+
+    public ImportSummaryMessage(String entityType, int[] insertedIds, int[] updatedIds,
+                                int insertedCount, int updatedCount, boolean complete,
+                                long sequence, String updateTime, String message) {
+        this.entityType = entityType;
+        this.insertedIds = insertedIds;
+        this.updatedIds = updatedIds;
+        this.insertedCount = insertedCount;
+        this.updatedCount = updatedCount;
+        this.complete = complete;
+        this.sequence = sequence;
+        this.updateTime = updateTime;
+        this.message = message;
+    }
+
+    // デシリアライズに必要（空コンストラクタ）
+    public ImportSummaryMessage() {}
+
+    public String getType() { return TYPE; }
+    public String getEntityType() { return entityType; }
+    public int[] getInsertedIds() { return insertedIds; }
+    public int[] getUpdatedIds() { return updatedIds; }
+    public int getInsertedCount() { return insertedCount; }
+    public int getUpdatedCount() { return updatedCount; }
+    public boolean isComplete() { return complete; }
+    public long getSequence() { return sequence; }
+    public String getUpdateTime() { return updateTime; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return "ImportSummaryMessage{entityType=" + entityType + ", inserted=" + insertedCount
+            + ", updated=" + updatedCount + ", complete=" + complete + ", sequence=" + sequence + "}";
+    }
+}
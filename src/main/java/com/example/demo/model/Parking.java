@@ -10,6 +10,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 @Entity
 @Table(name = "PARKINGS") 
@@ -17,9 +18,13 @@ public class Parking {
 
     /**
      * parking_id (INTEGER NOT NULL PRIMARY KEY AUTO_INCREMENT)
+     * IDは id_sequences から採番する (AUTO_INCREMENT は使用しない)
      */
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY) 
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "parking_id_generator") // 💡 採番テーブルからまとめて払い出し (JDBCバッチ有効)
+    @TableGenerator(name = "parking_id_generator", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+        valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.PARKINGS,
+        allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "parking_id") 
     private Integer id;
 
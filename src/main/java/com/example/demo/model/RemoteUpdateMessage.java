@@ -3,8 +3,10 @@ package com.example.demo.model;
 /**
  * WebSocketでクライアントに送信する更新通知メッセージのデータ構造 (DTO)
  * common.js の handleRemoteUpdate が期待する全ての情報を含む。
+ * sequence は /topic/updates の通番 (単調増加。再接続時に GET /api/updates?after= で続きを取得するために使用する)。
  */
 public class RemoteUpdateMessage {
+    private long sequence;
     private String id;
     private String field;
     private String newValue;
@@ -15,9 +17,10 @@ public class RemoteUpdateMessage {
     private String message;    
     
     // 💡 全引数コンストラクタ
-    public RemoteUpdateMessage(String id, String field, String newValue, 
+    public RemoteUpdateMessage(long sequence, String id, String field, String newValue, 
                                String extraField, String extraValue, 
                                String updateTime, String entityType, String message) {
+        this.sequence = sequence;
         this.id = id;
         this.field = field;
         this.newValue = newValue;
@@ -32,6 +35,7 @@ public class RemoteUpdateMessage {
     public RemoteUpdateMessage() {} 
 
     // 💡 Getterメソッド (JSON変換に必要)
+    public long getSequence() { return sequence; }
     public String getId() { return id; }
     public String getField() { return field; }
     public String getNewValue() { return newValue; }
@@ -40,4 +44,10 @@ public class RemoteUpdateMessage {
     public String getUpdateTime() { return updateTime; }
     public String getEntityType() { return entityType; }
     public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return "RemoteUpdateMessage{sequence=" + sequence + ", entityType=" + entityType + ", id=" + id
+            + ", field=" + field + "}";
+    }
 }
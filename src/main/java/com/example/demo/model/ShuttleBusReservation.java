@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -20,9 +21,13 @@ public class ShuttleBusReservation {
 
     /**
      * bus_id (INTEGER NOT NULL PRIMARY KEY AUTO_INCREMENT)
+     * IDは id_sequences から採番する (AUTO_INCREMENT は使用しない)
      */
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY) 
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bus_id_generator") // 💡 採番テーブルからまとめて払い出し (JDBCバッチ有効)
+    @TableGenerator(name = "bus_id_generator", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+        valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.SHUTTLEBUS_RESERVATIONS,
+        allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "bus_id") 
     private Integer id;
 
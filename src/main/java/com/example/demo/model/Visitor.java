@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 
 @Entity
 @Table(name = "VISITORS") 
@@ -18,9 +19,13 @@ public class Visitor {
 
     /**
      * visitor_id (INTEGER NOT NULL PRIMARY KEY AUTO_INCREMENT)
+     * IDは id_sequences から採番する (AUTO_INCREMENT は使用しない)
      */
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY) 
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "visitor_id_generator") // 💡 採番テーブルからまとめて払い出し (JDBCバッチ有効)
+    @TableGenerator(name = "visitor_id_generator", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+        valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.VISITORS,
+        allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "visitor_id") 
     private Integer id;
 
@@ -0,0 +1,557 @@
+package com.example.demo.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.ImportChangeSet;
+import com.example.demo.dto.ImportResult;
+import com.example.demo.model.IdSequences;
+import com.example.demo.model.Parking;
+import com.example.demo.model.ShuttleBusReservation;
+import com.example.demo.model.Visitor;
+
+/**
+ * CSVインポート用の一括UPSERTリポジトリ。
+ * 1行ごとの findBy + save (2N往復) ではなく、JDBCバッチでチャンク単位に書き込む。
+ *
+ * - MySQL: INSERT ... ON DUPLICATE KEY UPDATE を1バッチで送信
+ *   (自然キーのユニーク制約が必要。db/migration/インポート用自然キー制約の追加.sql を参照)
+ * - その他のDB: 自然キーで UPDATE をバッチ送信し、更新件数0の行だけを INSERT でバッチ送信
+ *
+ * 自然キーは既存の検索メソッドと同じ (来館者名 + 予約日時 / バス会社名 + 予約日時)。
+ *
+ * 事前に読み込んだ {@link NaturalKeyIndex} を渡した場合、インデックスに存在する行は
+ * 主キー指定の UPDATE で更新し、存在しない行だけを上記のUPSERTで書き込む
+ * (インデックス読み込み後に他の処理で追加された行があっても重複しない。その場合は既存行の内容を読み込んで、
+ * インデックスにあった行と同じく内容が変わった場合のみ更新する)。
+ *
+ * 💡 インデックスには既存行の更新対象列のフィンガープリントも読み込んでおき、
+ *    CSVの内容が既存行と同じ行は UPDATE を送らない (update_time も変わらない)。
+ * 💡 新規行のIDは AUTO_INCREMENT ではなく、エンティティと同じ採番テーブルから
+ *    {@link IdBlockAllocator} でバッチ件数分まとめて確保して指定する。
+ */
+@Repository
+public class BulkUpsertRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdBlockAllocator idAllocator;
+
+    // 接続先がMySQLかどうか (初回利用時に判定)
+    private volatile Boolean mysql;
+
+    // --- テーブルごとのUPSERT定義 ---
+
+    // 駐車場予約: 更新時は来館者情報 (参列家名・担当) を上書きしない
+    private static final UpsertSpec<Parking> PARKING_SPEC = new UpsertSpec<>(
+        "parkings", "parking_id", IdSequences.PARKINGS,
+        new String[] { "visitor_name", "visit_reservation_time" },
+        new String[] { "family_names", "manager_name" },
+        new String[] { "errands_relationship", "car_number", "departure_time", "parking_permit",
+                       "parking_position", "parking_status_id", "remarks_column" },
+        p -> new Object[] { p.getVisitorName(), p.getVisitReservationTime() },
+        p -> new Object[] { p.getFamilyNames(), p.getManagerName() },
+        p -> new Object[] { p.getErrandsRelationship(), p.getCarNumber(), p.getDepartureTime(), p.getParkingPermit(),
+                            p.getParkingPosition(), p.getParkingStatus().getStatusId(), p.getRemarksColumn() });
+
+    // 来館者予約
+    private static final UpsertSpec<Visitor> VISITOR_SPEC = new UpsertSpec<>(
+        "visitors", "visitor_id", IdSequences.VISITORS,
+        new String[] { "visitor_name", "visit_reservation_time" },
+        new String[] {},
+        new String[] { "errands_relationship", "family_names", "manager_name", "compilation_cmp_time",
+                       "visit_situation_id", "remarks_column" },
+        v -> new Object[] { v.getVisitorName(), v.getVisitReservationTime() },
+        v -> new Object[] {},
+        v -> new Object[] { v.getErrandsRelationship(), v.getFamilyNames(), v.getManagerName(), v.getCompilationCmpTime(),
+                            v.getVisitSituation().getSituationId(), v.getRemarksColumn() });
+
+    // 送迎バス予約
+    private static final UpsertSpec<ShuttleBusReservation> BUS_SPEC = new UpsertSpec<>(
+        "shuttlebus_reservations", "bus_id", IdSequences.SHUTTLEBUS_RESERVATIONS,
+        new String[] { "bus_name", "visit_reservation_time" },
+        new String[] {},
+        new String[] { "bus_destination", "emptybus_dep_time", "scheduled_dep_time", "departure_time",
+                       "family_names", "manager_name", "passengers", "bus_situations_id", "remarks_column" },
+        b -> new Object[] { b.getBusName(), b.getVisitReservationTime() },
+        b -> new Object[] {},
+        b -> new Object[] { b.getBusDestination(), b.getEmptybusDepTime(), b.getScheduledDepTime(), b.getDepartureTime(),
+                            b.getFamilyNames(), b.getManagerName(), b.getPassengers(), b.getBusSituation().getId(),
+                            b.getRemarksColumn() });
+
+    @Autowired
+    public BulkUpsertRepository(JdbcTemplate jdbcTemplate, IdBlockAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 公開メソッド ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * @param index 事前に読み込んだ自然キーインデックス (null の場合はすべてUPSERTで書き込む)
+     * @param changes 新規登録/更新した行のIDの記録先
+     */
+    public ImportResult upsertParkings(List<Parking> parkings, NaturalKeyIndex index, ImportChangeSet changes) {
+        return upsert(parkings, PARKING_SPEC, index, changes);
+    }
+
+    public ImportResult upsertVisitors(List<Visitor> visitors, NaturalKeyIndex index, ImportChangeSet changes) {
+        return upsert(visitors, VISITOR_SPEC, index, changes);
+    }
+
+    public ImportResult upsertBuses(List<ShuttleBusReservation> buses, NaturalKeyIndex index,
+                                    ImportChangeSet changes) {
+        return upsert(buses, BUS_SPEC, index, changes);
+    }
+
+    /**
+     * 指定した予約日時の範囲にある駐車場予約の (来館者名, 予約日時) → ID と
+     * 内容フィンガープリントを1回のクエリで読み込む。
+     * @param from 範囲の開始 (null の場合は日時ありの行を読み込まない)
+     * @param to 範囲の終了 (この値を含む)
+     * @param includeNullTime 予約日時が NULL の行も読み込むかどうか
+     */
+    public NaturalKeyIndex loadParkingKeys(LocalDateTime from, LocalDateTime to, boolean includeNullTime) {
+        return loadKeys(PARKING_SPEC, from, to, includeNullTime);
+    }
+
+    public NaturalKeyIndex loadVisitorKeys(LocalDateTime from, LocalDateTime to) {
+        return loadKeys(VISITOR_SPEC, from, to, false);
+    }
+
+    public NaturalKeyIndex loadBusKeys(LocalDateTime from, LocalDateTime to) {
+        return loadKeys(BUS_SPEC, from, to, false);
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内部処理 ---
+    // ----------------------------------------------------------------------
+
+    private <T> ImportResult upsert(List<T> rows, UpsertSpec<T> spec, NaturalKeyIndex index,
+                                    ImportChangeSet changes) {
+        ImportResult result = new ImportResult();
+        if (rows.isEmpty()) {
+            return result;
+        }
+
+        if (index != null) {
+            // 💡 既存行はインデックスから得たIDで直接 UPDATE (DBへの存在確認なし)
+            List<T> unknown = new ArrayList<>();
+            result.add(updateExisting(rows, spec, index, index, changes, unknown));
+            rows = unknown;
+            if (rows.isEmpty()) {
+                return result;
+            }
+        }
+
+        if (isMySql()) {
+            // 💡 予約日時が NULL の行はユニーク制約で重複検出できないため、汎用経路で処理する
+            List<T> keyed = new ArrayList<>(rows.size());
+            List<T> nullKeyed = new ArrayList<>();
+            for (T row : rows) {
+                if (hasNullKey(spec.keyValues.apply(row))) {
+                    nullKeyed.add(row);
+                } else {
+                    keyed.add(row);
+                }
+            }
+            result.add(upsertByKey(keyed, spec, index, changes));
+            result.add(updateThenInsert(nullKeyed, spec, changes));
+        } else {
+            result.add(updateThenInsert(rows, spec, changes));
+        }
+        return result;
+    }
+
+    /**
+     * IDが分かっている既存行を、内容フィンガープリントが変わった行だけ主キーで UPDATE する。
+     * @param current 既存行の自然キー → ID・フィンガープリント
+     * @param index 書き込んだ内容を登録するインデックス (null 可)
+     * @param notFound current にない行の追加先
+     * @return 更新した行数と、内容が同じため書き込まなかった行数
+     */
+    private <T> ImportResult updateExisting(List<T> rows, UpsertSpec<T> spec, NaturalKeyIndex current,
+                                            NaturalKeyIndex index, ImportChangeSet changes, List<T> notFound) {
+        List<Object[]> params = new ArrayList<>();
+        int unchanged = 0;
+        for (T row : rows) {
+            Object[] key = spec.keyValues.apply(row);
+            String name = (String) key[0];
+            LocalDateTime time = (LocalDateTime) key[1];
+            int id = current.get(name, time);
+            if (id < 0) {
+                notFound.add(row);
+                continue;
+            }
+
+            Object[] values = spec.updateValues.apply(row);
+            long fingerprint = fingerprint(values);
+            if (current.getFingerprint(name, time) == fingerprint) {
+                // 内容が同じ行は書き込まない
+                unchanged++;
+            } else {
+                params.add(UpsertSpec.concat(values, new Object[] { id }));
+                changes.addUpdated(id);
+            }
+            // ファイル内に同じキーの行が再度現れた場合に備え、書き込んだ内容で置き換える
+            if (index != null) {
+                index.put(name, time, id, fingerprint);
+            }
+        }
+        if (!params.isEmpty()) {
+            jdbcTemplate.batchUpdate(spec.updateByIdSql, params);
+        }
+        return new ImportResult(0, params.size(), unchanged);
+    }
+
+    /**
+     * 汎用経路: 自然キーで UPDATE → 更新されなかった行だけ INSERT。
+     * (自然キーで UPDATE した行はIDが分からないため、件数だけを記録する)
+     * @return 新規登録/更新した行数
+     */
+    private <T> ImportResult updateThenInsert(List<T> rows, UpsertSpec<T> spec, ImportChangeSet changes) {
+        if (rows.isEmpty()) {
+            return new ImportResult();
+        }
+        String updateSql = isMySql() ? spec.updateSqlMySql : spec.updateSqlStandard;
+        int[] counts = batch(updateSql, rows, spec::updateValues);
+
+        List<T> inserts = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                inserts.add(rows.get(i));
+            }
+        }
+        changes.addUnidentified(0, rows.size() - inserts.size());
+        insert(inserts, spec, changes);
+        return new ImportResult(inserts.size(), rows.size() - inserts.size(), 0);
+    }
+
+    /**
+     * MySQL: 確保したIDを指定して INSERT ... ON DUPLICATE KEY UPDATE (既存行は変更しない) をバッチ送信し、
+     * 実際に新規登録になった行を読み戻して記録する。
+     * 💡 インデックスの読み込み後に他の処理が同じ自然キーの行を追加していた場合、その行は登録されない
+     *    (確保したIDは欠番になる)。rewriteBatchedStatements 有効時は行ごとの更新件数が返らないため、
+     *    確保したIDの範囲に存在する行を新規とし、それ以外は既存行の内容を読み込んで、
+     *    インデックスにあった行と同じく内容が変わった行だけを主キーで更新する (同じ内容の行は変更なし)。
+     * @return 新規登録/更新/変更なしの行数
+     */
+    private <T> ImportResult upsertByKey(List<T> rows, UpsertSpec<T> spec, NaturalKeyIndex index,
+                                         ImportChangeSet changes) {
+        if (rows.isEmpty()) {
+            return new ImportResult();
+        }
+        int firstId = idAllocator.allocate(spec.sequenceName, rows.size());
+        List<Object[]> params = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            params.add(UpsertSpec.concat(new Object[] { firstId + i }, spec.insertValues(rows.get(i))));
+        }
+        jdbcTemplate.batchUpdate(spec.onDuplicateKeySql, params);
+
+        Set<Integer> insertedIds = new HashSet<>(jdbcTemplate.queryForList(
+            spec.selectIdRangeSql, Integer.class, firstId, firstId + rows.size() - 1));
+        List<T> merged = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (insertedIds.contains(firstId + i)) {
+                changes.addInserted(firstId + i);
+                remember(index, spec, rows.get(i), firstId + i);
+            } else {
+                merged.add(rows.get(i));
+            }
+        }
+        ImportResult result = new ImportResult(insertedIds.size(), 0, 0);
+        if (merged.isEmpty()) {
+            return result;
+        }
+
+        List<T> notFound = new ArrayList<>();
+        result.add(updateExisting(merged, spec, findByKey(spec, merged), index, changes, notFound));
+        // 読み込む前に自然キーが変更された場合のみ (既存行は INSERT でロック済みのため通常は発生しない)
+        result.add(updateThenInsert(notFound, spec, changes));
+        return result;
+    }
+
+    /**
+     * 指定した行と同じ自然キーを持つ既存行のIDと内容フィンガープリントを1回のクエリで読み込む
+     * (予約日時が NULL の行は指定しないこと)。
+     * 💡 ロック読み取り (FOR UPDATE) のため、トランザクション開始後に他の処理がコミットした行も最新の内容で読み込む。
+     */
+    private <T> NaturalKeyIndex findByKey(UpsertSpec<T> spec, List<T> rows) {
+        List<Object> params = new ArrayList<>(rows.size() * 2);
+        for (T row : rows) {
+            params.addAll(List.of(spec.keyValues.apply(row)));
+        }
+        String sql = "SELECT " + spec.idColumn + ", " + spec.nameColumn + ", visit_reservation_time, "
+            + String.join(", ", spec.updateColumns) + " FROM " + spec.table
+            + " WHERE (" + spec.nameColumn + ", visit_reservation_time) IN ("
+            + String.join(", ", Collections.nCopies(rows.size(), "(?, ?)")) + ") FOR UPDATE";
+        NaturalKeyIndex current = new NaturalKeyIndex(rows.size());
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs ->
+            current.put(rs.getString(2), rs.getObject(3, LocalDateTime.class), rs.getInt(1),
+                        fingerprint(currentValues(rs, spec.updateColumns.length))), params.toArray());
+        return current;
+    }
+
+    /**
+     * 書き込んだ行をインデックスに登録する (ファイル内の後続のチャンクに同じキーの行が現れた場合に、主キーで更新するため)。
+     */
+    private static <T> void remember(NaturalKeyIndex index, UpsertSpec<T> spec, T row, int id) {
+        if (index == null) {
+            return;
+        }
+        Object[] key = spec.keyValues.apply(row);
+        index.put((String) key[0], (LocalDateTime) key[1], id, fingerprint(spec.updateValues.apply(row)));
+    }
+
+    /**
+     * 新規行のIDを採番テーブルからまとめて確保し、IDを指定して INSERT をバッチ送信する。
+     */
+    private <T> void insert(List<T> rows, UpsertSpec<T> spec, ImportChangeSet changes) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int firstId = idAllocator.allocate(spec.sequenceName, rows.size());
+        List<Object[]> params = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            params.add(UpsertSpec.concat(new Object[] { firstId + i }, spec.insertValues(rows.get(i))));
+            changes.addInserted(firstId + i);
+        }
+        jdbcTemplate.batchUpdate(spec.insertSql, params);
+    }
+
+    private <T> int[] batch(String sql, List<T> rows, Function<T, Object[]> params) {
+        if (rows.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] values = params.apply(rows.get(i));
+                for (int col = 0; col < values.length; col++) {
+                    ps.setObject(col + 1, values[col]);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private <T> NaturalKeyIndex loadKeys(UpsertSpec<T> spec, LocalDateTime from, LocalDateTime to,
+                                         boolean includeNullTime) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (from != null && to != null) {
+            conditions.add("visit_reservation_time BETWEEN ? AND ?");
+            params.add(from);
+            params.add(to);
+        }
+        if (includeNullTime) {
+            conditions.add("visit_reservation_time IS NULL");
+        }
+
+        NaturalKeyIndex index = new NaturalKeyIndex();
+        if (conditions.isEmpty()) {
+            return index;
+        }
+
+        String sql = "SELECT " + spec.idColumn + ", " + spec.nameColumn + ", visit_reservation_time, "
+            + String.join(", ", spec.updateColumns) + " FROM " + spec.table
+            + " WHERE " + String.join(" OR ", conditions);
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs ->
+            index.put(rs.getString(2), rs.getObject(3, LocalDateTime.class), rs.getInt(1),
+                      fingerprint(currentValues(rs, spec.updateColumns.length))), params.toArray());
+        return index;
+    }
+
+    private static Object[] currentValues(ResultSet rs, int count) throws SQLException {
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            // 先頭3列は ID・氏名・予約日時
+            values[i] = rs.getObject(i + 4);
+        }
+        return values;
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内容フィンガープリント ---
+    // ----------------------------------------------------------------------
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * 更新対象列の値から64bitハッシュ (FNV-1a) を計算する。
+     * エンティティ側の値 (Integer/Short, LocalDateTime) とJDBCから読み込んだ値
+     * (Integer/Long, LocalDateTime/Timestamp) が同じ内容なら同じ値になるよう正規化する。
+     * NULL と空文字列は区別する。
+     */
+    static long fingerprint(Object[] values) {
+        long hash = FNV_OFFSET;
+        for (Object value : values) {
+            if (value instanceof Timestamp timestamp) {
+                value = timestamp.toLocalDateTime();
+            }
+
+            if (value == null) {
+                hash = mix(hash, 1);
+            } else if (value instanceof Number number) {
+                hash = mixLong(mix(hash, 2), number.longValue());
+            } else if (value instanceof Boolean bool) {
+                hash = mixLong(mix(hash, 2), bool ? 1 : 0);
+            } else if (value instanceof LocalDateTime dateTime) {
+                hash = mixLong(mix(hash, 3), dateTime.toEpochSecond(ZoneOffset.UTC));
+            } else {
+                String text = value.toString();
+                hash = mix(hash, 4);
+                for (int i = 0; i < text.length(); i++) {
+                    hash = mix(hash, text.charAt(i));
+                }
+            }
+            // 値の区切り
+            hash = mix(hash, 0xFFFF);
+        }
+        return hash == NaturalKeyIndex.NO_FINGERPRINT ? 1 : hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static long mixLong(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 16) {
+            hash = mix(hash, (int) (value >>> shift) & 0xFFFF);
+        }
+        return hash;
+    }
+
+    private static boolean hasNullKey(Object[] keyValues) {
+        for (Object value : keyValues) {
+            if (value == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isMySql() {
+        Boolean result = mysql;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("mysql");
+            mysql = result;
+        }
+        return result;
+    }
+
+    /**
+     * 1テーブル分のUPSERT定義と、そこから組み立てたSQL。
+     * INSERT の列順は「ID → 自然キー → 新規登録時のみの列 → 更新対象列」。
+     */
+    private static final class UpsertSpec<T> {
+        private final String table;
+        private final String idColumn;
+        // 採番テーブル上のシーケンス名
+        private final String sequenceName;
+        // 自然キーのうち予約日時以外の列 (氏名/バス会社名)
+        private final String nameColumn;
+        private final String[] updateColumns;
+
+        private final Function<T, Object[]> keyValues;
+        private final Function<T, Object[]> insertOnlyValues;
+        private final Function<T, Object[]> updateValues;
+
+        private final String insertSql;
+        private final String onDuplicateKeySql;
+        private final String updateSqlMySql;
+        private final String updateSqlStandard;
+        private final String updateByIdSql;
+        private final String selectIdRangeSql;
+
+        UpsertSpec(String table, String idColumn, String sequenceName, String[] keyColumns, String[] insertOnlyColumns, String[] updateColumns,
+                   Function<T, Object[]> keyValues, Function<T, Object[]> insertOnlyValues,
+                   Function<T, Object[]> updateValues) {
+            this.table = table;
+            this.idColumn = idColumn;
+            this.sequenceName = sequenceName;
+            this.nameColumn = keyColumns[0];
+            this.updateColumns = updateColumns;
+            this.keyValues = keyValues;
+            this.insertOnlyValues = insertOnlyValues;
+            this.updateValues = updateValues;
+
+            List<String> insertColumns = new ArrayList<>();
+            insertColumns.add(idColumn);
+            insertColumns.addAll(List.of(keyColumns));
+            insertColumns.addAll(List.of(insertOnlyColumns));
+            insertColumns.addAll(List.of(updateColumns));
+
+            this.insertSql = "INSERT INTO " + table + " (" + String.join(", ", insertColumns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(insertColumns.size(), "?")) + ")";
+
+            List<String> assignments = new ArrayList<>();
+            for (String column : updateColumns) {
+                assignments.add(column + " = ?");
+            }
+            // 既存行は変更しない (内容を比較してから主キーで更新するため)
+            this.onDuplicateKeySql = insertSql + " ON DUPLICATE KEY UPDATE " + idColumn + " = " + idColumn;
+
+            List<String> mySqlKeys = new ArrayList<>();
+            List<String> standardKeys = new ArrayList<>();
+            for (String column : keyColumns) {
+                mySqlKeys.add(column + " <=> ?");
+                standardKeys.add(column + " IS NOT DISTINCT FROM ?");
+            }
+            String set = "UPDATE " + table + " SET " + String.join(", ", assignments) + " WHERE ";
+            this.updateSqlMySql = set + String.join(" AND ", mySqlKeys);
+            this.updateSqlStandard = set + String.join(" AND ", standardKeys);
+            this.updateByIdSql = set + idColumn + " = ?";
+            this.selectIdRangeSql = "SELECT " + idColumn + " FROM " + table + " WHERE " + idColumn + " BETWEEN ? AND ?";
+        }
+
+        // ID を除いた INSERT の値
+        Object[] insertValues(T row) {
+            return concat(keyValues.apply(row), insertOnlyValues.apply(row), updateValues.apply(row));
+        }
+
+        // UPDATE の列順は「更新対象列 → WHERE 句の自然キー」
+        Object[] updateValues(T row) {
+            return concat(updateValues.apply(row), keyValues.apply(row));
+        }
+
+        static Object[] concat(Object[]... parts) {
+            int length = 0;
+            for (Object[] part : parts) {
+                length += part.length;
+            }
+            Object[] result = new Object[length];
+            int pos = 0;
+            for (Object[] part : parts) {
+                System.arraycopy(part, 0, result, pos, part.length);
+                pos += part.length;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.model.IdSequences;
+
+/**
+ * JDBCで直接 INSERT する処理 (CSVインポートの一括登録) 用の主キー採番。
+ * エンティティの @TableGenerator と同じ採番テーブル・同じ規則 ({@link IdSequences}) で、
+ * 必要な件数分の連続したIDを1回の更新でまとめて確保する。
+ * 
+ * 💡 採番テーブルの行ロックを取込処理のトランザクション終了まで持たないよう、
+ *    Hibernate の TableGenerator と同じく独立したトランザクションで更新する。
+ */
+@Repository
+public class IdBlockAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+
+    private static final String SELECT_SQL = "SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE
+        + " WHERE " + IdSequences.NAME_COLUMN + " = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE " + IdSequences.TABLE + " SET " + IdSequences.VALUE_COLUMN
+        + " = ? WHERE " + IdSequences.NAME_COLUMN + " = ?";
+
+    @Autowired
+    public IdBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 連続した count 件のIDを確保する。
+     * @param sequenceName 採番テーブル上のシーケンス名 ({@link IdSequences#PARKINGS} など)
+     * @return 確保したIDの先頭 (先頭 ～ 先頭 + count - 1 を使用できる)
+     * @throws IllegalStateException 採番テーブルにシーケンスが登録されていない場合
+     */
+    public int allocate(String sequenceName, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("確保するID数は1以上を指定してください: " + count);
+        }
+        Long first = requiresNew.execute(status -> {
+            Long nextVal = jdbcTemplate.query(SELECT_SQL, rs -> rs.next() ? rs.getLong(1) : null, sequenceName);
+            if (nextVal == null) {
+                throw new IllegalStateException("採番テーブルにシーケンス '" + sequenceName
+                    + "' がありません。db/migration/主キー採番テーブルの作成.sql を実行してください。");
+            }
+            jdbcTemplate.update(UPDATE_SQL, nextVal + count, sequenceName);
+            return nextVal - IdSequences.ALLOCATION_SIZE + 1;
+        });
+        return Math.toIntExact(first);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.model.ImportCheckpoint;
+
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, Integer> {
+
+    Optional<ImportCheckpoint> findByEntityTypeAndFileHash(String entityType, String fileHash);
+}
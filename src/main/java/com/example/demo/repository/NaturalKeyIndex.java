@@ -0,0 +1,150 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 自然キー (氏名/バス会社名 + 予約日時) → 主キーID のメモリ内ハッシュインデックス。
+ * CSVインポートの開始時に、ファイルが対象とする予約日時の範囲分だけを1回のクエリで読み込み、
+ * 以降は「既存行か新規行か」をDBに問い合わせずに判定するために使用する。
+ * (CSVファイル内の重複検出では、IDの代わりにCSVの行番号を保持する)
+ *
+ * エントリごとのオブジェクトを作らないよう、オープンアドレス法で
+ * 氏名 / 予約日時 (エポック秒) / ID / 内容フィンガープリント を並列配列に保持する。
+ *
+ * 💡 フィンガープリントは既存行の更新対象列から計算したハッシュ値で、
+ *    CSVの内容と一致する行は UPDATE を送らずにスキップするために使用する。
+ * インポート処理は1スレッドから利用する前提で、スレッドセーフではない。
+ */
+public final class NaturalKeyIndex {
+
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final int NOT_FOUND = -1;
+
+    /** フィンガープリント未登録を表す値 (計算結果がこの値になることはない) */
+    public static final long NO_FINGERPRINT = 0L;
+
+    private String[] names;
+    private long[] times;
+    private int[] ids;
+    private long[] fingerprints;
+    private int size;
+
+    public NaturalKeyIndex() {
+        this(16);
+    }
+
+    public NaturalKeyIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.names = new String[capacity];
+        this.times = new long[capacity];
+        this.ids = new int[capacity];
+        this.fingerprints = new long[capacity];
+    }
+
+    /**
+     * キーに対応するIDを登録 (既に登録済みの場合は上書き) する。
+     */
+    public void put(String name, LocalDateTime reservationTime, int id) {
+        put(name, reservationTime, id, NO_FINGERPRINT);
+    }
+
+    /**
+     * キーに対応するIDと内容フィンガープリントを登録 (既に登録済みの場合は上書き) する。
+     */
+    public void put(String name, LocalDateTime reservationTime, int id, long fingerprint) {
+        if ((size + 1) * 2 > names.length) {
+            resize();
+        }
+        insert(name, toTime(reservationTime), id, fingerprint);
+    }
+
+    /**
+     * キーに対応するIDを返す。未登録の場合は -1。
+     */
+    public int get(String name, LocalDateTime reservationTime) {
+        int slot = find(name, reservationTime);
+        return slot < 0 ? NOT_FOUND : ids[slot];
+    }
+
+    /**
+     * キーに対応する内容フィンガープリントを返す。未登録の場合は {@link #NO_FINGERPRINT}。
+     */
+    public long getFingerprint(String name, LocalDateTime reservationTime) {
+        int slot = find(name, reservationTime);
+        return slot < 0 ? NO_FINGERPRINT : fingerprints[slot];
+    }
+
+    public boolean contains(String name, LocalDateTime reservationTime) {
+        return get(name, reservationTime) != NOT_FOUND;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内部処理 ---
+    // ----------------------------------------------------------------------
+
+    private int find(String name, LocalDateTime reservationTime) {
+        if (name == null) {
+            return NOT_FOUND;
+        }
+        long time = toTime(reservationTime);
+        int mask = names.length - 1;
+        for (int slot = hash(name, time) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            if (times[slot] == time && names[slot].equals(name)) {
+                return slot;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private void insert(String name, long time, int id, long fingerprint) {
+        int mask = names.length - 1;
+        int slot = hash(name, time) & mask;
+        while (names[slot] != null) {
+            if (times[slot] == time && names[slot].equals(name)) {
+                ids[slot] = id;
+                fingerprints[slot] = fingerprint;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        names[slot] = name;
+        times[slot] = time;
+        ids[slot] = id;
+        fingerprints[slot] = fingerprint;
+        size++;
+    }
+
+    private void resize() {
+        String[] oldNames = names;
+        long[] oldTimes = times;
+        int[] oldIds = ids;
+        long[] oldFingerprints = fingerprints;
+
+        names = new String[oldNames.length << 1];
+        times = new long[oldNames.length << 1];
+        ids = new int[oldNames.length << 1];
+        fingerprints = new long[oldNames.length << 1];
+        size = 0;
+
+        for (int i = 0; i < oldNames.length; i++) {
+            if (oldNames[i] != null) {
+                insert(oldNames[i], oldTimes[i], oldIds[i], oldFingerprints[i]);
+            }
+        }
+    }
+
+    private static long toTime(LocalDateTime reservationTime) {
+        return reservationTime == null ? NULL_TIME : reservationTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static int hash(String name, long time) {
+        int h = name.hashCode() * 31 + Long.hashCode(time);
+        // 下位ビットに偏らないよう攪拌する
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.demo.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.ParkingListItem;
 import com.example.demo.model.Parking;
 
 @Repository
@@ -14,4 +22,81 @@ public interface ParkingRepository extends JpaRepository<Parking, Integer> {
  Parking findByCarNumber(String carNumber);
 //💡 複合キーで既存レコードを検索するメソッド
  Optional<Parking> findByVisitorNameAndVisitReservationTime(String visitorName, LocalDateTime reservationTime);
-}
\ No newline at end of file
+
+    /**
+     * 一覧 (ダッシュボード・一覧API・当日の読み取りモデル) に使用する列のみを ParkingListItem として読み込むSELECT句。
+     * 💡 コンストラクタ式で DTO を直接生成するため、エンティティの読み込み・永続化コンテキストへの登録は行わない。
+     *    駐車状況は ID と名称のみを結合して取得する。
+     * 💡 一覧用のクエリには @Transactional(readOnly = true) を明示している (リクエストとは別のスレッドから並列に呼ばれる場合も読み取り専用で実行する)。
+     */
+    String LIST_ITEM_SELECT = "SELECT new com.example.demo.dto.ParkingListItem("
+        + " p.id, p.visitReservationTime, p.errandsRelationship, p.carNumber, p.visitorName, p.familyNames,"
+        + " p.managerName, p.departureTime, p.parkingPermit, p.parkingPosition, s.statusId, s.name,"
+        + " p.updateTime, p.remarksColumn)"
+        + " FROM Parking p LEFT JOIN p.parkingStatus s";
+
+    /**
+     * 予約日時が [from, to) の駐車場予約を、(予約日時, ID) の順に (afterTime, afterId) の次の行から読み込む (キーセットページング)。
+     * 先頭ページは afterTime = from, afterId = 0 を指定する。件数は pageable (先頭ページ・件数のみ) で指定する。
+     * 💡 (visit_reservation_time, parking_id) のインデックスを使用するため、読み込み量は1ページ分のみ。
+     */
+    @Query(LIST_ITEM_SELECT
+         + " WHERE p.visitReservationTime >= :from AND p.visitReservationTime < :to"
+         + " AND (p.visitReservationTime > :afterTime OR (p.visitReservationTime = :afterTime AND p.id > :afterId))"
+         + " ORDER BY p.visitReservationTime, p.id")
+    @Transactional(readOnly = true)
+    List<ParkingListItem> findDayPage(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * 予約日時が未設定の駐車場予約を、ID の順に afterId の次の行から読み込む (ダッシュボードの「予約日時未定」欄。キーセットページング)。
+     * 先頭ページは afterId = 0 を指定する。件数は pageable (先頭ページ・件数のみ) で指定する。
+     * 💡 (visit_reservation_time, parking_id) のインデックスの NULL の範囲のみを読み込む。
+     */
+    @Query(LIST_ITEM_SELECT
+         + " WHERE p.visitReservationTime IS NULL AND p.id > :afterId"
+         + " ORDER BY p.id")
+    @Transactional(readOnly = true)
+    List<ParkingListItem> findUnscheduledPage(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * 予約日時が [from, to) の駐車場予約を (予約日時, ID) の順に全件読み込む。
+     */
+    @Query(LIST_ITEM_SELECT
+         + " WHERE p.visitReservationTime >= :from AND p.visitReservationTime < :to"
+         + " ORDER BY p.visitReservationTime, p.id")
+    @Transactional(readOnly = true)
+    List<ParkingListItem> findDayList(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * 指定したIDの駐車場予約を読み込む (当日の読み取りモデルの差分更新用。存在しないIDは結果に含まれない)。
+     */
+    @Query(LIST_ITEM_SELECT + " WHERE p.id IN :ids")
+    @Transactional(readOnly = true)
+    List<ParkingListItem> findListItems(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 全件を ID の昇順で読み込む (/parkings の一覧用)。
+     */
+    @Query(LIST_ITEM_SELECT + " ORDER BY p.id")
+    @Transactional(readOnly = true)
+    List<ParkingListItem> findAllListItems();
+
+    /**
+     * 更新日時が since 以降の駐車場予約を、(更新日時, ID) の順に読み込む (再接続時の差分同期用)。件数は pageable で指定する。
+     * 💡 (update_time, parking_id) のインデックスを使用するため、読み込み量は変更された行の分のみ。
+     */
+    @Query(LIST_ITEM_SELECT
+         + " WHERE p.updateTime >= :since"
+         + " ORDER BY p.updateTime, p.id")
+    @Transactional(readOnly = true)
+    List<ParkingListItem> findChangedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    /**
+     * 全件を ID の昇順で読み込む (CSVインポート画面の一覧用)。
+     * 💡 駐車状況 (parkingStatus) を同じクエリで結合して読み込む (行ごとの追加SELECTなし)。
+     */
+    @EntityGraph(attributePaths = "parkingStatus")
+    @Transactional(readOnly = true)
+    List<Parking> findAllByOrderByIdAsc();
+}
@@ -1,11 +1,19 @@
 package com.example.demo.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.BusListItem;
 import com.example.demo.model.ShuttleBusReservation;
 
 @Repository
@@ -16,5 +24,63 @@ public interface ShuttleBusReservationRepository extends JpaRepository<ShuttleBu
         String busName, 
         LocalDateTime visitReservationTime
     );
-	
+
+    /**
+     * 一覧 (ダッシュボード・一覧API・当日の読み取りモデル) に使用する列のみを BusListItem として読み込むSELECT句。
+     * 💡 コンストラクタ式で DTO を直接生成するため、エンティティの読み込み・永続化コンテキストへの登録は行わない。
+     *    バス状況は ID と名称のみを結合して取得する。
+     * 💡 一覧用のクエリには @Transactional(readOnly = true) を明示している (リクエストとは別のスレッドから並列に呼ばれる場合も読み取り専用で実行する)。
+     */
+    String LIST_ITEM_SELECT = "SELECT new com.example.demo.dto.BusListItem("
+        + " b.id, b.visitReservationTime, b.busName, b.busDestination, b.emptybusDepTime, b.scheduledDepTime,"
+        + " b.departureTime, b.familyNames, b.managerName, b.passengers, s.id, s.name, b.updateTime,"
+        + " b.remarksColumn)"
+        + " FROM ShuttleBusReservation b LEFT JOIN b.busSituation s";
+
+    /**
+     * 予約日時が [from, to) の送迎バス予約を、(予約日時, ID) の順に (afterTime, afterId) の次の行から読み込む (キーセットページング)。
+     * 先頭ページは afterTime = from, afterId = 0 を指定する。件数は pageable (先頭ページ・件数のみ) で指定する。
+     * 💡 (visit_reservation_time, bus_id) のインデックスを使用するため、読み込み量は1ページ分のみ。
+     */
+    @Query(LIST_ITEM_SELECT
+         + " WHERE b.visitReservationTime >= :from AND b.visitReservationTime < :to"
+         + " AND (b.visitReservationTime > :afterTime OR (b.visitReservationTime = :afterTime AND b.id > :afterId))"
+         + " ORDER BY b.visitReservationTime, b.id")
+    @Transactional(readOnly = true)
+    List<BusListItem> findDayPage(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * 予約日時が [from, to) の送迎バス予約を (予約日時, ID) の順に全件読み込む。
+     */
+    @Query(LIST_ITEM_SELECT
+         + " WHERE b.visitReservationTime >= :from AND b.visitReservationTime < :to"
+         + " ORDER BY b.visitReservationTime, b.id")
+    @Transactional(readOnly = true)
+    List<BusListItem> findDayList(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * 指定したIDの送迎バス予約を読み込む (当日の読み取りモデルの差分更新用。存在しないIDは結果に含まれない)。
+     */
+    @Query(LIST_ITEM_SELECT + " WHERE b.id IN :ids")
+    @Transactional(readOnly = true)
+    List<BusListItem> findListItems(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 更新日時が since 以降の送迎バス予約を、(更新日時, ID) の順に読み込む (再接続時の差分同期用)。件数は pageable で指定する。
+     * 💡 (update_time, bus_id) のインデックスを使用するため、読み込み量は変更された行の分のみ。
+     */
+    @Query(LIST_ITEM_SELECT
+         + " WHERE b.updateTime >= :since"
+         + " ORDER BY b.updateTime, b.id")
+    @Transactional(readOnly = true)
+    List<BusListItem> findChangedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+    /**
+     * 全件を ID の昇順で読み込む (CSVインポート画面の一覧用)。
+     * 💡 バス状況 (busSituation) を同じクエリで結合して読み込む (行ごとの追加SELECTなし)。
+     */
+    @EntityGraph(attributePaths = "busSituation")
+    @Transactional(readOnly = true)
+    List<ShuttleBusReservation> findAllByOrderByIdAsc();
 }
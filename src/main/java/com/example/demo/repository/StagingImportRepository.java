@@ -0,0 +1,429 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dto.ImportResult;
+import com.example.demo.model.IdSequences;
+
+/**
+ * 大きなCSV向けの、一時テーブル (ステージング) 経由のインポート (MySQL専用)。
+ *
+ * 1. CSVの値を一時テーブルへJDBCバッチで投入する (対象テーブルのロックは取らない)。
+ *    日時と乗車人数の列は、投入時に呼び出し側が渡す {@link ValueRules} (行単位の取り込みと同じ変換処理) で変換し、
+ *    正規化した値 ('yyyy-MM-dd HH:mm:ss' / 整数) を投入する。変換できない値はその行の問題として記録する
+ * 2. 必須項目・状況名などの検証をSQLで行い、1. と合わせて不正な行があれば何も書き込まずに中止する
+ * 3. 既存行の UPDATE ... JOIN と、新規行の INSERT ... SELECT の2文で対象テーブルへ反映する
+ *    (状況名は状況マスタとの JOIN でSQL内で変換する。
+ *    新規行のIDは新規件数分を {@link IdBlockAllocator} で確保し、CSVの行順に割り当てる)
+ *
+ * 💡 日時・乗車人数をSQL (STR_TO_DATE や正規表現) で検証すると、2025/2/30 や 5桁の人数などで行単位の取り込みと
+ *    結果が変わり、同じファイルの成否がファイルサイズ (csv.import.staging-threshold-bytes) で決まってしまうため、
+ *    検証と変換は Java 側の規則に一本化している。
+ *
+ * 一時テーブルは接続ごとに作られるため、呼び出し側のトランザクション内 (同じ接続) で実行すること。
+ * 内容が変わらない既存行は UPDATE の対象にしないため、BulkUpsertRepository と同じく update_time も変わらない。
+ * 列の変換・更新対象列は CsvService の各列定義 (*ColumnPlan) と BulkUpsertRepository の定義に合わせている。
+ */
+@Repository
+public class StagingImportRepository {
+
+    // 一時テーブルへの投入を1回のバッチで送る行数
+    private static final int STAGE_BATCH_SIZE = 1000;
+
+    // 不正な行を検出した場合に、エラーメッセージに含める行数
+    private static final int MAX_REPORTED_ROWS = 5;
+
+    // 一時テーブルに投入する正規化済みの日時の書式 (MySQL の DATETIME リテラル)
+    private static final DateTimeFormatter STAGED_DATETIME = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdBlockAllocator idAllocator;
+
+    // 接続先がMySQLかどうか (初回利用時に判定)
+    private volatile Boolean mysql;
+
+    // --- テーブルごとの定義 ---
+
+    // 駐車場予約: 更新時は参列家名・担当を上書きしない
+    private static final StagingSpec PARKING_SPEC = new StagingSpec("parkings", "parking_id", IdSequences.PARKINGS, 13,
+        "LEFT JOIN parking_statuses ps ON ps.parking_status_name = IF(s.c10 = '', '予約中', s.c10)",
+        new String[] { "visitor_name", "visit_reservation_time" },
+        new String[] { "family_names", "manager_name" },
+        columns(
+            "visitor_name", "s.c4",
+            "visit_reservation_time", dateTime(1),
+            "family_names", "s.c5",
+            "manager_name", "s.c6",
+            "errands_relationship", "s.c2",
+            "car_number", "s.c3",
+            "departure_time", dateTime(7),
+            "parking_permit", "s.c8",
+            "parking_position", "s.c9",
+            "parking_status_id", "ps.parking_status_id",
+            "remarks_column", "s.c12"),
+        List.of(
+            new Conversion(1, "来館予定日時", Conversion.DATE_TIME),
+            new Conversion(7, "出庫時刻", Conversion.DATE_TIME)),
+        List.of(
+            new Validation("ps.parking_status_id IS NULL", 10, "駐車状況",
+                "DBに登録されていない駐車状況名です (空欄の場合は '予約中' がマスタに必要です)")));
+
+    // 来館者予約: 来館状況は常に '来館前'
+    private static final StagingSpec VISITOR_SPEC = new StagingSpec("visitors", "visitor_id", IdSequences.VISITORS, 10,
+        "LEFT JOIN visit_situations vs ON vs.visit_situations_name = '来館前'",
+        new String[] { "visitor_name", "visit_reservation_time" },
+        new String[] {},
+        columns(
+            "visitor_name", "s.c3",
+            "visit_reservation_time", dateTime(1),
+            "errands_relationship", "s.c2",
+            "family_names", "s.c4",
+            "manager_name", "s.c5",
+            "compilation_cmp_time", dateTime(6),
+            "visit_situation_id", "vs.visit_situation_id",
+            "remarks_column", "s.c8"),
+        List.of(
+            new Conversion(1, "来館予定日時", Conversion.DATE_TIME),
+            new Conversion(6, "対応完了時刻", Conversion.DATE_TIME)),
+        List.of(
+            new Validation("s.c1 = ''", 1, "来館予定日時", "来館予定日時は必須項目です。"),
+            new Validation("vs.visit_situation_id IS NULL", -1, null,
+                "来館状況のデフォルト値 ('来館前') がDBに存在しません。マスタを確認してください。")));
+
+    // 送迎バス予約: バス状況は常に '到着前'、乗車人数は投入時に数値化済み
+    private static final StagingSpec BUS_SPEC = new StagingSpec("shuttlebus_reservations", "bus_id",
+        IdSequences.SHUTTLEBUS_RESERVATIONS, 12,
+        "LEFT JOIN bus_situations bs ON bs.bus_situations_name = '到着前'",
+        new String[] { "bus_name", "visit_reservation_time" },
+        new String[] {},
+        columns(
+            "bus_name", "s.c2",
+            "visit_reservation_time", dateTime(1),
+            "bus_destination", "s.c3",
+            "emptybus_dep_time", "NULL",
+            "scheduled_dep_time", dateTime(4),
+            "departure_time", "NULL",
+            "family_names", "s.c5",
+            "manager_name", "s.c6",
+            "passengers", "CAST(s.c7 AS SIGNED)",
+            "bus_situations_id", "bs.bus_situations_id",
+            "remarks_column", "s.c11"),
+        List.of(
+            new Conversion(1, "予約日時", Conversion.DATE_TIME),
+            new Conversion(4, "定刻出発時間", Conversion.DATE_TIME),
+            new Conversion(7, "乗車人数", Conversion.PASSENGERS)),
+        List.of(
+            new Validation("s.c1 = ''", 1, "予約日時", "予約日時は必須項目です。"),
+            new Validation("s.c3 = ''", 3, "行き先", "行き先は必須項目です。"),
+            new Validation("s.c4 = ''", 4, "定刻出発時間", "定刻出発時間は必須項目です。"),
+            new Validation("bs.bus_situations_id IS NULL", -1, null,
+                "バス状況のデフォルト値 ('到着前') がDBに存在しません。マスタを確認してください。")));
+
+    @Autowired
+    public StagingImportRepository(JdbcTemplate jdbcTemplate, IdBlockAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 公開メソッド ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * ステージング経由のインポートが使えるか (接続先がMySQLか) を返す。
+     */
+    public boolean isSupported() {
+        Boolean result = mysql;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("mysql");
+            mysql = result;
+        }
+        return result;
+    }
+
+    /**
+     * @param records 取り込むCSVレコード (ヘッダー・列数不足・ファイル内重複の行は除外済みであること)
+     * @param columns 一時テーブルの列 (ヘッダーがない場合の列位置) ごとの、CSVの列番号 (-1 の場合は空欄)
+     * @param rules 日時・乗車人数の変換処理 (行単位の取り込みと同じもの)
+     * @throws IllegalArgumentException 不正な行がある場合 (対象テーブルには何も書き込まない)
+     */
+    public ImportResult mergeParkings(Iterator<CSVRecord> records, int[] columns, ValueRules rules) {
+        return loadAndMerge(PARKING_SPEC, records, columns, rules);
+    }
+
+    public ImportResult mergeVisitors(Iterator<CSVRecord> records, int[] columns, ValueRules rules) {
+        return loadAndMerge(VISITOR_SPEC, records, columns, rules);
+    }
+
+    public ImportResult mergeBuses(Iterator<CSVRecord> records, int[] columns, ValueRules rules) {
+        return loadAndMerge(BUS_SPEC, records, columns, rules);
+    }
+
+    /**
+     * 一時テーブルに投入する前に適用する値の変換規則。
+     * 行単位の取り込みと結果を一致させるため、呼び出し側 (CsvService) は行単位の取り込みと同じ変換処理を渡すこと。
+     */
+    public interface ValueRules {
+        /**
+         * @param text 前後の空白を除いた、空欄でない日時の値
+         * @throws IllegalArgumentException 変換できない場合 (メッセージは理由)
+         */
+        LocalDateTime dateTime(String text);
+
+        /**
+         * @param text 前後の空白を除いた乗車人数の値 (空欄を含む)
+         * @throws IllegalArgumentException 変換できない場合 (メッセージは理由)
+         */
+        short passengers(String text);
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内部処理 ---
+    // ----------------------------------------------------------------------
+
+    private ImportResult loadAndMerge(StagingSpec spec, Iterator<CSVRecord> records, int[] columns, ValueRules rules) {
+        jdbcTemplate.execute("DROP TEMPORARY TABLE IF EXISTS " + spec.stagingTable);
+        jdbcTemplate.execute(spec.createStagingSql);
+        try {
+            List<String> problems = new ArrayList<>();
+            stage(spec, records, columns, rules, problems);
+            validate(spec, columns, problems);
+
+            int staged = count(spec.countStagedSql);
+            int matched = count(spec.countMatchedSql);
+            int updated = jdbcTemplate.update(spec.updateSql);
+            int inserted = 0;
+            if (staged > matched) {
+                int firstId = idAllocator.allocate(spec.sequenceName, staged - matched);
+                inserted = jdbcTemplate.update(spec.insertSql, firstId);
+            }
+            return new ImportResult(inserted, updated, matched - updated);
+        } finally {
+            // 接続はプールに戻って再利用されるため、一時テーブルは必ず削除する
+            jdbcTemplate.execute("DROP TEMPORARY TABLE IF EXISTS " + spec.stagingTable);
+        }
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * CSVの値を前後の空白を除いた文字列で一時テーブルへ投入する (日時・乗車人数の列は変換後の値)。
+     * 変換できない値は problems に記録する。
+     */
+    private void stage(StagingSpec spec, Iterator<CSVRecord> records, int[] columns, ValueRules rules,
+                       List<String> problems) {
+        List<Object[]> batch = new ArrayList<>(STAGE_BATCH_SIZE);
+        int[] reported = new int[spec.conversions.size()];
+        while (records.hasNext()) {
+            CSVRecord record = records.next();
+            Object[] values = new Object[spec.columnCount + 1];
+            values[0] = record.getRecordNumber();
+            for (int i = 0; i < spec.columnCount; i++) {
+                int column = i < columns.length ? columns[i] : -1;
+                values[i + 1] = column >= 0 && column < record.size() ? record.get(column).trim() : "";
+            }
+            for (int c = 0; c < spec.conversions.size(); c++) {
+                Conversion conversion = spec.conversions.get(c);
+                try {
+                    values[conversion.column + 1] = conversion.apply((String) values[conversion.column + 1], rules);
+                } catch (IllegalArgumentException e) {
+                    // 元の値のまま投入する (問題があるため対象テーブルへは反映しない)
+                    if (reported[c]++ < MAX_REPORTED_ROWS) {
+                        problems.add(describe(record.getRecordNumber(), conversion.column, conversion.columnName, columns)
+                            + e.getMessage());
+                    }
+                }
+            }
+            batch.add(values);
+            if (batch.size() >= STAGE_BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(spec.stageSql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(spec.stageSql, batch);
+        }
+    }
+
+    /**
+     * 検証ごとに不正な行を検索し、投入時の変換エラーと合わせて1件でもあれば行番号と理由をまとめて送出する。
+     */
+    private void validate(StagingSpec spec, int[] columns, List<String> problems) {
+        for (Validation validation : spec.validations) {
+            List<Long> recordNumbers = jdbcTemplate.queryForList(
+                "SELECT s.record_number FROM " + spec.stagingTable + " s " + spec.joinSql
+                    + " WHERE " + validation.condition + " ORDER BY s.record_number LIMIT " + MAX_REPORTED_ROWS,
+                Long.class);
+            for (Long recordNumber : recordNumbers) {
+                problems.add(describe(recordNumber, validation.column, validation.columnName, columns) + validation.reason);
+            }
+        }
+        if (!problems.isEmpty()) {
+            Collections.sort(problems);
+            throw new IllegalArgumentException(String.join(" / ", problems));
+        }
+    }
+
+    /**
+     * エラーメッセージの行・列の表示。例: "12行目 3列目 (予約日時): " (列にはCSV上の列番号を表示する)
+     */
+    private static String describe(long recordNumber, int stagingColumn, String columnName, int[] columns) {
+        int csvColumn = stagingColumn < 0 || stagingColumn >= columns.length ? -1 : columns[stagingColumn];
+        String column = csvColumn < 0 ? "" : " " + (csvColumn + 1) + "列目 (" + columnName + ")";
+        return recordNumber + "行目" + column + ": ";
+    }
+
+    // 投入時に正規化済みの日時の列 (空欄は NULL)
+    private static String dateTime(int column) {
+        return "IF(s.c" + column + " = '', NULL, CAST(s.c" + column + " AS DATETIME))";
+    }
+
+    private static Map<String, String> columns(String... pairs) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            columns.put(pairs[i], pairs[i + 1]);
+        }
+        return columns;
+    }
+
+    /**
+     * 一時テーブルへの投入時に {@link ValueRules} で変換する列。
+     */
+    private static final class Conversion {
+        private static final int DATE_TIME = 0;
+        private static final int PASSENGERS = 1;
+
+        private final int column;
+        private final String columnName;
+        private final int kind;
+
+        Conversion(int column, String columnName, int kind) {
+            this.column = column;
+            this.columnName = columnName;
+            this.kind = kind;
+        }
+
+        String apply(String text, ValueRules rules) {
+            if (kind == PASSENGERS) {
+                return String.valueOf(rules.passengers(text));
+            }
+            return text.isEmpty() ? "" : rules.dateTime(text).format(STAGED_DATETIME);
+        }
+    }
+
+    /**
+     * SQLによる行の検証 (condition に一致する行が不正)。
+     */
+    private static final class Validation {
+        private final String condition;
+        private final int column;
+        private final String columnName;
+        private final String reason;
+
+        Validation(String condition, int column, String columnName, String reason) {
+            this.condition = condition;
+            this.column = column;
+            this.columnName = columnName;
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * 1テーブル分のステージング定義と、そこから組み立てたSQL。
+     */
+    private static final class StagingSpec {
+        private final String stagingTable;
+        private final String sequenceName;
+        private final int columnCount;
+        private final String joinSql;
+        private final List<Conversion> conversions;
+        private final List<Validation> validations;
+
+        private final String createStagingSql;
+        private final String stageSql;
+        private final String countStagedSql;
+        private final String countMatchedSql;
+        private final String updateSql;
+        private final String insertSql;
+
+        /**
+         * @param table 反映先テーブル
+         * @param idColumn 反映先テーブルの主キー列
+         * @param sequenceName 採番テーブル上のシーケンス名
+         * @param columnCount 一時テーブルに投入するCSVの列数 (c0 ～ c{n-1})
+         * @param joinSql 状況マスタとの JOIN 句 (一時テーブルの別名は s)
+         * @param keyColumns 自然キー (氏名/バス会社名, 予約日時)
+         * @param insertOnlyColumns 新規登録時のみ設定する列
+         * @param columns 反映先の列 → 一時テーブルの値からの変換式
+         * @param conversions 投入時に変換する列
+         * @param validations 投入後にSQLで行う検証
+         */
+        StagingSpec(String table, String idColumn, String sequenceName, int columnCount, String joinSql, String[] keyColumns, String[] insertOnlyColumns,
+                    Map<String, String> columns, List<Conversion> conversions, List<Validation> validations) {
+            this.stagingTable = "tmp_import_" + table;
+            this.sequenceName = sequenceName;
+            this.columnCount = columnCount;
+            this.joinSql = joinSql;
+            this.conversions = conversions;
+            this.validations = validations;
+
+            List<String> stagingColumns = new ArrayList<>();
+            for (int i = 0; i < columnCount; i++) {
+                stagingColumns.add("c" + i);
+            }
+            this.createStagingSql = "CREATE TEMPORARY TABLE " + stagingTable + " (record_number BIGINT PRIMARY KEY, "
+                + String.join(" VARCHAR(1000), ", stagingColumns) + " VARCHAR(1000))";
+            this.stageSql = "INSERT INTO " + stagingTable + " (record_number, " + String.join(", ", stagingColumns)
+                + ") VALUES (" + String.join(", ", Collections.nCopies(columnCount + 1, "?")) + ")";
+
+            // 型変換・マスタ解決済みの行 (別名 x)
+            List<String> selectList = new ArrayList<>();
+            selectList.add("s.record_number AS record_number");
+            columns.forEach((column, expression) -> selectList.add(expression + " AS " + column));
+            String typedRows = "(SELECT " + String.join(", ", selectList) + " FROM " + stagingTable + " s " + joinSql + ") x";
+
+            String keyMatch = "t." + keyColumns[0] + " = x." + keyColumns[0]
+                + " AND t." + keyColumns[1] + " <=> x." + keyColumns[1];
+
+            List<String> assignments = new ArrayList<>();
+            List<String> sameValues = new ArrayList<>();
+            for (String column : columns.keySet()) {
+                if (List.of(keyColumns).contains(column) || List.of(insertOnlyColumns).contains(column)) {
+                    continue;
+                }
+                assignments.add("t." + column + " = x." + column);
+                sameValues.add("t." + column + " <=> x." + column);
+            }
+
+            this.countStagedSql = "SELECT COUNT(*) FROM " + stagingTable;
+            this.countMatchedSql = "SELECT COUNT(*) FROM " + typedRows + " JOIN " + table + " t ON " + keyMatch;
+            // 💡 内容が変わらない行は WHERE 句で除外し、UPDATE しない
+            this.updateSql = "UPDATE " + table + " t JOIN " + typedRows + " ON " + keyMatch
+                + " SET " + String.join(", ", assignments)
+                + " WHERE NOT (" + String.join(" AND ", sameValues) + ")";
+            // 新規行には確保したIDの先頭 (パラメータ) から CSVの行順に連番を振る
+            this.insertSql = "INSERT INTO " + table + " (" + idColumn + ", " + String.join(", ", columns.keySet()) + ")"
+                + " SELECT ? + ROW_NUMBER() OVER (ORDER BY x.record_number) - 1, " + String.join(", ", columns.keySet())
+                + " FROM " + typedRows
+                + " WHERE NOT EXISTS (SELECT 1 FROM " + table + " t WHERE " + keyMatch + ")";
+        }
+    }
+}
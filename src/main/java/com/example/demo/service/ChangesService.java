@@ -0,0 +1,108 @@
+package com.example.demo.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.BusListItem;
+import com.example.demo.dto.ChangesSince;
+import com.example.demo.dto.ParkingListItem;
+import com.example.demo.dto.VisitorListItem;
+import com.example.demo.repository.ParkingRepository;
+import com.example.demo.repository.ShuttleBusReservationRepository;
+import com.example.demo.repository.VisitorRepository;
+
+/**
+ * 再接続時の差分同期: 指定時刻以降に更新された行 (update_time) を種類ごとに返す。
+ *
+ * WebSocket が切れている間の更新を、ページ全体を再読み込みせずに取り戻すために使用する。
+ * 💡 同期の位置 (sync token) はサーバー時刻のエポックミリ秒。画面表示時と各同期の開始時に発行し、クライアントは次回の since に渡す。
+ * 💡 update_time はアプリとDB (ON UPDATE) のどちらの時計でも設定されるため、since より changes.overlap-seconds 秒前から読み込む
+ *    (重複して返る行は、クライアントで同じ値を再適用するだけで無害)。
+ * 💡 1種類あたり changes.max-rows 件を超えた場合は complete = false とし、クライアントに一覧全体の再取得を促す。
+ * 削除された行は返さない (このアプリには予約の削除操作がない)。
+ */
+@Service
+public class ChangesService {
+
+    private final ParkingRepository parkingRepository;
+    private final VisitorRepository visitorRepository;
+    private final ShuttleBusReservationRepository shuttleBusReservationRepository;
+    private final ParallelQueries parallelQueries;
+    private final int maxRows;
+    private final long overlapSeconds;
+
+    @Autowired
+    public ChangesService(ParkingRepository parkingRepository,
+                          VisitorRepository visitorRepository,
+                          ShuttleBusReservationRepository shuttleBusReservationRepository,
+                          ParallelQueries parallelQueries,
+                          @Value("${changes.max-rows:500}") int maxRows,
+                          @Value("${changes.overlap-seconds:5}") long overlapSeconds) {
+        this.parkingRepository = parkingRepository;
+        this.visitorRepository = visitorRepository;
+        this.shuttleBusReservationRepository = shuttleBusReservationRepository;
+        this.parallelQueries = parallelQueries;
+        this.maxRows = Math.max(1, maxRows);
+        this.overlapSeconds = Math.max(0, overlapSeconds);
+    }
+
+    /**
+     * 現在の同期位置 (画面に埋め込み、再接続時の since に使用する)。
+     */
+    public String currentToken() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    /**
+     * @param since 前回の syncToken (エポックミリ秒) または ISO-8601 形式の日時 (例: 2025-10-29T14:30:00)
+     * @throws IllegalArgumentException since の形式が不正な場合
+     */
+    public ChangesSince findChangesSince(String since) {
+        // 💡 読み込み中に更新された行を次回も取りこぼさないよう、読み込みの開始前に次の同期位置を決める
+        String nextToken = currentToken();
+        LocalDateTime sinceTime = parseSince(since);
+        LocalDateTime from = sinceTime.minusSeconds(overlapSeconds);
+        PageRequest limit = PageRequest.of(0, maxRows + 1);
+
+        ParallelQueries.Batch batch = parallelQueries.start();
+        ParallelQueries.Query<List<ParkingListItem>> parkings =
+            batch.submit("parkings", () -> parkingRepository.findChangedSince(from, limit));
+        ParallelQueries.Query<List<VisitorListItem>> visitors =
+            batch.submit("visits", () -> visitorRepository.findChangedSince(from, limit));
+        ParallelQueries.Query<List<BusListItem>> buses =
+            batch.submit("busReservations", () -> shuttleBusReservationRepository.findChangedSince(from, limit));
+        batch.join();
+
+        boolean complete = parkings.get().size() <= maxRows
+            && visitors.get().size() <= maxRows
+            && buses.get().size() <= maxRows;
+        return new ChangesSince(sinceTime, nextToken, complete,
+                                truncate(parkings.get()), truncate(visitors.get()), truncate(buses.get()));
+    }
+
+    private <T> List<T> truncate(List<T> rows) {
+        return rows.size() <= maxRows ? rows : rows.subList(0, maxRows);
+    }
+
+    private static LocalDateTime parseSince(String since) {
+        if (since == null || since.isBlank()) {
+            throw new IllegalArgumentException("since を指定してください");
+        }
+        try {
+            if (since.chars().allMatch(Character::isDigit)) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(since)), ZoneId.systemDefault());
+            }
+            return LocalDateTime.parse(since);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("since の形式が不正です: " + since, e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.demo.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * CSVの列 → エンティティの項目 の対応表 (1種類のCSVにつき1つ)。
+ *
+ * 列ごとに「項目名 (ヘッダーの別名を含む)・ヘッダーがない場合の列位置・値の設定処理 (変換を含む)」を定義しておき、
+ * 取り込みの開始時に1行目を見て {@link #compile(CSVRecord)} で「列番号 → 設定処理」の配列に変換する。
+ * 以降の各行は、その配列を先頭から順に適用するだけで変換する (行ごとのヘッダー検索や列位置の分岐はない)。
+ *
+ * - 1行目が項目名の行 (ヘッダー) の場合: 項目名から列位置を決め、1行目は取り込まない
+ *   (列の並びが異なる仕入れ先・出力元のCSVも、コードを変えずに取り込める)
+ * - それ以外: 従来の固定の列位置で取り込む (1行目もデータとして扱う)
+ */
+public final class CsvColumnPlan<T> {
+
+    private final Supplier<T> factory;
+    private final List<Column<T>> columns;
+    // 列に依らない項目の設定 (状況のデフォルト値など)
+    private final Consumer<T> finisher;
+    // 固定の列位置の場合に必要な最小列数
+    private final int positionalMinColumns;
+
+    private CsvColumnPlan(Builder<T> builder) {
+        this.factory = builder.factory;
+        this.columns = List.copyOf(builder.columns);
+        this.finisher = builder.finisher;
+        this.positionalMinColumns = builder.minColumns;
+    }
+
+    public static <T> Builder<T> builder(Supplier<T> factory, int positionalMinColumns) {
+        return new Builder<>(factory, positionalMinColumns);
+    }
+
+    /**
+     * 1行目の内容から列の対応を決定する。
+     * 定義した必須項目の半数以上の項目名が1行目に含まれる場合はヘッダーとみなす。
+     *
+     * @param firstRecord ファイルの1行目 (空のファイルの場合は null)
+     * @throws IllegalArgumentException ヘッダーに必須の項目がない場合
+     */
+    public Compiled<T> compile(CSVRecord firstRecord) {
+        Map<String, Integer> header = firstRecord != null ? readHeader(firstRecord) : Map.of();
+
+        int[] headerIndexes = new int[columns.size()];
+        int requiredCount = 0;
+        int requiredMatched = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            Column<T> column = columns.get(i);
+            headerIndexes[i] = column.findIn(header);
+            if (!column.optional) {
+                requiredCount++;
+                if (headerIndexes[i] >= 0) {
+                    requiredMatched++;
+                }
+            }
+        }
+
+        if (requiredMatched * 2 < requiredCount) {
+            int[] positions = columns.stream().mapToInt(column -> column.defaultIndex).toArray();
+            return new Compiled<>(this, positions, 0, positionalMinColumns);
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if (headerIndexes[i] < 0 && !columns.get(i).optional) {
+                missing.add(columns.get(i).name);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("1行目の項目名に次の必須項目がありません: " + String.join(", ", missing)
+                + " (ヘッダー: " + String.join(", ", firstRecord.toList()) + ")");
+        }
+        int width = Arrays.stream(headerIndexes).max().orElse(-1) + 1;
+        return new Compiled<>(this, headerIndexes, firstRecord.getRecordNumber(), width);
+    }
+
+    private static Map<String, Integer> readHeader(CSVRecord record) {
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < record.size(); i++) {
+            header.putIfAbsent(normalize(record.get(i)), i);
+        }
+        return header;
+    }
+
+    /**
+     * 項目名の表記ゆれ (全角/半角、空白、BOM) を除いた比較用の文字列。
+     */
+    private static String normalize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        return normalized.replace("\uFEFF", "").replaceAll("\\s", "");
+    }
+
+    /**
+     * 列の値 (前後の空白を除いた文字列) をエンティティに設定する処理。
+     * 値が不正な場合は、引数の列番号・項目名を使って {@link CsvRowException} を送出する。
+     */
+    @FunctionalInterface
+    public interface ColumnSetter<T> {
+        void set(T row, String value, int column, String columnName);
+    }
+
+    private static final class Column<T> {
+        private final String name;
+        private final String[] headerNames;
+        private final int defaultIndex;
+        private final boolean optional;
+        private final ColumnSetter<T> setter;
+
+        Column(String name, String[] aliases, int defaultIndex, boolean optional, ColumnSetter<T> setter) {
+            this.name = name;
+            this.headerNames = new String[aliases.length + 1];
+            this.headerNames[0] = normalize(name);
+            for (int i = 0; i < aliases.length; i++) {
+                this.headerNames[i + 1] = normalize(aliases[i]);
+            }
+            this.defaultIndex = defaultIndex;
+            this.optional = optional;
+            this.setter = setter;
+        }
+
+        int findIn(Map<String, Integer> header) {
+            for (String headerName : headerNames) {
+                Integer index = header.get(headerName);
+                if (index != null) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 1ファイル分に決定した列の対応。複数スレッドから同時に {@link #map(CSVRecord)} してよい。
+     */
+    public static final class Compiled<T> {
+        private final Supplier<T> factory;
+        private final Consumer<T> finisher;
+        private final String[] names;
+        // 項目ごとのCSVの列番号 (定義順。任意項目でファイルにない場合は -1)
+        private final int[] indexes;
+        // 項目ごとの、ヘッダーがない場合の列位置
+        private final int[] defaultIndexes;
+        // 値を設定する項目だけを詰めた、列番号 → 設定処理
+        private final int[] boundIndexes;
+        private final String[] boundNames;
+        private final List<ColumnSetter<T>> boundSetters;
+        private final long headerRecordNumber;
+        private final int minColumns;
+
+        private Compiled(CsvColumnPlan<T> plan, int[] indexes, long headerRecordNumber, int minColumns) {
+            this.factory = plan.factory;
+            this.finisher = plan.finisher;
+            this.indexes = indexes;
+            this.headerRecordNumber = headerRecordNumber;
+            this.minColumns = minColumns;
+            this.names = plan.columns.stream().map(column -> column.name).toArray(String[]::new);
+            this.defaultIndexes = plan.columns.stream().mapToInt(column -> column.defaultIndex).toArray();
+
+            int bound = (int) Arrays.stream(indexes).filter(index -> index >= 0).count();
+            this.boundIndexes = new int[bound];
+            this.boundNames = new String[bound];
+            List<ColumnSetter<T>> setters = new ArrayList<>(bound);
+            int pos = 0;
+            for (int i = 0; i < indexes.length; i++) {
+                if (indexes[i] >= 0) {
+                    boundIndexes[pos] = indexes[i];
+                    boundNames[pos] = names[i];
+                    setters.add(plan.columns.get(i).setter);
+                    pos++;
+                }
+            }
+            this.boundSetters = List.copyOf(setters);
+        }
+
+        /**
+         * 1行分のレコードをエンティティに変換する (列数は {@link #getMinColumns()} 以上であること)。
+         */
+        public T map(CSVRecord record) {
+            T row = factory.get();
+            for (int i = 0; i < boundIndexes.length; i++) {
+                boundSetters.get(i).set(row, record.get(boundIndexes[i]).trim(), boundIndexes[i], boundNames[i]);
+            }
+            finisher.accept(row);
+            return row;
+        }
+
+        /**
+         * 項目のCSV上の列番号 (任意項目でファイルにない場合は -1)。
+         * @throws IllegalArgumentException 定義にない項目名の場合
+         */
+        public int indexOf(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return indexes[i];
+                }
+            }
+            throw new IllegalArgumentException("列の定義がありません: " + name);
+        }
+
+        /**
+         * ヘッダーがない場合の列位置 → このファイルでの列番号 の対応
+         * (固定の列位置を前提とする処理に、列の並びが異なるファイルを渡すために使用する)。
+         * @param width 固定の列位置での列数
+         * @return 列位置ごとの列番号 (対応する項目がない列位置は -1)
+         */
+        public int[] toPositional(int width) {
+            int[] positional = new int[width];
+            Arrays.fill(positional, -1);
+            for (int i = 0; i < defaultIndexes.length; i++) {
+                if (defaultIndexes[i] < width) {
+                    positional[defaultIndexes[i]] = indexes[i];
+                }
+            }
+            return positional;
+        }
+
+        /**
+         * ヘッダー行のCSV行番号 (ヘッダーなしの場合は 0)。
+         */
+        public long getHeaderRecordNumber() {
+            return headerRecordNumber;
+        }
+
+        public boolean hasHeader() {
+            return headerRecordNumber > 0;
+        }
+
+        /**
+         * 必要な最小列数 (これより列が少ない行は列数不足)。
+         */
+        public int getMinColumns() {
+            return minColumns;
+        }
+    }
+
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final int minColumns;
+        private final List<Column<T>> columns = new ArrayList<>();
+        private Consumer<T> finisher = row -> { };
+
+        private Builder(Supplier<T> factory, int minColumns) {
+            this.factory = factory;
+            this.minColumns = minColumns;
+        }
+
+        /**
+         * 必須の列 (ヘッダーがある場合、項目名が必要)。
+         * @param name 項目名 (エラーメッセージにも使用)
+         * @param defaultIndex ヘッダーがない場合の列位置 (0始まり)
+         * @param aliases 項目名の別名
+         */
+        public Builder<T> column(String name, int defaultIndex, ColumnSetter<T> setter, String... aliases) {
+            columns.add(new Column<>(name, aliases, defaultIndex, false, setter));
+            return this;
+        }
+
+        /**
+         * 任意の列 (ヘッダーに項目名がない場合は設定しない)。
+         */
+        public Builder<T> optionalColumn(String name, int defaultIndex, ColumnSetter<T> setter, String... aliases) {
+            columns.add(new Column<>(name, aliases, defaultIndex, true, setter));
+            return this;
+        }
+
+        /**
+         * 列の設定後に、列に依らない項目を設定する処理。
+         */
+        public Builder<T> finish(Consumer<T> finisher) {
+            this.finisher = finisher;
+            return this;
+        }
+
+        public CsvColumnPlan<T> build() {
+            return new CsvColumnPlan<>(this);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSVの日時文字列 ("yyyy/M/d H:mm") 専用の高速パーサー。
+ * 
+ * 💡 文字列を1文字ずつ数値に変換して LocalDateTime.of で組み立てるため、
+ *    DateTimeFormatter.parse のような中間オブジェクト (Parsed, ParsePosition など) を生成しない。
+ * 💡 同じ予約枠の行が多いため、直近に解析した文字列と結果を小さなキャッシュに保持し、
+ *    同じ文字列はキャッシュから返す。
+ * 
+ * 形式外の入力 (全角数字、秒付き、日付として不正な値など) は従来の DateTimeFormatter に委ねるため、
+ * 解析結果とエラー (DateTimeParseException) は LocalDateTime.parse(text, fallback) と同じになる。
+ * 
+ * 並列変換 (fork-join) の各スレッドから共有して使用できる。
+ */
+public final class CsvDateTimeParser {
+
+    // キャッシュのスロット数 (2のべき乗)
+    private static final int CACHE_SIZE = 256;
+
+    private final DateTimeFormatter fallback;
+
+    // 💡 エントリは不変オブジェクトのため、ロックなしで書き込み・読み取りしてよい
+    //    (競合時は単にキャッシュミスになるだけ)
+    private final Entry[] cache = new Entry[CACHE_SIZE];
+
+    /**
+     * @param fallback 高速パスで解析できない入力に使用するフォーマッター ("yyyy/M/d H:mm" を想定)
+     */
+    public CsvDateTimeParser(DateTimeFormatter fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * 日時文字列を解析する。
+     * @param text 前後の空白を除去済みの日時文字列
+     * @throws java.time.format.DateTimeParseException 日時として解析できない場合
+     */
+    public LocalDateTime parse(String text) {
+        int slot = text.hashCode() & (CACHE_SIZE - 1);
+        Entry entry = cache[slot];
+        if (entry != null && entry.text.equals(text)) {
+            return entry.value;
+        }
+
+        LocalDateTime value = parseFast(text);
+        if (value == null) {
+            value = LocalDateTime.parse(text, fallback);
+        }
+        cache[slot] = new Entry(text, value);
+        return value;
+    }
+
+    /**
+     * "yyyy/M/d H:mm" を直接解析する。形式外または日時として不正な場合は null。
+     */
+    static LocalDateTime parseFast(String text) {
+        int length = text.length();
+        // 最短 "2024/1/1 0:00" (13文字) ～ 最長 "2024/12/31 23:59" (16文字)
+        if (length < 13 || length > 16) {
+            return null;
+        }
+
+        int year = digits(text, 0, 4);
+        if (year < 0 || text.charAt(4) != '/') {
+            return null;
+        }
+
+        int pos = 5;
+        int monthEnd = text.indexOf('/', pos);
+        int month = digits(text, pos, monthEnd);
+        if (month < 0) {
+            return null;
+        }
+
+        pos = monthEnd + 1;
+        int dayEnd = text.indexOf(' ', pos);
+        int day = digits(text, pos, dayEnd);
+        if (day < 0) {
+            return null;
+        }
+
+        pos = dayEnd + 1;
+        int hourEnd = text.indexOf(':', pos);
+        int hour = digits(text, pos, hourEnd);
+        if (hour < 0 || length - hourEnd != 3) {
+            return null;
+        }
+
+        int minute = digits(text, hourEnd + 1, length);
+        if (minute < 0) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute);
+        } catch (DateTimeException e) {
+            // 2月30日など: フォーマッターの解決ルールとエラーメッセージに委ねる
+            return null;
+        }
+    }
+
+    /**
+     * text の [start, end) が1～4桁のASCII数字であればその値、そうでなければ -1 を返す。
+     */
+    private static int digits(String text, int start, int end) {
+        if (start < 0 || end <= start || end - start > 4) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static final class Entry {
+        final String text;
+        final LocalDateTime value;
+
+        Entry(String text, LocalDateTime value) {
+            this.text = text;
+            this.value = value;
+        }
+    }
+}
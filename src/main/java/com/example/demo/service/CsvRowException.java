@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+/**
+ * CSVの1行の内容が不正な場合の例外 (日時の形式不正、未登録の状況名、必須項目の欠落など)。
+ * どの列が原因かを保持し、エラーメッセージとエラーレポートに出力する。
+ * 
+ * マスタ未登録など、行の内容に関係しない異常は従来どおり RuntimeException で送出し、
+ * エラー行を除いて取り込むモードでも取り込み全体を中止する。
+ */
+public class CsvRowException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    // 0始まりの列番号 (列を特定できない場合は -1)
+    private final int column;
+    // 列の項目名 (列を特定できない場合は null)
+    private final String columnName;
+
+    public CsvRowException(int column, String columnName, String reason) {
+        super(reason);
+        this.column = column;
+        this.columnName = columnName;
+    }
+
+    public CsvRowException(int column, String columnName, String reason, Throwable cause) {
+        super(reason, cause);
+        this.column = column;
+        this.columnName = columnName;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * 画面・ログ表示用の位置。例: "3列目 (予約日時)"
+     */
+    public String describeColumn() {
+        if (column < 0) {
+            return "";
+        }
+        return (column + 1) + "列目" + (columnName != null ? " (" + columnName + ")" : "");
+    }
+}
@@ -1,414 +1,1044 @@
 package com.example.demo.service;
 
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.example.demo.model.BusSituation;
+import jakarta.annotation.PreDestroy;
+
+import com.example.demo.config.DataSourceConfig;
+import com.example.demo.config.ImportRoutingDataSource;
+import com.example.demo.dto.ImportChangeSet;
+import com.example.demo.dto.ImportResult;
+import com.example.demo.model.ImportCheckpoint;
 import com.example.demo.model.Parking;
-import com.example.demo.model.ParkingStatus;
 import com.example.demo.model.ShuttleBusReservation; // 💡 既存のインポートを維持
-import com.example.demo.model.VisitSituation;
 import com.example.demo.model.Visitor;
-import com.example.demo.repository.BusSituationRepository;
-import com.example.demo.repository.ParkingRepository;
-import com.example.demo.repository.ParkingStatusRepository;
-import com.example.demo.repository.ShuttleBusReservationRepository; // 💡 既存のインポートを維持
-import com.example.demo.repository.VisitSituationRepository;
-import com.example.demo.repository.VisitorRepository;
+import com.example.demo.repository.BulkUpsertRepository;
+import com.example.demo.repository.ImportCheckpointRepository;
+import com.example.demo.repository.NaturalKeyIndex;
+import com.example.demo.repository.StagingImportRepository;
 
 @Service
 public class CsvService {
 
-    private final ParkingRepository parkingRepository;
-    private final ParkingStatusRepository parkingStatusRepository;
-    private final VisitorRepository visitorRepository;
-    private final VisitSituationRepository visitSituationRepository;
-    // 💡 ShuttleBusReservationRepositoryの型と名前が一致しているか確認
-    private final ShuttleBusReservationRepository shuttlebusReservationRepository; 
-    private final BusSituationRepository busSituationRepository; 
+    // 💡 変換処理から参照するマスタ (名称 → エンティティ。行ごとのDB検索なし)
+    private final MasterDataRegistry masterData;
+    // 💡 JDBCバッチによる一括UPSERT
+    private final BulkUpsertRepository bulkUpsertRepository;
+    // 💡 再開用チェックポイント
+    private final ImportCheckpointRepository checkpointRepository;
+    // 💡 大きなファイル用: 一時テーブル経由の一括取り込み
+    private final StagingImportRepository stagingImportRepository;
+    
+    // 💡 チャンク単位のコミットに使用するトランザクションテンプレート
+    private final TransactionTemplate transactionTemplate;
+    
+    // 1チャンク (1トランザクション) でコミットする行数
+    private final int chunkSize;
+    
+    // ファイル内で自然キーが重複している行の扱い (ImportOptions で指定がない場合)
+    private final DuplicatePolicy defaultDuplicatePolicy;
+    
+    // このサイズ (バイト) 以上のファイルは一時テーブル経由で取り込む (0以下の場合は使用しない)
+    private final long stagingThresholdBytes;
+    
+    // 💡 取り込み完了時の変更サマリー (新規/更新した行のID) の通知
+    private final UpdateNotificationService notificationService;
+    // 変更サマリーに含めるIDの最大件数 (超えた場合はIDを省略し、クライアントに一覧全体の再取得を促す)
+    private final int changeBroadcastMaxIds;
+    // 💡 当日の読み取りモデル (取り込み完了時に変更した行を反映)
+    private final TodayReadModel todayReadModel;
+
+    // 💡 営業中モード: 更新APIの応答時間の監視と、専用の接続プール内のコミットの枠
+    private final UpdateLatencyMonitor latencyMonitor;
+    // 営業中モード: 専用の接続プールで同時に実行するチャンクのコミット数 (1コミットで最大2接続を使用する)
+    private final Semaphore lowPriorityCommitSlots;
+    private final int lowPriorityMinChunkSize;
+    private final double lowPriorityTargetLatencyMillis;
+    private final long lowPriorityMaxBackoffMillis;
+    
+    // 💡 CSVレコード → エンティティ変換を並列実行する fork-join プール
+    private final ForkJoinPool mappingPool;
+    
+    // CSVの種類ごとの取り込み定義
+    private final ImportDefinition<Parking> parkingDefinition;
+    private final ImportDefinition<Visitor> visitDefinition;
+    private final ImportDefinition<ShuttleBusReservation> busDefinition;
     
     // CSV内の日付/時刻フォーマット
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/M/d H:mm");
     
+    // 💡 上記フォーマット専用の高速パーサー (形式外の入力のみ DATETIME_FORMATTER で解析)
+    private static final CsvDateTimeParser DATE_TIME_PARSER = new CsvDateTimeParser(DATETIME_FORMATTER);
+    
+    // 3種類のCSVで共通の読み込みフォーマット
+    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+        .setDelimiter(',')
+        .setIgnoreEmptyLines(true)
+        .setAllowMissingColumnNames(true)
+        .build();
+    
     @Autowired
     public CsvService(
-            ParkingRepository parkingRepository, 
-            ParkingStatusRepository parkingStatusRepository,
-    	    VisitorRepository visitorRepository, 
-    	    VisitSituationRepository visitSituationRepository,
-            ShuttleBusReservationRepository shuttlebusReservationRepository, 
-            BusSituationRepository busSituationRepository) { 
+            MasterDataRegistry masterData,
+            BulkUpsertRepository bulkUpsertRepository,
+            ImportCheckpointRepository checkpointRepository,
+            StagingImportRepository stagingImportRepository,
+            UpdateLatencyMonitor latencyMonitor,
+            UpdateNotificationService notificationService,
+            TodayReadModel todayReadModel,
+            PlatformTransactionManager transactionManager,
+            @Value("${csv.import.chunk-size:500}") int chunkSize,
+            @Value("${csv.import.parallelism:0}") int parallelism,
+            @Value("${csv.import.duplicate-policy:last-wins}") DuplicatePolicy defaultDuplicatePolicy,
+            @Value("${csv.import.staging-threshold-bytes:10485760}") long stagingThresholdBytes,
+            @Value("${csv.import.change-broadcast-max-ids:2000}") int changeBroadcastMaxIds,
+            @Value("${csv.import.low-priority.min-chunk-size:50}") int lowPriorityMinChunkSize,
+            @Value("${csv.import.low-priority.max-connections:2}") int lowPriorityMaxConnections,
+            @Value("${csv.import.low-priority.target-latency-ms:300}") double lowPriorityTargetLatencyMillis,
+            @Value("${csv.import.low-priority.max-backoff-ms:5000}") long lowPriorityMaxBackoffMillis) { 
+        
+        this.masterData = masterData;
+        this.bulkUpsertRepository = bulkUpsertRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.stagingImportRepository = stagingImportRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.defaultDuplicatePolicy = defaultDuplicatePolicy;
+        this.stagingThresholdBytes = stagingThresholdBytes;
+        this.notificationService = notificationService;
+        this.changeBroadcastMaxIds = changeBroadcastMaxIds;
+        this.todayReadModel = todayReadModel;
+        this.latencyMonitor = latencyMonitor;
+        this.lowPriorityCommitSlots = new Semaphore(DataSourceConfig.lowPriorityPoolSize(lowPriorityMaxConnections) / 2, true);
+        this.lowPriorityMinChunkSize = lowPriorityMinChunkSize;
+        this.lowPriorityTargetLatencyMillis = lowPriorityTargetLatencyMillis;
+        this.lowPriorityMaxBackoffMillis = lowPriorityMaxBackoffMillis;
+        // 0以下の場合は全コアを使用
+        this.mappingPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
         
-        this.parkingRepository = parkingRepository;
-        this.parkingStatusRepository = parkingStatusRepository;
-        this.visitorRepository = visitorRepository;
-        this.visitSituationRepository = visitSituationRepository;
-        this.shuttlebusReservationRepository = shuttlebusReservationRepository;
-        this.busSituationRepository = busSituationRepository;
+        this.parkingDefinition = new ImportDefinition<>("parking", "駐車場予約", 13, parkingColumnPlan(),
+            "来館者氏名", "来館予定日時",
+            bulkUpsertRepository::loadParkingKeys, this::saveAllParkings,
+            (records, columns) -> stagingImportRepository.mergeParkings(records, columns, STAGING_VALUE_RULES));
+        this.visitDefinition = new ImportDefinition<>("visitor", "来館者予約", 10, visitColumnPlan(),
+            "来館者氏名", "来館予定日時",
+            (from, to, includeNullTime) -> bulkUpsertRepository.loadVisitorKeys(from, to), this::saveAllVisits,
+            (records, columns) -> stagingImportRepository.mergeVisitors(records, columns, STAGING_VALUE_RULES));
+        // CSVのデータ列は12列 (0から11) と仮定
+        this.busDefinition = new ImportDefinition<>("bus", "バス予約", 12, busColumnPlan(),
+            "バス会社名", "予約日時",
+            (from, to, includeNullTime) -> bulkUpsertRepository.loadBusKeys(from, to), this::saveAllBuses,
+            (records, columns) -> stagingImportRepository.mergeBuses(records, columns, STAGING_VALUE_RULES));
     }
 
     // ------------------------------------------------------------------------
-    // 駐車場予約CSVインポート処理 (変更なし)
+    // 共通: ストリーミング & チャンクコミット処理
     // ------------------------------------------------------------------------
-    @Transactional
-    public void importParkingData(MultipartFile file) throws Exception {
-        
-        CSVFormat format = CSVFormat.DEFAULT.builder()
-            .setDelimiter(',')
-            .setIgnoreEmptyLines(true)
-            .setAllowMissingColumnNames(true)
-            .build();
+
+    /**
+     * 取り込みの入口。Excel (.xlsx) の場合は先頭シートを一時CSVファイルへストリーミング変換してから取り込む。
+     * (変換後は CSV と同じ処理になるため、列の変換・エラー行番号・チェックポイントなどの扱いも同じ)
+     */
+    private <T> ImportResult importFile(InputStreamSource file, ImportDefinition<T> definition,
+                                        ImportOptions options) throws Exception {
+        if (!options.isXlsx()) {
+            return streamImport(file, definition, options);
+        }
+
+        // ファイルとして参照できない場合 (アップロード直後のストリーム等) は一時ファイルへ退避する
+        boolean copied = !(file instanceof Resource resource && resource.isFile());
+        Path xlsx = copied ? Files.createTempFile("xlsx-import-", ".xlsx") : ((Resource) file).getFile().toPath();
+        Path csv = null;
+        try {
+            if (copied) {
+                try (InputStream in = file.getInputStream()) {
+                    Files.copy(in, xlsx, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            csv = Files.createTempFile("xlsx-import-", ".csv");
+            XlsxCsvConverter.convert(xlsx, csv, definition.minColumns);
+            return streamImport(new FileSystemResource(csv), definition, options);
+        } finally {
+            if (copied) {
+                Files.deleteIfExists(xlsx);
+            }
+            if (csv != null) {
+                Files.deleteIfExists(csv);
+            }
+        }
+    }
+
+    /**
+     * CSVParser からレコードを1件ずつ読み込み、chunkSize 件たまるごとに独立したトランザクションでコミットする。
+     * ファイル全体をリストに保持しないため、ファイルサイズに関わらずヒープ使用量は一定。
+     * 
+     * 💡 書き込みの前に、ファイルが対象とする予約日時の範囲の既存行を自然キーインデックスとして
+     *    1回のクエリで読み込み、既存行/新規行の判定に全行で使い回す。
+     * 💡 読み込み (このスレッド) → 変換 (fork-join プールで並列) → 書き込み (このスレッドでファイル順)
+     *    のパイプラインとし、チャンクNを書き込んでいる間にチャンクN+1の変換を進める。
+     *    メモリ上に載るのは高々2チャンク分。
+     * 💡 チャンクのコミットと同じトランザクションで、コミット済みの最終行番号をチェックポイントに記録する。
+     *    途中で失敗したファイル (内容のハッシュ値が同じファイル) を再度取り込むと、その続きから再開する。
+     * 💡 options.tolerant の場合、不正な行 (CsvRowException) で中止せず、エラーレポートに記録して残りの行を取り込む。
+     * 💡 options.lowPriority (営業中モード) の場合、チャンクサイズとコミットの間隔を
+     *    更新APIの応答時間に合わせて調整する ({@link ImportThrottle})。
+     * 💡 csv.import.staging-threshold-bytes 以上のファイルは、一時テーブル経由の一括取り込み
+     *    ({@link #stagingImport}) に切り替える。
+     * 💡 終了時 (途中で失敗した場合もコミット済みの分) に、新規/更新した行のIDを
+     *    1件の変更サマリーとして /topic/updates へ通知する。
+     * 
+     * @param file 取り込むCSVファイル (先読みと本処理で2回読み込む)
+     * @param definition 取り込むCSVの種類ごとの定義
+     * @param options ファイル名・エラー行の扱い・進捗リスナー
+     * @return 新規/更新/変更なし/エラー の件数
+     */
+    private <T> ImportResult streamImport(InputStreamSource file, ImportDefinition<T> definition,
+                                 ImportOptions options) throws Exception {
+        if (options.isLowPriority()) {
+            // 💡 営業中モードは、先読み・チャンクの書き込み・ID採番・チェックポイント・読み取りモデルの更新まで、
+            //    このスレッドの全てのDB接続を専用の小さな接続プールから取得する (通常のプールを更新APIのために残す)
+            return ImportRoutingDataSource.withLowPriorityPool(() -> runImport(file, definition, options));
+        }
+        return runImport(file, definition, options);
+    }
+
+    private <T> ImportResult runImport(InputStreamSource file, ImportDefinition<T> definition,
+                                       ImportOptions options) throws Exception {
+
+        DuplicatePolicy duplicatePolicy = options.getDuplicatePolicy() != null
+            ? options.getDuplicatePolicy() : defaultDuplicatePolicy;
+        boolean staging = useStaging(file, options);
+        ImportRun<T> run = preload(file, options.getFileName(), definition, duplicatePolicy, !staging);
+        run.changes = new ImportChangeSet(changeBroadcastMaxIds);
+        try {
+            return staging ? stagingImport(file, definition, run, options) : chunkedImport(file, definition, run, options);
+        } finally {
+            publishChanges(definition, run);
+        }
+    }
+
+    /**
+     * 行単位の取り込み本体 (チャンクごとにコミット)。
+     */
+    private <T> ImportResult chunkedImport(InputStreamSource file, ImportDefinition<T> definition, ImportRun<T> run,
+                                           ImportOptions options) throws Exception {
+        ImportProgressListener listener = options.getProgressListener();
+        run.throttle = options.isLowPriority()
+            ? ImportThrottle.lowPriority(latencyMonitor, lowPriorityCommitSlots, lowPriorityMinChunkSize, chunkSize,
+                                         lowPriorityTargetLatencyMillis, lowPriorityMaxBackoffMillis)
+            : ImportThrottle.fixed(chunkSize);
+        long resumeAfter = run.checkpoint.getLastRecordNumber();
+        if (resumeAfter > 0) {
+            System.out.printf("%sCSVをチェックポイントから再開します: %d行目まで取り込み済み%n", definition.label, resumeAfter);
+            run.result.setResumedAfterRecord(resumeAfter);
+        }
 
         try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
-             CSVParser csvParser = new CSVParser(reader, format)) {
-            
-            List<Parking> parkingsToSave = new ArrayList<>();
+             CSVParser csvParser = new CSVParser(reader, CSV_FORMAT)) {
+
+            List<CSVRecord> records = new ArrayList<>(chunkSize);
+            Future<MappedChunk<T>> pending = null;
+            int read = 0;
+            int skipped = 0;
 
             for (CSVRecord csvRecord : csvParser) {
-                if (csvRecord.size() < 13) { 
-                     System.err.println("スキップされたレコード: 列数が不足しています " + csvRecord);
-                     continue;
+                if (csvRecord.getRecordNumber() <= resumeAfter
+                        || csvRecord.getRecordNumber() == run.plan.getHeaderRecordNumber()) {
+                    // 前回までにコミット済み、またはヘッダー行
+                    continue;
+                }
+                read++;
+                if (run.duplicateRecords.get((int) csvRecord.getRecordNumber())) {
+                    // ファイル内の重複のため採用しない行 (DBには送らない)
+                    continue;
+                }
+                // 💡 エラー行を除いて取り込む場合は、列数不足もエラーレポートに記録するため変換処理へ渡す
+                if (csvRecord.size() < run.plan.getMinColumns() && !options.isTolerant()) {
+                    System.err.printf("スキップされた%sレコード: 列数が不足しています (Size: %d) CSVRecord: %s%n",
+                                      definition.label, csvRecord.size(), csvRecord.toString());
+                    skipped++;
+                    continue;
+                }
+
+                records.add(csvRecord);
+
+                if (records.size() >= run.throttle.chunkSize()) {
+                    Future<MappedChunk<T>> next = submitMapping(records, run.plan, options.isTolerant());
+                    if (pending != null) {
+                        writeMapped(pending, run, definition, options);
+                        listener.onChunkCommitted(read, run.result.getTotal(), skipped + run.result.getFailed());
+                    }
+                    pending = next;
+                    records = new ArrayList<>(run.throttle.chunkSize());
+                }
+            }
+
+            if (!records.isEmpty()) {
+                Future<MappedChunk<T>> next = submitMapping(records, run.plan, options.isTolerant());
+                writeMapped(pending, run, definition, options);
+                pending = next;
+            }
+            writeMapped(pending, run, definition, options);
+            listener.onChunkCommitted(read, run.result.getTotal(), skipped + run.result.getFailed());
+        }
+
+        // 最後まで取り込めたファイルのチェックポイントは不要
+        if (run.checkpoint.getId() != null) {
+            checkpointRepository.delete(run.checkpoint);
+        }
+        return run.result;
+    }
+
+    /**
+     * コミット済みの変更を当日の読み取りモデルに反映し、1件の変更サマリーとしてクライアントへ通知する
+     * (変更がない場合は何もしない)。
+     */
+    private <T> void publishChanges(ImportDefinition<T> definition, ImportRun<T> run) {
+        ImportChangeSet changes = run.changes;
+        if (changes.isEmpty()) {
+            return;
+        }
+        // 💡 クライアントが通知を受けて一覧を取り直す前に、読み取りモデルを更新しておく
+        todayReadModel.importChanged(definition.entityType, changes);
+        String message = "CSVインポートで" + definition.label + "が更新されました (新規 " + changes.getInsertedCount()
+            + "件 / 更新 " + changes.getUpdatedCount() + "件)";
+        try {
+            notificationService.notifyImportSummary(definition.entityType, changes, message);
+        } catch (RuntimeException e) {
+            // 通知の失敗で取り込み結果をエラーにしない
+            System.err.println("変更サマリーの通知に失敗しました: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 1チャンク分のレコード変換を fork-join プールに投入する。
+     */
+    private <T> Future<MappedChunk<T>> submitMapping(List<CSVRecord> records, CsvColumnPlan.Compiled<T> plan,
+                                                     boolean tolerant) {
+        return mappingPool.submit(() -> mapRecords(records, plan, tolerant));
+    }
+
+    /**
+     * レコードを並列に変換し、ファイル順のリストとして返す。
+     * 変換エラーが複数ある場合も、ファイル上で最初のエラーをその行番号付きで送出する。
+     * tolerant の場合、不正な行 (CsvRowException) は送出せず、行番号順にチャンクへ添えて返す。
+     */
+    @SuppressWarnings("unchecked")
+    private <T> MappedChunk<T> mapRecords(List<CSVRecord> records, CsvColumnPlan.Compiled<T> plan, boolean tolerant) {
+        int size = records.size();
+        Object[] results = new Object[size];
+        RuntimeException[] errors = new RuntimeException[size];
+
+        IntStream.range(0, size).parallel().forEach(i -> {
+            CSVRecord record = records.get(i);
+            try {
+                if (record.size() < plan.getMinColumns()) {
+                    throw new CsvRowException(-1, null,
+                        "列数が不足しています (" + record.size() + "列 / 必要な列数: " + plan.getMinColumns() + "列)");
                 }
-                
-                Parking parking = mapCsvToParkingEntity(csvRecord);
-                parkingsToSave.add(parking);
+                results[i] = plan.map(record);
+            } catch (RuntimeException e) {
+                errors[i] = e;
             }
+        });
 
-            saveAllParkings(parkingsToSave);
+        List<T> mapped = new ArrayList<>(size);
+        List<RowError> rowErrors = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            RuntimeException error = errors[i];
+            if (error == null) {
+                mapped.add((T) results[i]);
+            } else if (tolerant && error instanceof CsvRowException rowError) {
+                rowErrors.add(new RowError(records.get(i), rowError));
+            } else {
+                throw new RuntimeException(describeRow(records.get(i), error) + error.getMessage(), error);
+            }
         }
+        return new MappedChunk<>(mapped, rowErrors, records.get(size - 1).getRecordNumber());
     }
 
-    private Parking mapCsvToParkingEntity(CSVRecord record) {
-        Parking parking = new Parking(); 
+    /**
+     * エラーメッセージの接頭辞。例: "12行目 3列目 (予約日時): "
+     */
+    private static String describeRow(CSVRecord record, RuntimeException error) {
+        String position = record.getRecordNumber() + "行目";
+        if (error instanceof CsvRowException rowError && rowError.getColumn() >= 0) {
+            position += " " + rowError.describeColumn();
+        }
+        return position + ": ";
+    }
 
-        String visitTimeStr = record.get(1).trim();
-        if (!visitTimeStr.isEmpty()) {
-            parking.setVisitReservationTime(LocalDateTime.parse(visitTimeStr, DATETIME_FORMATTER));
+    /**
+     * 変換済みのチャンクを待ち合わせてコミットする (pending が null の場合は何もしない)。
+     * 不正な行はファイル順にエラーレポートへ記録する。
+     */
+    private <T> void writeMapped(Future<MappedChunk<T>> pending, ImportRun<T> run,
+                                 ImportDefinition<T> definition, ImportOptions options) throws Exception {
+        if (pending == null) {
+            return;
+        }
+        MappedChunk<T> chunk;
+        try {
+            chunk = pending.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
-        parking.setErrandsRelationship(record.get(2).trim());
-        parking.setCarNumber(record.get(3).trim());
-        parking.setVisitorName(record.get(4).trim());
-        parking.setFamilyNames(record.get(5).trim());
-        parking.setManagerName(record.get(6).trim());
 
-        String depTimeStr = record.get(7).trim();
-        if (!depTimeStr.isEmpty()) {
-            parking.setDepartureTime(LocalDateTime.parse(depTimeStr, DATETIME_FORMATTER));
+        ImportErrorReport errorReport = options.getErrorReport();
+        for (RowError rowError : chunk.errors) {
+            System.err.printf("取り込まなかった%sレコード: %s%s%n", definition.label,
+                              describeRow(rowError.record, rowError.error), rowError.error.getMessage());
+            if (errorReport != null) {
+                errorReport.add(rowError.record, rowError.error);
+            }
         }
-        
-        parking.setParkingPermit(record.get(8).trim());
-        parking.setParkingPosition(record.get(9).trim());
-        
-        String name = record.get(10).trim();
-        
-        if (!name.isEmpty()) {
-            Optional<ParkingStatus> statusOpt = parkingStatusRepository.findByName(name);
-            
-            if (statusOpt.isPresent()) {
-                parking.setParkingStatus(statusOpt.get());
-            } else {
-                throw new RuntimeException("DBに登録されていない駐車状況名です: " + name);
+        run.result.addFailed(chunk.errors.size());
+
+        run.throttle.beforeCommit();
+        try {
+            run.result.add(commitChunk(chunk, run, definition));
+        } finally {
+            run.throttle.afterCommit();
+        }
+    }
+
+    /**
+     * ファイルを先読みして
+     * 1. 予約日時の最小値・最大値を求め、その範囲の既存行の自然キー → ID を1回の範囲クエリで読み込む。
+     * 2. ファイル内で自然キーが重複している行を検出し、重複時の扱いに従って採用しない行を決める
+     *    (重複がある場合のみ、該当する行を読み直して変換し、変換できる行の中から採用する行を決める)。
+     * 3. ファイル内容の SHA-256 を計算し、同じファイルのチェックポイントがあれば読み込む。
+     * 4. 1行目から列の対応 (ヘッダーの有無・列の並び) を決定する。
+     * (日時の形式不正などは本処理側でエラーにするため、ここでは無視する)
+     * 
+     * @param loadKeyIndex 自然キーインデックスを読み込むか (一時テーブル経由の場合はSQL内で突き合わせるため不要)
+     * 
+     * @throws IllegalStateException 重複時の扱いが REJECT で、重複がある場合 (DBへの書き込み前)
+     */
+    private <T> ImportRun<T> preload(InputStreamSource file, String fileName, ImportDefinition<T> definition,
+                                     DuplicatePolicy duplicatePolicy, boolean loadKeyIndex) throws Exception {
+        CsvColumnPlan.Compiled<T> plan = null;
+        int nameColumn = -1;
+        int timeColumn = -1;
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        boolean hasNullTime = false;
+
+        // 💡 ファイル内の自然キーの重複 (この段階では行の内容を検証していない)
+        FileDuplicates keyDuplicates = new FileDuplicates(duplicatePolicy);
+        // 重複しているキーの行 (初出の行を含む)
+        BitSet duplicateCandidates = new BitSet();
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (DigestInputStream in = new DigestInputStream(file.getInputStream(), digest);
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader, CSV_FORMAT)) {
+
+            for (CSVRecord csvRecord : csvParser) {
+                if (plan == null) {
+                    plan = definition.columnPlan.compile(csvRecord);
+                    nameColumn = plan.indexOf(definition.nameField);
+                    timeColumn = plan.indexOf(definition.timeField);
+                    if (plan.hasHeader()) {
+                        continue;
+                    }
+                }
+                if (csvRecord.size() < plan.getMinColumns()) {
+                    continue;
+                }
+                LocalDateTime visitTime = null;
+                String visitTimeStr = csvRecord.get(timeColumn).trim();
+                if (visitTimeStr.isEmpty()) {
+                    hasNullTime = true;
+                } else {
+                    try {
+                        visitTime = DATE_TIME_PARSER.parse(visitTimeStr);
+                    } catch (DateTimeParseException e) {
+                        // 本処理でエラーとして扱う
+                        continue;
+                    }
+                    if (from == null || visitTime.isBefore(from)) {
+                        from = visitTime;
+                    }
+                    if (to == null || visitTime.isAfter(to)) {
+                        to = visitTime;
+                    }
+                }
+
+                // ファイル内の重複検出
+                int recordNumber = (int) csvRecord.getRecordNumber();
+                int previous = keyDuplicates.add(csvRecord.get(nameColumn).trim(), visitTime, visitTimeStr, recordNumber);
+                if (previous >= 0) {
+                    duplicateCandidates.set(previous);
+                    duplicateCandidates.set(recordNumber);
+                }
             }
-        } else {
-            final String DEFAULT_STATUS_NAME = "予約中"; 
-            Optional<ParkingStatus> defaultStatusOpt = parkingStatusRepository.findByName(DEFAULT_STATUS_NAME); 
-            
-            if (defaultStatusOpt.isPresent()) {
-                parking.setParkingStatus(defaultStatusOpt.get()); 
-            } else {
-                throw new RuntimeException("必須項目である駐車状況名が空欄ですが、代替のデフォルトステータス ('" + DEFAULT_STATUS_NAME + "') もDBに存在しません。マスタを確認してください。");
+            // 末尾の読み残しもハッシュ値に含める
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+
+        BitSet duplicateRecords = new BitSet();
+        if (keyDuplicates.count > 0) {
+            if (duplicatePolicy == DuplicatePolicy.REJECT) {
+                throw new IllegalStateException("ファイル内で同じ予約が重複しています (" + keyDuplicates.count + "件): "
+                    + keyDuplicates.examples());
+            }
+            // 💡 採用する行は、変換できる (不正でない) 行の中から決める
+            //    (不正な行を採用して正しい行を捨て、どちらも取り込まれないことがないように)
+            FileDuplicates resolved = resolveDuplicates(file, plan, nameColumn, timeColumn, duplicateCandidates,
+                                                        duplicatePolicy);
+            duplicateRecords = resolved.dropped;
+            if (resolved.count > 0) {
+                System.out.printf("%sCSVのファイル内重複 (%s): %d件: %s%n", definition.label,
+                                  duplicatePolicy.getLabel(), resolved.count, resolved.examples());
+            }
+        }
+
+        String fileHash = HexFormat.of().formatHex(digest.digest());
+        ImportCheckpoint checkpoint = checkpointRepository
+            .findByEntityTypeAndFileHash(definition.entityType, fileHash)
+            .orElseGet(() -> new ImportCheckpoint(definition.entityType, fileHash, fileName));
+
+        NaturalKeyIndex keyIndex = loadKeyIndex ? definition.indexLoader.load(from, to, hasNullTime) : null;
+        if (plan == null) {
+            // 空のファイル
+            plan = definition.columnPlan.compile(null);
+        }
+        ImportRun<T> run = new ImportRun<>(plan, keyIndex, duplicateRecords, checkpoint);
+        run.result.setDuplicates(duplicateRecords.cardinality(), duplicatePolicy.getLabel());
+        return run;
+    }
+
+    /**
+     * 自然キーが重複している行 (candidates) を読み直して変換し、変換できた行の中で重複時の扱いに従って採用しない行を決める。
+     * 変換できない行は本処理でエラー (tolerant の場合はエラーレポートに記録) になるため、ここでは重複として扱わない。
+     */
+    private <T> FileDuplicates resolveDuplicates(InputStreamSource file, CsvColumnPlan.Compiled<T> plan,
+                                                 int nameColumn, int timeColumn, BitSet candidates,
+                                                 DuplicatePolicy duplicatePolicy) throws Exception {
+        FileDuplicates resolved = new FileDuplicates(duplicatePolicy);
+        int lastCandidate = candidates.length() - 1;
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader, CSV_FORMAT)) {
+
+            for (CSVRecord csvRecord : csvParser) {
+                int recordNumber = (int) csvRecord.getRecordNumber();
+                if (recordNumber > lastCandidate) {
+                    break;
+                }
+                if (!candidates.get(recordNumber)) {
+                    continue;
+                }
+                try {
+                    plan.map(csvRecord);
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                String visitTimeStr = csvRecord.get(timeColumn).trim();
+                resolved.add(csvRecord.get(nameColumn).trim(), parseDateTime(visitTimeStr, timeColumn, null),
+                             visitTimeStr, recordNumber);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * 一時テーブル経由で取り込むかを判定する。
+     * エラー行を除いて取り込む場合は行ごとのエラーレポートが必要なため、
+     * 営業中モードの場合は1つの長いトランザクションになるのを避けるため、ファイルサイズに関わらず行単位で取り込む。
+     */
+    private boolean useStaging(InputStreamSource file, ImportOptions options) throws Exception {
+        if (stagingThresholdBytes <= 0 || options.isTolerant() || options.isLowPriority()
+                || !(file instanceof Resource resource)) {
+            return false;
+        }
+        return resource.contentLength() >= stagingThresholdBytes && stagingImportRepository.isSupported();
+    }
+
+    /**
+     * 大きなファイル用の取り込み。
+     * CSVの値を文字列のまま一時テーブルへJDBCバッチで投入し、検証と対象テーブルへの反映をSQLでまとめて行う
+     * (行ごとのエンティティ変換・チャンクごとのコミットを行わない)。
+     * 
+     * 💡 一時テーブルは接続ごとのため、全体を1トランザクション (1接続) で実行する。
+     *    対象テーブルの行ロックを取るのは最後の UPDATE / INSERT の間だけ。
+     * 💡 不正な行が1件でもあれば何も書き込まずに中止する (途中までのコミットがないためチェックポイントも使わない)。
+     */
+    private <T> ImportResult stagingImport(InputStreamSource file, ImportDefinition<T> definition, ImportRun<T> run,
+                                          ImportOptions options) throws Exception {
+        System.out.printf("%sCSVを一時テーブル経由で取り込みます: %s%n", definition.label, options.getFileName());
+        ImportProgressListener listener = options.getProgressListener();
+        int[] read = new int[1];
+        int[] skipped = new int[1];
+
+        // 取り込み対象外の行 (ヘッダー、ファイル内の重複、列数不足) を除外しながら数える
+        Predicate<CSVRecord> accept = csvRecord -> {
+            if (csvRecord.getRecordNumber() == run.plan.getHeaderRecordNumber()) {
+                return false;
+            }
+            read[0]++;
+            if (run.duplicateRecords.get((int) csvRecord.getRecordNumber())) {
+                return false;
             }
+            if (csvRecord.size() < run.plan.getMinColumns()) {
+                System.err.printf("スキップされた%sレコード: 列数が不足しています (Size: %d) CSVRecord: %s%n",
+                                  definition.label, csvRecord.size(), csvRecord.toString());
+                skipped[0]++;
+                return false;
+            }
+            if (read[0] % chunkSize == 0) {
+                listener.onChunkCommitted(read[0], 0, skipped[0]);
+            }
+            return true;
+        };
+
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader, CSV_FORMAT)) {
+            Iterator<CSVRecord> records = csvParser.stream().filter(accept).iterator();
+            // 一時テーブルは固定の列位置で定義しているため、ヘッダーで決まった列の並びを渡して並べ替える
+            int[] columns = run.plan.toPositional(definition.minColumns);
+            ImportResult result = transactionTemplate.execute(status -> definition.stagingWriter.apply(records, columns));
+            run.result.add(result);
+            // 一時テーブル経由の場合は変更した行のIDを取得しないため、件数のみ通知する
+            run.changes.addUnidentified(result.getInserted(), result.getUpdated());
+        }
+        listener.onChunkCommitted(read[0], run.result.getTotal(), skipped[0]);
+
+        // 以前に行単位で途中まで取り込んだ同じファイルのチェックポイントは不要
+        if (run.checkpoint.getId() != null) {
+            checkpointRepository.delete(run.checkpoint);
+        }
+        return run.result;
+    }
+
+    /**
+     * 1チャンク分を1トランザクションで保存し、同じトランザクションでチェックポイントを進める。
+     * 書き込みはJDBCバッチで行うため永続化コンテキストにエンティティは溜まらず、
+     * 行ロックもチャンク単位でしか保持されないので、取り込み中もダッシュボードからの更新を妨げない。
+     */
+    private <T> ImportResult commitChunk(MappedChunk<T> chunk, ImportRun<T> run, ImportDefinition<T> definition) {
+        // 変更した行のIDは、コミットできたチャンクの分だけ通知対象に加える
+        ImportChangeSet changes = new ImportChangeSet(changeBroadcastMaxIds);
+        ImportResult committed = transactionTemplate.execute(status -> {
+            ImportResult result = definition.chunkWriter.write(chunk.rows, run.keyIndex, changes);
+
+            ImportCheckpoint checkpoint = run.checkpoint;
+            checkpoint.setLastRecordNumber(chunk.lastRecordNumber);
+            checkpoint.setRowsCommitted(checkpoint.getRowsCommitted() + result.getTotal());
+            run.checkpoint = checkpointRepository.save(checkpoint);
+            return result;
+        });
+        run.changes.add(changes);
+        return committed;
+    }
+
+    @PreDestroy
+    public void shutdownMappingPool() {
+        mappingPool.shutdown();
+    }
+
+    /**
+     * 自然キーインデックスの読み込み処理。
+     */
+    @FunctionalInterface
+    private interface KeyIndexLoader {
+        NaturalKeyIndex load(LocalDateTime from, LocalDateTime to, boolean includeNullTime);
+    }
+
+    /**
+     * 1チャンク分のエンティティの保存処理 (トランザクション内で呼ばれる)。
+     */
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        ImportResult write(List<T> rows, NaturalKeyIndex keyIndex, ImportChangeSet changes);
+    }
+
+    /**
+     * 取り込むCSVの種類 (駐車場/来館者/バス) ごとの定義。
+     */
+    private static final class ImportDefinition<T> {
+        // チェックポイントの種別 ('parking', 'visitor', 'bus')
+        private final String entityType;
+        // ログ出力用のデータ種別名
+        private final String label;
+        // ヘッダーがない場合に必要な最小列数 (不足しているレコードはスキップ)
+        private final int minColumns;
+        // CSVの列 → エンティティの項目 の対応
+        private final CsvColumnPlan<T> columnPlan;
+        // 自然キーの項目名 (氏名/バス会社名, 予約日時)
+        private final String nameField;
+        private final String timeField;
+        // 自然キーインデックスの読み込み処理
+        private final KeyIndexLoader indexLoader;
+        // 1チャンク分のエンティティを保存する処理 (トランザクション内で呼ばれる)
+        private final ChunkWriter<T> chunkWriter;
+        // 一時テーブル経由で全行をまとめて反映する処理 (トランザクション内で呼ばれる)
+        // (引数は固定の列位置ごとのCSV列番号)
+        private final BiFunction<Iterator<CSVRecord>, int[], ImportResult> stagingWriter;
+
+        ImportDefinition(String entityType, String label, int minColumns, CsvColumnPlan<T> columnPlan,
+                         String nameField, String timeField,
+                         KeyIndexLoader indexLoader, ChunkWriter<T> chunkWriter,
+                         BiFunction<Iterator<CSVRecord>, int[], ImportResult> stagingWriter) {
+            this.entityType = entityType;
+            this.label = label;
+            this.minColumns = minColumns;
+            this.columnPlan = columnPlan;
+            this.nameField = nameField;
+            this.timeField = timeField;
+            this.indexLoader = indexLoader;
+            this.chunkWriter = chunkWriter;
+            this.stagingWriter = stagingWriter;
         }
-        parking.setRemarksColumn(record.get(12).trim());
+    }
 
-        return parking;
+    /**
+     * 変換済みの1チャンク分のエンティティ、不正な行、最終CSV行番号。
+     */
+    private static final class MappedChunk<T> {
+        private final List<T> rows;
+        private final List<RowError> errors;
+        private final long lastRecordNumber;
+
+        MappedChunk(List<T> rows, List<RowError> errors, long lastRecordNumber) {
+            this.rows = rows;
+            this.errors = errors;
+            this.lastRecordNumber = lastRecordNumber;
+        }
     }
 
-    private void saveAllParkings(List<Parking> newParkings) {
-        for (Parking newParking : newParkings) {
-            
-            Optional<Parking> existingOpt = parkingRepository
-                .findByVisitorNameAndVisitReservationTime(
-                    newParking.getVisitorName(), 
-                    newParking.getVisitReservationTime());
-
-            if (existingOpt.isPresent()) {
-                Parking existing = existingOpt.get();
-                
-                existing.setErrandsRelationship(newParking.getErrandsRelationship());
-                existing.setCarNumber(newParking.getCarNumber());
-                existing.setDepartureTime(newParking.getDepartureTime());
-                existing.setParkingPermit(newParking.getParkingPermit());
-                existing.setParkingPosition(newParking.getParkingPosition());
-                existing.setParkingStatus(newParking.getParkingStatus());
-                existing.setRemarksColumn(newParking.getRemarksColumn());
-                
-                parkingRepository.save(existing); 
+    /**
+     * 取り込まなかった不正な行。
+     */
+    private static final class RowError {
+        private final CSVRecord record;
+        private final CsvRowException error;
+
+        RowError(CSVRecord record, CsvRowException error) {
+            this.record = record;
+            this.error = error;
+        }
+    }
+
+    /**
+     * ファイル内の自然キー → 採用中の行番号と、重複のため採用しない行。
+     */
+    private static final class FileDuplicates {
+        // ログ・エラーメッセージに含める重複の件数
+        private static final int MAX_EXAMPLES = 5;
+
+        private final DuplicatePolicy policy;
+        private final NaturalKeyIndex keys = new NaturalKeyIndex();
+        private final BitSet dropped = new BitSet();
+        // 先頭の数件のみ保持する (重複が多いファイルでもメモリ・ログを消費しない)
+        private final List<String> examples = new ArrayList<>();
+        private int count;
+
+        FileDuplicates(DuplicatePolicy policy) {
+            this.policy = policy;
+        }
+
+        /**
+         * @return 同じキーで採用中だった行番号 (初出の場合は -1)
+         */
+        int add(String name, LocalDateTime time, String timeText, int recordNumber) {
+            int previous = keys.get(name, time);
+            if (previous < 0) {
+                keys.put(name, time, recordNumber);
+                return -1;
+            }
+            count++;
+            if (examples.size() < MAX_EXAMPLES) {
+                examples.add(previous + "行目と" + recordNumber + "行目 ('" + name + "', " + timeText + ")");
+            }
+            if (policy == DuplicatePolicy.FIRST_WINS) {
+                dropped.set(recordNumber);
             } else {
-                parkingRepository.save(newParking); 
+                dropped.set(previous);
+                keys.put(name, time, recordNumber);
+            }
+            return previous;
+        }
+
+        /**
+         * 例: "3行目と8行目 ('山田太郎', 2025/4/12 9:00), 5行目と9行目 (...) ほか"
+         */
+        String examples() {
+            return String.join(", ", examples) + (count > examples.size() ? " ほか" : "");
+        }
+    }
+
+    /**
+     * 1回の取り込み処理の状態 (書き込みスレッドのみが参照する)。
+     */
+    private static final class ImportRun<T> {
+        // このファイルの列の対応
+        private final CsvColumnPlan.Compiled<T> plan;
+        private final NaturalKeyIndex keyIndex;
+        // ファイル内の重複のため採用しないCSV行番号
+        private final BitSet duplicateRecords;
+        private final ImportResult result = new ImportResult();
+        private ImportCheckpoint checkpoint;
+        // チャンクサイズとコミット間隔の調整
+        private ImportThrottle throttle;
+        // コミット済みの変更 (取り込み完了時に通知する)
+        private ImportChangeSet changes;
+
+        ImportRun(CsvColumnPlan.Compiled<T> plan, NaturalKeyIndex keyIndex, BitSet duplicateRecords,
+                  ImportCheckpoint checkpoint) {
+            this.plan = plan;
+            this.keyIndex = keyIndex;
+            this.duplicateRecords = duplicateRecords;
+            this.checkpoint = checkpoint;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 共通: 列の値の変換
+    // ------------------------------------------------------------------------
+
+    // 💡 日時・乗車人数の変換規則は下記の parseDateTime / parsePassengers だけで定義し、
+    //    一時テーブル経由の取り込みにも同じ関数を渡す (同じファイルの成否がファイルサイズで変わらないように)。
+    //    日時は DATETIME_FORMATTER (既定の SMART 解決: 2025/2/30 → 2/28 に丸める) と同じ結果、
+    //    乗車人数は「名」と空白を除いて Short.parseShort (空欄は 0、符号付き・5桁も short の範囲なら可)。
+    private static final StagingImportRepository.ValueRules STAGING_VALUE_RULES = new StagingImportRepository.ValueRules() {
+        @Override
+        public LocalDateTime dateTime(String text) {
+            try {
+                return parseDateTime(text, -1, null);
+            } catch (CsvRowException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
             }
         }
+
+        @Override
+        public short passengers(String text) {
+            try {
+                return parsePassengers(text, -1, null);
+            } catch (CsvRowException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
+    };
+
+    /**
+     * 日時の列の値を解析する (空欄の場合は null)。
+     * @throws CsvRowException 日時の形式が不正な場合
+     */
+    private static LocalDateTime parseDateTime(String text, int column, String columnName) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return DATE_TIME_PARSER.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new CsvRowException(column, columnName,
+                "日時の形式が不正です: '" + text + "' (例: 2025/4/12 10:30)", e);
+        }
+    }
+
+    /**
+     * 乗車人数の列の値を解析する ("3名" のような表記も可。空欄の場合は 0)。
+     * @throws CsvRowException 数値として不正な場合
+     */
+    private static short parsePassengers(String text, int column, String columnName) {
+        String cleanPassengersStr = text.replace("名", "").trim();
+        try {
+            return cleanPassengersStr.isEmpty() ? (short) 0 : Short.parseShort(cleanPassengersStr);
+        } catch (NumberFormatException e) {
+            throw new CsvRowException(column, columnName, "乗車人数に不正な値が含まれています: '" + text + "'", e);
+        }
+    }
+
+    /**
+     * 必須の列の値を返す。
+     * @throws CsvRowException 空欄の場合
+     */
+    private static String required(String text, int column, String columnName) {
+        if (text.isEmpty()) {
+            throw new CsvRowException(column, columnName, columnName + "は必須項目です。");
+        }
+        return text;
+    }
+
+    // ------------------------------------------------------------------------
+    // 駐車場予約CSVインポート処理
+    // ------------------------------------------------------------------------
+    public ImportResult importParkingData(InputStreamSource file) throws Exception {
+        return importParkingData(file, new ImportOptions());
+    }
+
+    public ImportResult importParkingData(InputStreamSource file, ImportOptions options) throws Exception {
+        return importFile(file, parkingDefinition, options);
+    }
+
+    /**
+     * 駐車場予約CSVの列定義 (ヘッダーがない場合の列位置は 0:ID, 11:更新日時 を読み飛ばす従来の並び)。
+     * 駐車状況が空欄・列がない場合は '予約中' とする。
+     */
+    private CsvColumnPlan<Parking> parkingColumnPlan() {
+        return CsvColumnPlan.builder(Parking::new, 13)
+            .column("来館予定日時", 1, (row, value, column, name) -> row.setVisitReservationTime(parseDateTime(value, column, name)),
+                    "予約日時")
+            .column("用件と続柄", 2, (row, value, column, name) -> row.setErrandsRelationship(value), "用件")
+            .column("車両ナンバー", 3, (row, value, column, name) -> row.setCarNumber(value), "車両番号")
+            .column("来館者氏名", 4, (row, value, column, name) -> row.setVisitorName(value), "来館者名", "氏名")
+            .column("参列家名", 5, (row, value, column, name) -> row.setFamilyNames(value))
+            .column("担当", 6, (row, value, column, name) -> row.setManagerName(value), "担当者")
+            .column("出庫時刻", 7, (row, value, column, name) -> row.setDepartureTime(parseDateTime(value, column, name)))
+            .column("駐車証No.", 8, (row, value, column, name) -> row.setParkingPermit(value), "駐車証")
+            .column("駐車位置", 9, (row, value, column, name) -> row.setParkingPosition(value))
+            .optionalColumn("駐車状況", 10, (row, value, column, name) -> {
+                if (!value.isEmpty()) {
+                    row.setParkingStatus(masterData.findParkingStatusByName(value)
+                        .orElseThrow(() -> new CsvRowException(column, name, "DBに登録されていない駐車状況名です: " + value)));
+                }
+            }, "利用状況")
+            .optionalColumn("備考欄", 12, (row, value, column, name) -> row.setRemarksColumn(value), "備考")
+            .finish(row -> {
+                if (row.getParkingStatus() == null) {
+                    final String DEFAULT_STATUS_NAME = "予約中";
+                    row.setParkingStatus(masterData.findParkingStatusByName(DEFAULT_STATUS_NAME)
+                        .orElseThrow(() -> new RuntimeException("必須項目である駐車状況名が空欄ですが、代替のデフォルトステータス ('"
+                            + DEFAULT_STATUS_NAME + "') もDBに存在しません。マスタを確認してください。")));
+                }
+            })
+            .build();
+    }
+
+    /**
+     * 1チャンク分の駐車場予約を、自然キー (来館者名 + 予約日時) で一括UPSERTする。
+     * 既存行の更新では参列家名・担当は上書きしない (従来の findBy + save と同じ仕様)。
+     */
+    private ImportResult saveAllParkings(List<Parking> newParkings, NaturalKeyIndex keyIndex,
+                                         ImportChangeSet changes) {
+        return bulkUpsertRepository.upsertParkings(newParkings, keyIndex, changes);
     }
     
 	// ------------------------------------------------------------------------
-	// 来館者予約CSVインポート処理 (変更なし)
+	// 来館者予約CSVインポート処理
 	// ------------------------------------------------------------------------
-    @Transactional
-	 public void importVisitData(MultipartFile file) throws Exception {
-	     CSVFormat format = CSVFormat.DEFAULT.builder()
-	         .setDelimiter(',')
-	         .setIgnoreEmptyLines(true)
-	         .setAllowMissingColumnNames(true)
-	         .build();
+	 public ImportResult importVisitData(InputStreamSource file) throws Exception {
+	     return importVisitData(file, new ImportOptions());
+	 }
 
-	     try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
-	          CSVParser csvParser = new CSVParser(reader, format)) {
-	         
-	         List<Visitor> visitsToSave = new ArrayList<>();
-
-	         for (CSVRecord csvRecord : csvParser) {
-	             if (csvRecord.size() < 10) { 
-	                 System.err.printf("スキップされたレコード: 列数が不足しています (Size: %d) CSVRecord: %s%n", 
-	                                   csvRecord.size(), csvRecord.toString());
-	                 continue; 
-	             } 
-	             
-	             Visitor visit = mapCsvToVisitEntity(csvRecord);
-	             visitsToSave.add(visit);
-	         }
-	
-	         saveAllVisits(visitsToSave);
-	     }
+	 public ImportResult importVisitData(InputStreamSource file, ImportOptions options) throws Exception {
+	     return importFile(file, visitDefinition, options);
 	 }
 	
-	 private Visitor mapCsvToVisitEntity(CSVRecord record) {
-	     Visitor visitor = new Visitor();
-	     
-	     String visitTimeStr = record.get(1).trim();
-	     if (!visitTimeStr.isEmpty()) {
-	         visitor.setVisitReservationTime(LocalDateTime.parse(visitTimeStr, DATETIME_FORMATTER));
-	     }
-	
-	     visitor.setErrandsRelationship(record.get(2).trim());
-	     visitor.setVisitorName(record.get(3).trim());
-	     visitor.setFamilyNames(record.get(4).trim());
-	     visitor.setManagerName(record.get(5).trim());
-	     
-	     String cmpTimeStr = record.get(6).trim();
-	     if (!cmpTimeStr.isEmpty()) {
-	         visitor.setCompilationCmpTime(LocalDateTime.parse(cmpTimeStr, DATETIME_FORMATTER));
-	     }
-	     
-	     final String DEFAULT_STATUS_NAME = "来館前"; 
-	     
-	     Optional<VisitSituation> defaultStatusOpt = visitSituationRepository.findBySituationName(DEFAULT_STATUS_NAME); 
-	     
-	     if (defaultStatusOpt.isPresent()) {
-	         visitor.setVisitSituation(defaultStatusOpt.get()); 
-	     } else {
-	         throw new RuntimeException("必須項目である来館状況IDのデフォルト値 ('" + DEFAULT_STATUS_NAME + "') がDBに存在しません。マスタを確認してください。");
-	     }
-	
-	     visitor.setRemarksColumn(record.get(8).trim());
-	
-	     return visitor;
+	 /**
+	  * 来館者予約CSVの列定義。来館予定日時は必須 (DBの列が NOT NULL のため)。来館状況は常に '来館前' とする。
+	  */
+	 private CsvColumnPlan<Visitor> visitColumnPlan() {
+	     return CsvColumnPlan.builder(Visitor::new, 10)
+	         .column("来館予定日時", 1, (row, value, column, name) ->
+	                 row.setVisitReservationTime(parseDateTime(required(value, column, name), column, name)), "予約日時")
+	         .column("用件", 2, (row, value, column, name) -> row.setErrandsRelationship(value), "用件と続柄")
+	         .column("来館者氏名", 3, (row, value, column, name) -> row.setVisitorName(value), "来館者名", "氏名")
+	         .column("参列家名", 4, (row, value, column, name) -> row.setFamilyNames(value))
+	         .column("担当", 5, (row, value, column, name) -> row.setManagerName(value), "担当者")
+	         .optionalColumn("対応完了時刻", 6, (row, value, column, name) -> row.setCompilationCmpTime(parseDateTime(value, column, name)),
+	                 "集計完了時刻")
+	         .optionalColumn("備考欄", 8, (row, value, column, name) -> row.setRemarksColumn(value), "備考")
+	         .finish(row -> {
+	             final String DEFAULT_STATUS_NAME = "来館前";
+	             row.setVisitSituation(masterData.findVisitSituationByName(DEFAULT_STATUS_NAME)
+	                 .orElseThrow(() -> new RuntimeException("必須項目である来館状況IDのデフォルト値 ('" + DEFAULT_STATUS_NAME
+	                     + "') がDBに存在しません。マスタを確認してください。")));
+	         })
+	         .build();
 	 }
 	
-	 private void saveAllVisits(List<Visitor> newVisits) {
-	     for (Visitor newVisit : newVisits) {
-	         
-	         Optional<Visitor> existingOpt = visitorRepository
-	             .findByVisitorNameAndVisitReservationTime(
-	                 newVisit.getVisitorName(), 
-	                 newVisit.getVisitReservationTime());
-	
-	         if (existingOpt.isPresent()) {
-	             Visitor existing = existingOpt.get();
-	             
-	             existing.setErrandsRelationship(newVisit.getErrandsRelationship());
-	             existing.setFamilyNames(newVisit.getFamilyNames());
-	             existing.setManagerName(newVisit.getManagerName());
-	             existing.setCompilationCmpTime(newVisit.getCompilationCmpTime());
-	             existing.setVisitSituation(newVisit.getVisitSituation());
-	             existing.setRemarksColumn(newVisit.getRemarksColumn());
-	             
-	             visitorRepository.save(existing);
-	         } else {
-	             visitorRepository.save(newVisit);
-	         }
-	     }
+	 /**
+	  * 1チャンク分の来館者予約を、自然キー (来館者名 + 予約日時) で一括UPSERTする。
+	  */
+	 private ImportResult saveAllVisits(List<Visitor> newVisits, NaturalKeyIndex keyIndex,
+	                                   ImportChangeSet changes) {
+	     return bulkUpsertRepository.upsertVisitors(newVisits, keyIndex, changes);
 	 }
 	 
 	// ------------------------------------------------------------------------
 	// 🚨 送迎バス予約CSVインポート処理 (エラー解消 & 修正版) 🚨
 	// ------------------------------------------------------------------------
-	@Transactional 
-	public void importBusData(MultipartFile file) throws Exception {
-	     CSVFormat format = CSVFormat.DEFAULT.builder()
-	         .setDelimiter(',')
-	         .setIgnoreEmptyLines(true)
-	         .setAllowMissingColumnNames(true)
-	         .build();
+	public ImportResult importBusData(InputStreamSource file) throws Exception {
+	     return importBusData(file, new ImportOptions());
+	}
 
-	     try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8);
-	          CSVParser csvParser = new CSVParser(reader, format)) {
-	         
-	         List<ShuttleBusReservation> busesToSave = new ArrayList<>();
-	         
-	         for (CSVRecord csvRecord : csvParser) {
-	             // CSVのデータ列は12列 (0から11) と仮定
-	             if (csvRecord.size() < 12) { 
-	                 System.err.printf("スキップされたバス予約レコード: 列数が不足しています (Size: %d) CSVRecord: %s%n", 
-	                                   csvRecord.size(), csvRecord.toString());
-	                 continue; 
-	             } 
-	             
-	             try {
-	                ShuttleBusReservation bus = mapCsvToBusEntity(csvRecord);
-	                busesToSave.add(bus);
-	             } catch (NumberFormatException e) {
-	                 // 💡 乗車人数のパースエラーを明確に捕捉
-	                 throw new RuntimeException("送迎バスCSVの処理に失敗しました。乗車人数に不正な値が含まれています。詳細: " + e.getMessage(), e);
-	             } catch (IllegalArgumentException e) {
-	                 // 💡 必須項目エラーを捕捉
-	                 throw new RuntimeException("送迎バスCSVの処理に失敗しました。必須項目が不足しています。詳細: " + e.getMessage(), e);
-	             }
-	         }
-
-	         saveAllBuses(busesToSave);
-	     }
+	public ImportResult importBusData(InputStreamSource file, ImportOptions options) throws Exception {
+	     return importFile(file, busDefinition, options);
 	}
 
-	// CsvService.java 内の mapCsvToBusEntity 関数全体を置き換えてください
-
-	private ShuttleBusReservation mapCsvToBusEntity(CSVRecord record) {
-	    ShuttleBusReservation bus = new ShuttleBusReservation();
-	    
-	    // ----------------------------------------------------------------------------------
-	    // 💡 1. visitReservationTime (DATETIME) - インデックス 1 (予約日時)
-	    // ----------------------------------------------------------------------------------
-	    String visitTimeStr = record.get(1).trim();
-	    if (!visitTimeStr.isEmpty()) {
-	        // DATETIME_FORMATTER = "yyyy/M/d H:mm" を使用
-	        bus.setVisitReservationTime(LocalDateTime.parse(visitTimeStr, DATETIME_FORMATTER));
-	    } else {
-	        throw new IllegalArgumentException("予約日時 (visit_reservation_time) は必須項目です。");
-	    }
-
-	    // ----------------------------------------------------------------------------------
-	    // 💡 2. busName (運行会社名) - インデックス 2 に修正
-	    // ----------------------------------------------------------------------------------
-	    bus.setBusName(record.get(2).trim()); // 以前は record.get(3) だった
-	    
-	    // ----------------------------------------------------------------------------------
-	    // 💡 3. busDestination (行き先) - インデックス 3 に修正 (NOT NULL 対応)
-	    // ----------------------------------------------------------------------------------
-	    String destinationStr = record.get(3).trim(); // 以前は record.get(2) だった
-	    if (destinationStr.isEmpty()) {
-	        throw new IllegalArgumentException("行き先 (busDestination) は必須項目です。"); 
-	    }
-	    bus.setBusDestination(destinationStr);
-	    
-	    // ----------------------------------------------------------------------------------
-	    // 💡 4. scheduled_dep_time (DATETIME) - インデックス 4 と仮定 (定刻出発時間)
-	    // ----------------------------------------------------------------------------------
-	    String scheduledTimeStr = record.get(4).trim();
-	    if (!scheduledTimeStr.isEmpty()) {
-	        bus.setScheduledDepTime(LocalDateTime.parse(scheduledTimeStr, DATETIME_FORMATTER));
-	    } else {
-	         throw new IllegalArgumentException("定刻出発時間 (scheduled_dep_time) は必須項目です。");
-	    }
-
-	    // ----------------------------------------------------------------------------------
-	    // 💡 5. familyNames - インデックス 5
-	    // ----------------------------------------------------------------------------------
-	    bus.setFamilyNames(record.get(5).trim());
-
-	    // ----------------------------------------------------------------------------------
-	    // 💡 6. managerName - インデックス 6
-	    // ----------------------------------------------------------------------------------
-	    bus.setManagerName(record.get(6).trim());
-
-	    // ----------------------------------------------------------------------------------
-	    // 💡 7. passengers (乗車人数) - インデックス 7 と仮定 (空欄・"名" 修正済み)
-	    // ----------------------------------------------------------------------------------
-	    String passengersStr = record.get(7).trim();
-
-	    if (passengersStr.isEmpty()) {
-	        bus.setPassengers((short) 0); // 空欄の場合は 0名 として続行
-	    } else {
-	        String cleanPassengersStr = passengersStr.replace("名", "").trim();
-	        
-	        if (cleanPassengersStr.isEmpty()) {
-	            bus.setPassengers((short) 0);
-	        } else {
-	            bus.setPassengers(Short.parseShort(cleanPassengersStr)); 
-	        }
-	    }
-	    // ----------------------------------------------------------------------------------
-	    
-	    // 💡 8. busSituations (外部キー) - CSVにIDが存在しないためデフォルト値を設定
-	    final String DEFAULT_STATUS_NAME = "到着前"; 
-	    Optional<BusSituation> defaultStatusOpt = busSituationRepository.findByName(DEFAULT_STATUS_NAME); 
-	    
-	    if (defaultStatusOpt.isPresent()) {
-	        bus.setBusSituation(defaultStatusOpt.get()); 
-	    } else {
-	        throw new RuntimeException("必須項目であるバス状況IDのデフォルト値 ('" + DEFAULT_STATUS_NAME + "') がDBに存在しません。マスタを確認してください。");
-	    }
-
-	    // 💡 9. remarksColumn - インデックス 11 と仮定
-	    // CSVレコードの長さは少なくとも12（インデックス 11 まで）必要
-	    if (record.size() > 11) {
-	        bus.setRemarksColumn(record.get(11).trim());
-	    }
-	    
-	    // emptybus_dep_time, departure_time はCSVにないためNULL/DEFAULTのまま
-
-	    return bus;
+	/**
+	 * 送迎バス予約CSVの列定義。バス状況は常に '到着前' とする。
+	 * (emptybus_dep_time, departure_time はCSVにないためNULLのまま)
+	 */
+	private CsvColumnPlan<ShuttleBusReservation> busColumnPlan() {
+	    return CsvColumnPlan.builder(ShuttleBusReservation::new, 12)
+	        .column("予約日時", 1, (row, value, column, name) ->
+	                row.setVisitReservationTime(parseDateTime(required(value, column, name), column, name)), "参列者到着予定日時")
+	        .column("バス会社名", 2, (row, value, column, name) -> row.setBusName(value), "運行バス会社名（定員）", "運行バス会社名")
+	        // 行き先は NOT NULL
+	        .column("行き先", 3, (row, value, column, name) -> row.setBusDestination(required(value, column, name)), "発着終着場所")
+	        .column("定刻出発時間", 4, (row, value, column, name) ->
+	                row.setScheduledDepTime(parseDateTime(required(value, column, name), column, name)), "参列者出発予定時刻")
+	        .column("手配両家名", 5, (row, value, column, name) -> row.setFamilyNames(value), "参列家名")
+	        .column("担当", 6, (row, value, column, name) -> row.setManagerName(value), "担当者")
+	        // 乗車人数は "3名" のような表記も可 (空欄の場合は 0名)
+	        .column("乗車人数", 7, (row, value, column, name) -> row.setPassengers(parsePassengers(value, column, name)), "乗車数")
+	        .optionalColumn("備考欄", 11, (row, value, column, name) -> row.setRemarksColumn(value), "備考")
+	        .finish(row -> {
+	            final String DEFAULT_STATUS_NAME = "到着前";
+	            row.setBusSituation(masterData.findBusSituationByName(DEFAULT_STATUS_NAME)
+	                .orElseThrow(() -> new RuntimeException("必須項目であるバス状況IDのデフォルト値 ('" + DEFAULT_STATUS_NAME
+	                    + "') がDBに存在しません。マスタを確認してください。")));
+	        })
+	        .build();
 	}
 
-	private void saveAllBuses(List<ShuttleBusReservation> newBuses) {
-	    for (ShuttleBusReservation newBus : newBuses) { 
-	        
-	        Optional<ShuttleBusReservation> existingOpt = shuttlebusReservationRepository
-	            .findByBusNameAndVisitReservationTime(
-	                newBus.getBusName(), 
-	                newBus.getVisitReservationTime());
-
-	        if (existingOpt.isPresent()) {
-	            // UPDATE処理
-	            ShuttleBusReservation existing = existingOpt.get(); 
-	            
-	            existing.setBusDestination(newBus.getBusDestination());
-	            existing.setEmptybusDepTime(newBus.getEmptybusDepTime());
-	            existing.setScheduledDepTime(newBus.getScheduledDepTime());
-	            existing.setDepartureTime(newBus.getDepartureTime());
-	            existing.setFamilyNames(newBus.getFamilyNames());
-	            existing.setManagerName(newBus.getManagerName());
-	            existing.setPassengers(newBus.getPassengers());
-	            existing.setBusSituation(newBus.getBusSituation()); // 💡 復活
-	            existing.setRemarksColumn(newBus.getRemarksColumn());
-	            
-	            shuttlebusReservationRepository.save(existing);
-	        } else {
-	            // INSERT処理
-	            shuttlebusReservationRepository.save(newBus);
-	        }
-	    }
+	/**
+	 * 1チャンク分の送迎バス予約を、自然キー (バス会社名 + 予約日時) で一括UPSERTする。
+	 */
+	private ImportResult saveAllBuses(List<ShuttleBusReservation> newBuses, NaturalKeyIndex keyIndex,
+	                                  ImportChangeSet changes) {
+	    return bulkUpsertRepository.upsertBuses(newBuses, keyIndex, changes);
 	}
-}
\ No newline at end of file
+}
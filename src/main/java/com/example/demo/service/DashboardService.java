@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.BusListItem;
+import com.example.demo.dto.DashboardPage;
+import com.example.demo.dto.ParkingListItem;
+import com.example.demo.dto.VisitorListItem;
+import com.example.demo.repository.ParkingRepository;
+import com.example.demo.repository.ShuttleBusReservationRepository;
+import com.example.demo.repository.VisitorRepository;
+
+/**
+ * ダッシュボードに表示する運用日 (予約日時がその日の 0:00 〜 翌日 0:00) の予約一覧。
+ *
+ * 💡 全件取得 (findAll) ではなく、予約日時の範囲検索 + キーセットページング
+ *    (最終行の (予約日時, ID) より後を dashboard.page-size 件ずつ) で読み込むため、
+ *    1回の表示コストは過去の蓄積件数ではなく、その日の件数 (1ページ分) だけに依存する。
+ * 予約日時が未設定の駐車場予約 (予約日時が NULL になり得るのは駐車場予約のみ) は、どの運用日にも属さないため、
+ * 運用日によらず「予約日時未定」欄に ID の順で表示する ({@link #findUnscheduledParkings})。
+ * 一覧API (list*) は表示する列のみの DTO をその日の全件分返す (エンティティは読み込まない)。
+ * 💡 運用日が今日の場合は、DBではなく当日の読み取りモデル ({@link TodayReadModel}) から返す。
+ *    DBを使用するのは今日以外の日付のみ (各リポジトリのクエリが読み取り専用トランザクションで実行される)。
+ */
+@Service
+public class DashboardService {
+
+    // カーソル = 最終行の予約日時 (yyyyMMddHHmmss) + "-" + ID
+    private static final DateTimeFormatter CURSOR_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final ParkingRepository parkingRepository;
+    private final VisitorRepository visitorRepository;
+    private final ShuttleBusReservationRepository shuttleBusReservationRepository;
+    private final TodayReadModel todayReadModel;
+    private final int pageSize;
+
+    @Autowired
+    public DashboardService(ParkingRepository parkingRepository,
+                            VisitorRepository visitorRepository,
+                            ShuttleBusReservationRepository shuttleBusReservationRepository,
+                            TodayReadModel todayReadModel,
+                            @Value("${dashboard.page-size:200}") int pageSize) {
+        this.parkingRepository = parkingRepository;
+        this.visitorRepository = visitorRepository;
+        this.shuttleBusReservationRepository = shuttleBusReservationRepository;
+        this.todayReadModel = todayReadModel;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * @param date 運用日
+     * @param after 前のページの nextCursor (先頭ページの場合は null)
+     * @throws IllegalArgumentException カーソルの形式が不正な場合
+     */
+    public DashboardPage<ParkingListItem> findParkings(LocalDate date, String after) {
+        return page(date, after, todayReadModel.findParkings(date), parkingRepository::findDayPage,
+                    ParkingListItem::getVisitReservationTime, ParkingListItem::getId);
+    }
+
+    public DashboardPage<VisitorListItem> findVisitors(LocalDate date, String after) {
+        return page(date, after, todayReadModel.findVisitors(date), visitorRepository::findDayPage,
+                    VisitorListItem::getVisitReservationTime, VisitorListItem::getId);
+    }
+
+    public DashboardPage<BusListItem> findBusReservations(LocalDate date, String after) {
+        return page(date, after, todayReadModel.findBusReservations(date),
+                    shuttleBusReservationRepository::findDayPage, BusListItem::getVisitReservationTime, BusListItem::getId);
+    }
+
+    /**
+     * 予約日時が未設定の駐車場予約 (運用日によらず、ID の順。DBから読み込む)。
+     * @param after 前のページの nextCursor (最終行の ID。先頭ページの場合は null)
+     * @throws IllegalArgumentException カーソルの形式が不正な場合
+     */
+    public DashboardPage<ParkingListItem> findUnscheduledParkings(String after) {
+        int afterId = 0;
+        if (after != null && !after.isBlank()) {
+            try {
+                afterId = Integer.parseInt(after);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("カーソルの形式が不正です: " + after, e);
+            }
+        }
+        // 次のページの有無を判定するため、1件多く読み込む
+        List<ParkingListItem> rows = parkingRepository.findUnscheduledPage(afterId, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new DashboardPage<>(rows, null);
+        }
+        List<ParkingListItem> items = rows.subList(0, pageSize);
+        return new DashboardPage<>(items, String.valueOf(items.get(pageSize - 1).getId()));
+    }
+
+    /**
+     * 一覧API用: 運用日の駐車場予約 (表示する列のみ、全件)。
+     */
+    public List<ParkingListItem> listParkings(LocalDate date) {
+        return todayReadModel.findParkings(date).map(TodayReadModel.Table::list)
+            .orElseGet(() -> parkingRepository.findDayList(date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+    }
+
+    public List<VisitorListItem> listVisitors(LocalDate date) {
+        return todayReadModel.findVisitors(date).map(TodayReadModel.Table::list)
+            .orElseGet(() -> visitorRepository.findDayList(date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
+    }
+
+    public List<BusListItem> listBusReservations(LocalDate date) {
+        return todayReadModel.findBusReservations(date).map(TodayReadModel.Table::list)
+            .orElseGet(() -> shuttleBusReservationRepository.findDayList(date.atStartOfDay(),
+                                                                        date.plusDays(1).atStartOfDay()));
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内部処理 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * 各リポジトリの findDayPage。
+     */
+    @FunctionalInterface
+    private interface DayPageQuery<T> {
+        List<T> find(LocalDateTime from, LocalDateTime to, LocalDateTime afterTime, Integer afterId, Pageable pageable);
+    }
+
+    /**
+     * @param today 当日の読み取りモデルの一覧 (date が今日でない場合は空で、DBから読み込む)
+     */
+    private <T> DashboardPage<T> page(LocalDate date, String after, Optional<TodayReadModel.Table<T>> today,
+                                      DayPageQuery<T> query, Function<T, LocalDateTime> time,
+                                      Function<T, Integer> id) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+
+        LocalDateTime afterTime = from;
+        int afterId = 0;
+        if (after != null && !after.isBlank()) {
+            int separator = after.indexOf('-');
+            try {
+                afterTime = LocalDateTime.parse(after.substring(0, separator), CURSOR_FORMATTER);
+                afterId = Integer.parseInt(after.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException | StringIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("カーソルの形式が不正です: " + after, e);
+            }
+        }
+
+        // 次のページの有無を判定するため、1件多く読み込む
+        LocalDateTime cursorTime = afterTime;
+        int cursorId = afterId;
+        List<T> rows = today.map(table -> table.page(cursorTime, cursorId, pageSize + 1))
+            .orElseGet(() -> query.find(from, to, cursorTime, cursorId, PageRequest.of(0, pageSize + 1)));
+        if (rows.size() <= pageSize) {
+            return new DashboardPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        T last = items.get(pageSize - 1);
+        return new DashboardPage<>(items, time.apply(last).format(CURSOR_FORMATTER) + "-" + id.apply(last));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+/**
+ * CSVファイル内で同じ自然キー (氏名/バス会社名 + 予約日時) の行が複数ある場合の扱い。
+ * 重複はDBへの書き込み前 (先読みの段階) に検出し、採用しない行はDBに送らない。
+ */
+public enum DuplicatePolicy {
+
+    /** 後の行を採用する (従来の「後から保存した行で上書き」と同じ結果) */
+    LAST_WINS("後勝ち"),
+
+    /** 最初の行を採用する */
+    FIRST_WINS("先勝ち"),
+
+    /** 重複があればファイル全体を取り込まない */
+    REJECT("重複不可");
+
+    private final String label;
+
+    DuplicatePolicy(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * エラー行を除いて取り込むモードで、不正な行を記録するCSVファイル。
+ * 行番号・列・項目名・理由・元の行の内容を1行ずつファイルへ書き出すため、エラー件数が多くてもメモリを消費しない。
+ * 
+ * 💡 Excelで文字化けせずに開けるよう、UTF-8 (BOM付き) で出力する。
+ * 書き込みは取り込みの書き込みスレッドからのみ行う (スレッドセーフではない)。
+ */
+public class ImportErrorReport implements Closeable {
+
+    private static final String[] HEADER = { "行番号", "列", "項目", "理由", "元データ" };
+
+    private final Path path;
+    private final CSVPrinter printer;
+    private int count;
+
+    public ImportErrorReport(Path path) throws IOException {
+        this.path = path;
+        BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        writer.write('\uFEFF');
+        this.printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(HEADER).build());
+    }
+
+    /**
+     * 不正な行を1件記録する。
+     * @param record 元のCSVレコード
+     * @param error 行の不正内容
+     */
+    public void add(CSVRecord record, CsvRowException error) {
+        try {
+            printer.printRecord(
+                record.getRecordNumber(),
+                error.getColumn() < 0 ? "" : error.getColumn() + 1,
+                error.getColumnName() != null ? error.getColumnName() : "",
+                error.getMessage(),
+                String.join(",", record.toList()));
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("エラーレポートの書き込みに失敗しました", e);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close(true);
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+
+import com.example.demo.dto.ImportJob;
+import com.example.demo.dto.ImportResult;
+
+/**
+ * CSVインポートをバックグラウンドジョブとして実行するサービス。
+ * 
+ * アップロードされたファイルは一時ファイルへ退避してから仮想スレッドで取り込むため、
+ * リクエストスレッドはファイルの保存が終わった時点で解放される。
+ * 💡 同じ種類 (駐車場/来館者/バス) のインポートは同時に1件まで。
+ *    実行中の種類は1件、全体でも最大3件しか同時に動かない。
+ */
+@Service
+public class ImportJobService {
+
+    // 進捗通知の送信先
+    public static final String PROGRESS_TOPIC = "/topic/import-progress";
+
+    // 状況APIで参照できるジョブの保持件数 (古いものから破棄)
+    private static final int MAX_RETAINED_JOBS = 50;
+
+    private final CsvService csvService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // entityType → 実行中のジョブ
+    private final Map<String, ImportJob> runningJobs = new ConcurrentHashMap<>();
+
+    // jobId → エラーレポートのファイル (エラー行を除いて取り込んだジョブのみ)
+    private final Map<String, Path> errorReports = new ConcurrentHashMap<>();
+
+    // jobId → ジョブ (実行中・終了済みの両方)
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+            boolean remove = size() > MAX_RETAINED_JOBS && eldest.getValue().isFinished();
+            if (remove) {
+                deleteErrorReport(eldest.getKey());
+            }
+            return remove;
+        }
+    });
+
+    @Autowired
+    public ImportJobService(CsvService csvService, SimpMessagingTemplate messagingTemplate) {
+        this.csvService = csvService;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // ----------------------------------------------------------------------
+    // --- ジョブの登録 ---
+    // ----------------------------------------------------------------------
+
+    public ImportJob submitParkingImport(MultipartFile file, boolean tolerant, boolean lowPriority) throws IOException {
+        return submit("parking", "駐車場予約", file, tolerant, lowPriority, csvService::importParkingData);
+    }
+
+    public ImportJob submitVisitImport(MultipartFile file, boolean tolerant, boolean lowPriority) throws IOException {
+        return submit("visitor", "来館者予約", file, tolerant, lowPriority, csvService::importVisitData);
+    }
+
+    public ImportJob submitBusImport(MultipartFile file, boolean tolerant, boolean lowPriority) throws IOException {
+        return submit("bus", "送迎バス", file, tolerant, lowPriority, csvService::importBusData);
+    }
+
+    /**
+     * ジョブを登録して実行を開始する。
+     * @param tolerant true の場合、不正な行をエラーレポートに記録して残りの行を取り込む
+     * @param lowPriority true の場合、営業中モード (ダッシュボードの更新を優先して少しずつ取り込む)
+     * @throws IllegalStateException 同じ種類のインポートが実行中の場合、または未対応のファイル形式の場合
+     */
+    private ImportJob submit(String entityType, String label, MultipartFile file, boolean tolerant, boolean lowPriority,
+                             CsvImporter importer) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), entityType, file.getOriginalFilename(), tolerant,
+                                      lowPriority);
+        if (hasExtension(job.getFileName(), ".xls")) {
+            throw new IllegalStateException("Excel 97-2003 形式 (.xls) には対応していません。.xlsx 形式で保存してからアップロードしてください。");
+        }
+
+        if (runningJobs.putIfAbsent(entityType, job) != null) {
+            throw new IllegalStateException(label + "CSVの取り込みが実行中です。完了してから再度アップロードしてください。");
+        }
+
+        Path tempFile;
+        try {
+            // リクエスト終了後はアップロードファイルが削除されるため、一時ファイルへ退避する
+            tempFile = Files.createTempFile("csv-import-", isXlsx(job) ? ".xlsx" : ".csv");
+            file.transferTo(tempFile);
+        } catch (IOException | RuntimeException e) {
+            runningJobs.remove(entityType, job);
+            throw e;
+        }
+
+        jobs.put(job.getJobId(), job);
+        publish(job);
+        try {
+            executor.execute(() -> run(job, label, tempFile, importer));
+        } catch (RuntimeException e) {
+            // 終了処理中などで実行できない場合は、ジョブを失敗として種類のロックと一時ファイルを解放する
+            runningJobs.remove(entityType, job);
+            deleteQuietly(tempFile);
+            job.fail("エラー: " + label + "CSVの取り込みを開始できませんでした。詳細: " + e.getMessage());
+            publish(job);
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(ImportJob job, String label, Path tempFile, CsvImporter importer) {
+        ImportOptions options = new ImportOptions();
+        options.setFileName(job.getFileName());
+        options.setTolerant(job.isTolerant());
+        options.setXlsx(isXlsx(job));
+        options.setLowPriority(job.isLowPriority());
+        options.setProgressListener((rowsRead, rowsWritten, rowsFailed) -> {
+            job.updateProgress(rowsRead, rowsWritten, rowsFailed);
+            publish(job);
+        });
+
+        ImportErrorReport errorReport = null;
+        try {
+            if (job.isTolerant()) {
+                errorReport = new ImportErrorReport(Files.createTempFile("csv-import-errors-", ".csv"));
+                options.setErrorReport(errorReport);
+            }
+
+            ImportResult result = importer.run(new FileSystemResource(tempFile), options);
+            job.complete(label + "CSVの取り込みに成功しました。（" + result.getSummary() + "）", result);
+        } catch (Exception e) {
+            e.printStackTrace();
+            job.fail("エラー: " + label + "CSVの処理に失敗しました。詳細: " + e.getMessage());
+        } finally {
+            closeErrorReport(job, errorReport);
+            runningJobs.remove(job.getEntityType(), job);
+            deleteQuietly(tempFile);
+            publish(job);
+        }
+    }
+
+    // Excel (.xlsx) のファイルはCSVに変換して取り込む (それ以外はCSVとして扱う)
+    private static boolean isXlsx(ImportJob job) {
+        return hasExtension(job.getFileName(), ".xlsx");
+    }
+
+    private static boolean hasExtension(String fileName, String extension) {
+        return fileName != null && fileName.toLowerCase().endsWith(extension);
+    }
+
+    // ----------------------------------------------------------------------
+    // --- ジョブの参照 ---
+    // ----------------------------------------------------------------------
+
+    public Optional<ImportJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * ジョブのエラーレポート (不正な行が1件以上あった場合のみ) を返す。
+     */
+    public Optional<Path> findErrorReport(String jobId) {
+        return Optional.ofNullable(errorReports.get(jobId));
+    }
+
+    // ----------------------------------------------------------------------
+    // --- エラーレポート ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * エラーレポートを閉じ、不正な行があった場合のみダウンロード対象として登録する。
+     */
+    private void closeErrorReport(ImportJob job, ImportErrorReport errorReport) {
+        if (errorReport == null) {
+            return;
+        }
+        try {
+            errorReport.close();
+        } catch (IOException e) {
+            System.err.println("エラーレポートのクローズに失敗しました: " + e.getMessage());
+        }
+        if (errorReport.getCount() > 0) {
+            errorReports.put(job.getJobId(), errorReport.getPath());
+            job.setErrorReportAvailable(true);
+        } else {
+            deleteQuietly(errorReport.getPath());
+        }
+    }
+
+    private void deleteErrorReport(String jobId) {
+        Path path = errorReports.remove(jobId);
+        if (path != null) {
+            deleteQuietly(path);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("一時ファイルの削除に失敗しました: " + path);
+        }
+    }
+
+    /**
+     * 保持しているジョブを新しい順に返す。
+     */
+    public List<ImportJob> findRecentJobs() {
+        List<ImportJob> recent;
+        synchronized (jobs) {
+            recent = new ArrayList<>(jobs.values());
+        }
+        Collections.reverse(recent);
+        return recent;
+    }
+
+    private void publish(ImportJob job) {
+        try {
+            messagingTemplate.convertAndSend(PROGRESS_TOPIC, job);
+        } catch (Exception e) {
+            // 通知の失敗で取り込み自体は止めない
+            System.err.println("インポート進捗の通知に失敗しました: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        errorReports.keySet().forEach(this::deleteErrorReport);
+    }
+
+    /**
+     * CsvService の種類ごとの取り込みメソッド。
+     */
+    @FunctionalInterface
+    private interface CsvImporter {
+        ImportResult run(InputStreamSource file, ImportOptions options) throws Exception;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+/**
+ * CSVインポート1回分の実行オプション。
+ * 既定値は「ファイル名なし・エラー行で中止・進捗通知なし」。
+ */
+public class ImportOptions {
+
+    // チェックポイントに記録するファイル名
+    private String fileName;
+
+    // true の場合、ファイルを Excel (.xlsx) として読み込む (先頭シートをCSVと同じ列構成として扱う)
+    private boolean xlsx;
+
+    // true の場合、不正な行をエラーレポートに記録して残りの行を取り込む
+    private boolean tolerant;
+
+    // true の場合、営業中モード (ダッシュボードの更新を優先し、小さなチャンクで少しずつ取り込む)
+    private boolean lowPriority;
+
+    // 不正な行の出力先 (tolerant の場合のみ使用。null の場合はログ出力のみ)
+    private ImportErrorReport errorReport;
+
+    // ファイル内で自然キーが重複している行の扱い (null の場合は csv.import.duplicate-policy)
+    private DuplicatePolicy duplicatePolicy;
+
+    private ImportProgressListener progressListener = ImportProgressListener.NONE;
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public boolean isXlsx() {
+        return xlsx;
+    }
+
+    public void setXlsx(boolean xlsx) {
+        this.xlsx = xlsx;
+    }
+
+    public boolean isTolerant() {
+        return tolerant;
+    }
+
+    public void setTolerant(boolean tolerant) {
+        this.tolerant = tolerant;
+    }
+
+    public boolean isLowPriority() {
+        return lowPriority;
+    }
+
+    public void setLowPriority(boolean lowPriority) {
+        this.lowPriority = lowPriority;
+    }
+
+    public ImportErrorReport getErrorReport() {
+        return errorReport;
+    }
+
+    public void setErrorReport(ImportErrorReport errorReport) {
+        this.errorReport = errorReport;
+    }
+
+    public DuplicatePolicy getDuplicatePolicy() {
+        return duplicatePolicy;
+    }
+
+    public void setDuplicatePolicy(DuplicatePolicy duplicatePolicy) {
+        this.duplicatePolicy = duplicatePolicy;
+    }
+
+    public ImportProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public void setProgressListener(ImportProgressListener progressListener) {
+        this.progressListener = progressListener != null ? progressListener : ImportProgressListener.NONE;
+    }
+}
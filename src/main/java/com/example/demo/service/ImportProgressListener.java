@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+/**
+ * CSVインポートの進捗を受け取るリスナー。
+ * CsvService がチャンクをコミットするたびに、取り込み開始からの累計件数で呼び出す。
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /** 進捗を通知しないリスナー (同期取り込み用) */
+    ImportProgressListener NONE = (rowsRead, rowsWritten, rowsFailed) -> { };
+
+    /**
+     * @param rowsRead 読み込んだレコード件数
+     * @param rowsWritten 処理したレコード件数 (新規・更新・変更なしの合計)
+     * @param rowsFailed 列数不足などでスキップしたレコード件数
+     */
+    void onChunkCommitted(int rowsRead, int rowsWritten, int rowsFailed);
+}
@@ -0,0 +1,92 @@
+package com.example.demo.service;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * 1回の取り込みのチャンクサイズとコミットの間隔を決める。
+ *
+ * - 通常モード: チャンクサイズは固定 (csv.import.chunk-size)、待ち合わせなし
+ * - 営業中モード: ダッシュボードの更新を優先して少しずつ取り込む
+ *   1. チャンクサイズを小さく始め、更新APIの応答時間が目標以内なら少しずつ増やし (加算)、
+ *      目標を超えたら半分に減らす (乗算)。チャンクが小さいほど1トランザクションの行ロック時間も短い。
+ *   2. 応答時間が目標を超えている間は、コミットの前に待機する (待機時間は倍々に延ばし、上限あり)。
+ *   3. 営業中モードの取り込みは専用の接続プール (ImportRoutingDataSource) を使用し、
+ *      そのプール内で同時に実行するチャンクのコミット数を制限する
+ *      (1コミットでチャンクのトランザクションとID採番の2接続を使うため、取り込み同士の接続の取り合いで止まらないように)。
+ *
+ * 取り込みの書き込みスレッドだけが使用する (スレッドセーフではない)。
+ */
+final class ImportThrottle {
+
+    private final UpdateLatencyMonitor latencyMonitor;
+    // 営業中モードの取り込み全体で共有するコミットの枠 (通常モードは null)
+    private final Semaphore commitSlots;
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final double targetLatencyMillis;
+    private final long maxBackoffMillis;
+
+    private int chunkSize;
+    private long backoffMillis;
+
+    private ImportThrottle(UpdateLatencyMonitor latencyMonitor, Semaphore commitSlots, int minChunkSize,
+                           int maxChunkSize, double targetLatencyMillis, long maxBackoffMillis) {
+        this.latencyMonitor = latencyMonitor;
+        this.commitSlots = commitSlots;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.chunkSize = minChunkSize;
+    }
+
+    static ImportThrottle fixed(int chunkSize) {
+        return new ImportThrottle(null, null, chunkSize, chunkSize, 0, 0);
+    }
+
+    static ImportThrottle lowPriority(UpdateLatencyMonitor latencyMonitor, Semaphore commitSlots,
+                                      int minChunkSize, int maxChunkSize, double targetLatencyMillis,
+                                      long maxBackoffMillis) {
+        int min = Math.max(1, Math.min(minChunkSize, maxChunkSize));
+        return new ImportThrottle(latencyMonitor, commitSlots, min, maxChunkSize, targetLatencyMillis,
+                                  maxBackoffMillis);
+    }
+
+    /**
+     * 次のチャンクの行数。
+     */
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * チャンクのコミット前に呼び出す。更新APIが遅い間は待機し、コミットの枠を確保する。
+     */
+    void beforeCommit() throws InterruptedException {
+        if (latencyMonitor == null) {
+            return;
+        }
+        if (latencyMonitor.getAverageMillis() > targetLatencyMillis) {
+            backoffMillis = backoffMillis == 0 ? Math.min(100, maxBackoffMillis) : Math.min(backoffMillis * 2, maxBackoffMillis);
+            Thread.sleep(backoffMillis);
+        } else {
+            backoffMillis = 0;
+        }
+        commitSlots.acquire();
+    }
+
+    /**
+     * チャンクのコミット後 (失敗時も) に呼び出す。コミットの枠を返し、次のチャンクサイズを決める。
+     */
+    void afterCommit() {
+        if (latencyMonitor == null) {
+            return;
+        }
+        commitSlots.release();
+        if (latencyMonitor.getAverageMillis() > targetLatencyMillis) {
+            chunkSize = Math.max(minChunkSize, chunkSize / 2);
+        } else {
+            chunkSize = Math.min(maxChunkSize, chunkSize + minChunkSize);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.MasterDataBootstrap;
+import com.example.demo.model.BusSituation;
+import com.example.demo.model.ParkingStatus;
+import com.example.demo.model.VisitSituation;
+import com.example.demo.repository.BusSituationRepository;
+import com.example.demo.repository.ParkingStatusRepository;
+import com.example.demo.repository.VisitSituationRepository;
+
+/**
+ * 駐車状況・来館状況・バス状況マスタのメモリ内レジストリ。
+ *
+ * 3つのマスタは数行しかなくほとんど変更されないため、起動時に全件を読み込み、
+ * ID・名称から O(1) で引けるスナップショットとして保持する。
+ * CSVインポート (名称 → マスタ) とダッシュボードからの更新 (ID → マスタ) の両方が使用し、参照ごとのDBクエリは発生しない。
+ *
+ * 💡 スナップショットは不変 (一覧・索引とも変更不可) で、{@link #refresh()} で丸ごと差し替える。
+ *    読み込み側はロックなしで参照できる。
+ * 💡 スナップショットごとに内容から計算したバージョン (ハッシュ値) を持つ。内容が同じなら再起動後も同じ値になるため、
+ *    一覧APIの ETag と、画面に埋め込む初期データ ({@link #getBootstrap()}) のバージョンとして使用する。
+ * 💡 マスタをDBで直接変更した場合は {@link #refresh()} (即時再読み込み) または
+ *    {@link #invalidate()} (次回参照時に再読み込み) を呼ぶ (POST /api/master-data/refresh)。
+ * 返すエンティティは永続化コンテキストに属さない (detached) ため、参照先として設定する用途のみに使い、変更しないこと。
+ */
+@Service
+public class MasterDataRegistry {
+
+    private final ParkingStatusRepository parkingStatusRepository;
+    private final VisitSituationRepository visitSituationRepository;
+    private final BusSituationRepository busSituationRepository;
+
+    // null の場合は次回参照時に読み込む
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public MasterDataRegistry(ParkingStatusRepository parkingStatusRepository,
+                              VisitSituationRepository visitSituationRepository,
+                              BusSituationRepository busSituationRepository) {
+        this.parkingStatusRepository = parkingStatusRepository;
+        this.visitSituationRepository = visitSituationRepository;
+        this.busSituationRepository = busSituationRepository;
+    }
+
+    /**
+     * 起動完了時に読み込んでおく (最初のリクエストで読み込みを待たせない)。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        refresh();
+    }
+
+    /**
+     * 3つのマスタをDBから読み込み直し、スナップショットを差し替える。
+     */
+    public synchronized void refresh() {
+        Snapshot loaded = new Snapshot(
+            new Table<>(parkingStatusRepository.findAll(), ParkingStatus::getStatusId, ParkingStatus::getStatusName),
+            new Table<>(visitSituationRepository.findAll(), VisitSituation::getSituationId, VisitSituation::getSituationName),
+            new Table<>(busSituationRepository.findAll(), BusSituation::getId, BusSituation::getName));
+        snapshot = loaded;
+        System.out.printf("マスタを読み込みました: 駐車状況 %d件 / 来館状況 %d件 / バス状況 %d件 (バージョン %s)%n",
+                          loaded.parkingStatuses.list.size(), loaded.visitSituations.list.size(),
+                          loaded.busSituations.list.size(), loaded.version);
+    }
+
+    /**
+     * スナップショットを破棄する (次回参照時に読み込み直す)。
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * 現在のスナップショットのバージョン (内容のハッシュ値)。
+     */
+    public String getVersion() {
+        return current().version;
+    }
+
+    /**
+     * 画面に埋め込む、3つのマスタとバージョンをまとめた初期データ。
+     */
+    public MasterDataBootstrap getBootstrap() {
+        return current().bootstrap;
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 駐車状況 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return ID の昇順
+     */
+    public List<ParkingStatus> getParkingStatuses() {
+        return current().parkingStatuses.list;
+    }
+
+    public Optional<ParkingStatus> findParkingStatus(Integer id) {
+        return current().parkingStatuses.byId(id);
+    }
+
+    public Optional<ParkingStatus> findParkingStatusByName(String name) {
+        return current().parkingStatuses.byName(name);
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 来館状況 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return ID の昇順
+     */
+    public List<VisitSituation> getVisitSituations() {
+        return current().visitSituations.list;
+    }
+
+    public Optional<VisitSituation> findVisitSituation(Integer id) {
+        return current().visitSituations.byId(id);
+    }
+
+    public Optional<VisitSituation> findVisitSituationByName(String name) {
+        return current().visitSituations.byName(name);
+    }
+
+    // ----------------------------------------------------------------------
+    // --- バス状況 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return ID の昇順
+     */
+    public List<BusSituation> getBusSituations() {
+        return current().busSituations.list;
+    }
+
+    public Optional<BusSituation> findBusSituation(Integer id) {
+        return current().busSituations.byId(id);
+    }
+
+    public Optional<BusSituation> findBusSituationByName(String name) {
+        return current().busSituations.byName(name);
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内部処理 ---
+    // ----------------------------------------------------------------------
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * ある時点の3つのマスタ。
+     */
+    private static final class Snapshot {
+        private final Table<ParkingStatus> parkingStatuses;
+        private final Table<VisitSituation> visitSituations;
+        private final Table<BusSituation> busSituations;
+        private final String version;
+        private final MasterDataBootstrap bootstrap;
+
+        Snapshot(Table<ParkingStatus> parkingStatuses, Table<VisitSituation> visitSituations,
+                 Table<BusSituation> busSituations) {
+            this.parkingStatuses = parkingStatuses;
+            this.visitSituations = visitSituations;
+            this.busSituations = busSituations;
+            this.version = hash("parking", parkingStatuses, "visitor", visitSituations, "bus", busSituations);
+            this.bootstrap = new MasterDataBootstrap(version, parkingStatuses.list, visitSituations.list,
+                                                     busSituations.list);
+        }
+
+        /**
+         * 各マスタの (ID, 名称) を並べた文字列の SHA-256 (先頭16桁)。
+         */
+        private static String hash(Object... sections) {
+            StringBuilder text = new StringBuilder();
+            for (Object section : sections) {
+                if (section instanceof Table<?> table) {
+                    table.appendTo(text);
+                } else {
+                    text.append('[').append(section).append("]\n");
+                }
+            }
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.toString().getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(digest, 0, 8);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 1つのマスタの一覧 (ID順) と、ID・名称の索引。
+     */
+    private static final class Table<T> {
+        private final List<T> list;
+        private final Map<Integer, T> ids;
+        private final Map<String, T> names;
+        private final Function<T, Integer> id;
+        private final Function<T, String> name;
+
+        Table(List<T> rows, Function<T, Integer> id, Function<T, String> name) {
+            this.id = id;
+            this.name = name;
+            this.list = rows.stream()
+                .sorted(Comparator.comparing(id, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+            Map<Integer, T> ids = new HashMap<>();
+            Map<String, T> names = new HashMap<>();
+            for (T row : list) {
+                if (id.apply(row) != null) {
+                    ids.put(id.apply(row), row);
+                }
+                if (name.apply(row) != null) {
+                    names.putIfAbsent(name.apply(row), row);
+                }
+            }
+            this.ids = Map.copyOf(ids);
+            this.names = Map.copyOf(names);
+        }
+
+        Optional<T> byId(Integer id) {
+            return id == null ? Optional.empty() : Optional.ofNullable(ids.get(id));
+        }
+
+        Optional<T> byName(String name) {
+            return name == null ? Optional.empty() : Optional.ofNullable(names.get(name));
+        }
+
+        void appendTo(StringBuilder text) {
+            for (T row : list) {
+                text.append(id.apply(row)).append('\t').append(name.apply(row)).append('\n');
+            }
+        }
+    }
+}
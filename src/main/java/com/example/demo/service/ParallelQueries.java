@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 1つの画面表示に必要な、互いに独立した複数の読み込み (一覧のクエリなど) を仮想スレッドで同時に実行する。
+ *
+ * 画面の表示時間は各クエリの合計ではなく、最も遅いクエリの時間で決まる。
+ * 💡 {@link Batch} の範囲内で全てのクエリが終了する (1つが失敗した場合は残りを取り消し、その例外を投げる)。
+ *    Java 21 の StructuredTaskScope はプレビュー機能のため、同じ使い方を ExecutorService で実現している。
+ * 💡 各クエリはリクエストのスレッドとは別のスレッドで実行されるため、リクエストの永続化コンテキスト (open-in-view) を使用しない。
+ *    読み込みはそれぞれのリポジトリの読み取り専用トランザクションで行い、返すエンティティは関連を結合して読み込んだもののみとすること。
+ * 💡 クエリごとの所要時間を Server-Timing ヘッダーの形式で返す ({@link Batch#serverTiming()})。
+ */
+@Service
+public class ParallelQueries {
+
+    // クエリごとの所要時間を返すレスポンスヘッダー
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("parallel-query-", 0).factory());
+
+    /**
+     * 新しい読み込みのまとまりを開始する。
+     */
+    public Batch start() {
+        return new Batch(executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 同時に実行する読み込みのまとまり。submit で投入し、join で全ての終了を待つ。1つのリクエスト内でのみ使用する。
+     */
+    public static final class Batch {
+
+        private final ExecutorService executor;
+        private final long startedAt = System.nanoTime();
+        private final List<Query<?>> queries = new ArrayList<>();
+        private long totalNanos = -1;
+
+        private Batch(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * @param name Server-Timing に表示する名前 (英数字)
+         * @return join の後に結果を取得するための参照
+         */
+        public <T> Query<T> submit(String name, Supplier<T> query) {
+            Query<T> submitted = new Query<>(name);
+            submitted.future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return query.get();
+                } finally {
+                    submitted.nanos = System.nanoTime() - start;
+                }
+            });
+            queries.add(submitted);
+            return submitted;
+        }
+
+        /**
+         * 投入した全ての読み込みの終了を待つ。
+         * @throws RuntimeException いずれかの読み込みが失敗した場合 (その例外。残りの読み込みは取り消す)
+         */
+        public void join() {
+            try {
+                for (Query<?> query : queries) {
+                    query.await();
+                }
+            } catch (ExecutionException e) {
+                cancelAll();
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("並列の読み込みに失敗しました: " + e.getCause(), e.getCause());
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("並列の読み込みが中断されました", e);
+            } finally {
+                totalNanos = System.nanoTime() - startedAt;
+            }
+        }
+
+        /**
+         * 各読み込みと全体 (total) の所要時間 (ミリ秒)。例: "parkings;dur=12.3, visits;dur=8.1, total;dur=12.9"
+         */
+        public String serverTiming() {
+            String each = queries.stream()
+                .filter(query -> query.nanos >= 0)
+                .map(query -> timing(query.name, query.nanos))
+                .collect(Collectors.joining(", "));
+            String total = timing("total", totalNanos >= 0 ? totalNanos : System.nanoTime() - startedAt);
+            return each.isEmpty() ? total : each + ", " + total;
+        }
+
+        private void cancelAll() {
+            queries.forEach(query -> query.future.cancel(true));
+        }
+
+        private static String timing(String name, long nanos) {
+            return String.format(Locale.ROOT, "%s;dur=%.1f", name, nanos / 1_000_000.0);
+        }
+    }
+
+    /**
+     * 投入した1件の読み込み。
+     */
+    public static final class Query<T> {
+
+        private final String name;
+        private Future<T> future;
+        private T result;
+        private volatile long nanos = -1;
+
+        private Query(String name) {
+            this.name = name;
+        }
+
+        private void await() throws InterruptedException, ExecutionException {
+            result = future.get();
+        }
+
+        /**
+         * @return 読み込み結果 ({@link Batch#join()} の後にのみ呼ぶ)
+         */
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("join() の前に結果は取得できません: " + name);
+            }
+            return result;
+        }
+    }
+}
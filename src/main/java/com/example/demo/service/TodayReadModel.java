@@ -0,0 +1,385 @@
+package com.example.demo.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.BusListItem;
+import com.example.demo.dto.ImportChangeSet;
+import com.example.demo.dto.ParkingListItem;
+import com.example.demo.dto.ReadModelCheck;
+import com.example.demo.dto.VisitorListItem;
+import com.example.demo.repository.ParkingRepository;
+import com.example.demo.repository.ShuttleBusReservationRepository;
+import com.example.demo.repository.VisitorRepository;
+
+/**
+ * 当日 (運用日 = 今日) の駐車場予約・来館者予約・送迎バス予約のメモリ内の読み取りモデル。
+ *
+ * 当日のボードは数千行程度で、ダッシュボードの参照のほとんどが「今日」のため、
+ * 起動時に今日の3つの一覧 (表示する列のみの DTO) を読み込み、ダッシュボードと一覧APIの当日分はメモリから返す。
+ *
+ * 💡 更新はコミット後に反映する: 画面からの更新 (各 *ApiController) とCSVインポート ({@link CsvService}) が
+ *    変更したIDを通知し、そのIDの行だけをDBから読み直して差し替える (IDが省略された取り込みは1種類分を全件読み直す)。
+ *    読み直すため、通知の順序が前後しても最終的にDBと同じ内容になる。
+ * 💡 一覧は不変 (ID → 行の索引と、(予約日時, ID) 順の一覧) で、変更のたびに丸ごと差し替える。
+ *    読み込み側はロックなしで参照できる (書き込みは synchronized で1件ずつ)。
+ * 💡 日付が変わった後の最初の参照で、新しい日の分を読み込み直す。
+ * DBを直接変更した場合は {@link #reload()} (POST /api/read-model/reload) を呼ぶ。
+ * 内容がDBと一致しているかは {@link #check()} (GET /api/read-model/check) で確認できる。
+ */
+@Service
+public class TodayReadModel {
+
+    // コミット後の読み直しは、終了したトランザクションに参加しないよう新しい読み取り専用トランザクションで行う
+    private final TransactionTemplate readOnlyNew;
+
+    private final Source<ParkingListItem> parkings;
+    private final Source<VisitorListItem> visitors;
+    private final Source<BusListItem> buses;
+
+    // null の場合は次回参照時に読み込む
+    private volatile Board board;
+
+    @Autowired
+    public TodayReadModel(ParkingRepository parkingRepository,
+                          VisitorRepository visitorRepository,
+                          ShuttleBusReservationRepository shuttleBusReservationRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.readOnlyNew = new TransactionTemplate(transactionManager);
+        this.readOnlyNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyNew.setReadOnly(true);
+
+        this.parkings = new Source<>("parking", parkingRepository::findDayList, parkingRepository::findListItems,
+            ParkingListItem::getId, ParkingListItem::getVisitReservationTime,
+            board -> board.parkings, (board, table) -> new Board(board.date, table, board.visitors, board.buses));
+        this.visitors = new Source<>("visitor", visitorRepository::findDayList, visitorRepository::findListItems,
+            VisitorListItem::getId, VisitorListItem::getVisitReservationTime,
+            board -> board.visitors, (board, table) -> new Board(board.date, board.parkings, table, board.buses));
+        this.buses = new Source<>("bus", shuttleBusReservationRepository::findDayList,
+            shuttleBusReservationRepository::findListItems,
+            BusListItem::getId, BusListItem::getVisitReservationTime,
+            board -> board.buses, (board, table) -> new Board(board.date, board.parkings, board.visitors, table));
+    }
+
+    /**
+     * 起動完了時に今日の分を読み込んでおく (最初のリクエストで読み込みを待たせない)。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+    }
+
+    /**
+     * 今日の3つの一覧をDBから読み込み直す。
+     */
+    public synchronized void reload() {
+        LocalDate today = LocalDate.now();
+        Board loaded = readOnlyNew.execute(status -> new Board(today,
+            parkings.load(today), visitors.load(today), buses.load(today)));
+        board = loaded;
+        System.out.printf("当日の読み取りモデルを読み込みました (%s): 駐車場 %d件 / 来館者 %d件 / バス %d件%n",
+                          today, loaded.parkings.list.size(), loaded.visitors.list.size(), loaded.buses.list.size());
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 参照 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return date が今日の場合は今日の駐車場予約、それ以外は空 (DBから読み込む)
+     */
+    public Optional<Table<ParkingListItem>> findParkings(LocalDate date) {
+        return find(date, parkings);
+    }
+
+    public Optional<Table<VisitorListItem>> findVisitors(LocalDate date) {
+        return find(date, visitors);
+    }
+
+    public Optional<Table<BusListItem>> findBusReservations(LocalDate date) {
+        return find(date, buses);
+    }
+
+    /**
+     * メモリ上の今日の一覧と、DBから読み込んだ今日の一覧を比較する。
+     */
+    public List<ReadModelCheck> check() {
+        Board current = current();
+        return readOnlyNew.execute(status -> List.of(
+            parkings.check(current), visitors.check(current), buses.check(current)));
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 変更の反映 (コミット後) ---
+    // ----------------------------------------------------------------------
+
+    public void parkingChanged(int id) {
+        afterCommit(() -> refresh(parkings, List.of(id)));
+    }
+
+    public void visitorChanged(int id) {
+        afterCommit(() -> refresh(visitors, List.of(id)));
+    }
+
+    public void busReservationChanged(int id) {
+        afterCommit(() -> refresh(buses, List.of(id)));
+    }
+
+    /**
+     * CSVインポートで変更された行を反映する。
+     * @param entityType parking / visitor / bus
+     * @param changes コミット済みの変更 (IDが省略されている場合は1種類分を全件読み直す)
+     */
+    public void importChanged(String entityType, ImportChangeSet changes) {
+        Source<?> source = switch (entityType) {
+            case "parking" -> parkings;
+            case "visitor" -> visitors;
+            case "bus" -> buses;
+            default -> throw new IllegalArgumentException("無効なエンティティタイプです: " + entityType);
+        };
+        if (!changes.isComplete()) {
+            afterCommit(() -> reload(source));
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(changes.getInsertedCount() + changes.getUpdatedCount());
+        for (int id : changes.getInsertedIds()) {
+            ids.add(id);
+        }
+        for (int id : changes.getUpdatedIds()) {
+            ids.add(id);
+        }
+        if (!ids.isEmpty()) {
+            afterCommit(() -> refresh(source, ids));
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 内部処理 ---
+    // ----------------------------------------------------------------------
+
+    private <T> Optional<Table<T>> find(LocalDate date, Source<T> source) {
+        Board current = current();
+        return current.date.equals(date) ? Optional.of(source.get.apply(current)) : Optional.empty();
+    }
+
+    private Board current() {
+        Board current = board;
+        if (current == null || !current.date.equals(LocalDate.now())) {
+            synchronized (this) {
+                if (board == null || !board.date.equals(LocalDate.now())) {
+                    reload();
+                }
+                current = board;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * トランザクション中であればコミット後に、そうでなければすぐに実行する (ロールバックされた変更は反映しない)。
+     */
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runSafely(task);
+                }
+            });
+        } else {
+            runSafely(task);
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // 反映の失敗で更新処理をエラーにしない (次回の reload / 日付の切り替えで回復する)
+            System.err.println("当日の読み取りモデルへの反映に失敗しました: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 指定したIDの行をDBから読み直し、今日の分であれば差し替え、そうでなければ (削除・日付変更) 取り除く。
+     */
+    private synchronized <T> void refresh(Source<T> source, Collection<Integer> ids) {
+        Board current = board;
+        if (current == null || !current.date.equals(LocalDate.now())) {
+            // 次回参照時に今日の分を全件読み込むため、差分の反映は不要
+            return;
+        }
+        List<T> rows = readOnlyNew.execute(status -> source.byIds.apply(ids));
+        board = source.replace.apply(current, source.get.apply(current).with(ids, rows));
+    }
+
+    private synchronized <T> void reload(Source<T> source) {
+        Board current = board;
+        if (current == null || !current.date.equals(LocalDate.now())) {
+            return;
+        }
+        Table<T> table = readOnlyNew.execute(status -> source.load(current.date));
+        board = source.replace.apply(current, table);
+    }
+
+    /**
+     * ある日の3つの一覧。
+     */
+    private static final class Board {
+        private final LocalDate date;
+        private final Table<ParkingListItem> parkings;
+        private final Table<VisitorListItem> visitors;
+        private final Table<BusListItem> buses;
+
+        Board(LocalDate date, Table<ParkingListItem> parkings, Table<VisitorListItem> visitors,
+              Table<BusListItem> buses) {
+            this.date = date;
+            this.parkings = parkings;
+            this.visitors = visitors;
+            this.buses = buses;
+        }
+    }
+
+    /**
+     * 1種類の予約の読み込み方法と、ボード上の位置。
+     */
+    private static final class Source<T> {
+        private final String entityType;
+        private final BiFunction<LocalDateTime, LocalDateTime, List<T>> day;
+        private final Function<Collection<Integer>, List<T>> byIds;
+        private final Function<T, Integer> id;
+        private final Function<T, LocalDateTime> time;
+        private final Function<Board, Table<T>> get;
+        private final BiFunction<Board, Table<T>, Board> replace;
+
+        Source(String entityType, BiFunction<LocalDateTime, LocalDateTime, List<T>> day,
+               Function<Collection<Integer>, List<T>> byIds, Function<T, Integer> id, Function<T, LocalDateTime> time,
+               Function<Board, Table<T>> get, BiFunction<Board, Table<T>, Board> replace) {
+            this.entityType = entityType;
+            this.day = day;
+            this.byIds = byIds;
+            this.id = id;
+            this.time = time;
+            this.get = get;
+            this.replace = replace;
+        }
+
+        Table<T> load(LocalDate date) {
+            LocalDateTime from = date.atStartOfDay();
+            return new Table<>(day.apply(from, date.plusDays(1).atStartOfDay()), id, time, from);
+        }
+
+        ReadModelCheck check(Board board) {
+            Table<T> memory = get.apply(board);
+            Map<Integer, T> database = new HashMap<>();
+            for (T row : load(board.date).list) {
+                database.put(id.apply(row), row);
+            }
+            List<Integer> missing = new ArrayList<>();
+            List<Integer> stale = new ArrayList<>();
+            database.forEach((rowId, row) -> {
+                T cached = memory.rows.get(rowId);
+                if (cached == null) {
+                    missing.add(rowId);
+                } else if (!cached.equals(row)) {
+                    stale.add(rowId);
+                }
+            });
+            List<Integer> unexpected = memory.rows.keySet().stream()
+                .filter(rowId -> !database.containsKey(rowId))
+                .sorted()
+                .toList();
+            missing.sort(null);
+            stale.sort(null);
+            return new ReadModelCheck(entityType, memory.list.size(), database.size(), missing, unexpected, stale);
+        }
+    }
+
+    /**
+     * 1種類の予約の今日の一覧 ((予約日時, ID) 順) と、ID の索引。不変。
+     */
+    public static final class Table<T> {
+        private final List<T> list;
+        private final Map<Integer, T> rows;
+        private final Function<T, Integer> id;
+        private final Function<T, LocalDateTime> time;
+        private final LocalDateTime from;
+
+        Table(Collection<T> rows, Function<T, Integer> id, Function<T, LocalDateTime> time,
+              LocalDateTime from) {
+            this.id = id;
+            this.time = time;
+            this.from = from;
+            this.list = rows.stream()
+                .sorted(Comparator.comparing(time).thenComparing(id))
+                .toList();
+            Map<Integer, T> index = new HashMap<>();
+            for (T row : list) {
+                index.put(id.apply(row), row);
+            }
+            this.rows = Map.copyOf(index);
+        }
+
+        /**
+         * @return (予約日時, ID) 順の全件
+         */
+        public List<T> list() {
+            return list;
+        }
+
+        /**
+         * (afterTime, afterId) より後の行を、(予約日時, ID) 順に最大 limit 件返す (DBのキーセットページングと同じ条件)。
+         */
+        public List<T> page(LocalDateTime afterTime, int afterId, int limit) {
+            int low = 0;
+            int high = list.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                T row = list.get(mid);
+                int cmp = time.apply(row).compareTo(afterTime);
+                if (cmp < 0 || (cmp == 0 && id.apply(row) <= afterId)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return list.subList(low, Math.min(list.size(), low + limit));
+        }
+
+        /**
+         * ids の行を取り除き、読み直した行のうち今日の分を追加した新しい一覧を返す。
+         */
+        Table<T> with(Collection<Integer> ids, List<T> reloaded) {
+            Map<Integer, T> next = new HashMap<>(rows);
+            ids.forEach(next::remove);
+            LocalDateTime to = from.plusDays(1);
+            for (T row : reloaded) {
+                LocalDateTime at = time.apply(row);
+                if (at != null && !at.isBefore(from) && at.isBefore(to)) {
+                    next.put(Objects.requireNonNull(id.apply(row)), row);
+                }
+            }
+            return new Table<>(next.values(), id, time, from);
+        }
+    }
+}
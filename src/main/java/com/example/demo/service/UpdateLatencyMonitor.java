@@ -0,0 +1,43 @@
+package com.example.demo.service;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * ダッシュボードからの更新API (/api/{parking,visitor,bus}/update) の応答時間の移動平均。
+ * 営業中モードのインポート ({@link ImportThrottle}) が、更新が遅くなっていないかの判断に使用する。
+ *
+ * 💡 指数移動平均 (EWMA) のため、直近の数件の影響が大きく、急な悪化にすぐ反応する。
+ *    更新がしばらくない場合は、古い値で取り込みを止め続けないよう 0 (余裕あり) とみなす。
+ */
+@Service
+public class UpdateLatencyMonitor {
+
+    // 直近の1件の重み
+    private static final double ALPHA = 0.2;
+    // この時間、更新がなければ平均値を無効とする
+    private static final long STALE_NANOS = 30_000_000_000L;
+
+    private double averageMillis;
+    private long lastSampleNanos;
+    private boolean hasSample;
+
+    /**
+     * 更新API 1件分の応答時間を記録する。
+     */
+    public synchronized void record(long elapsedNanos) {
+        double millis = elapsedNanos / 1_000_000.0;
+        averageMillis = hasSample ? ALPHA * millis + (1 - ALPHA) * averageMillis : millis;
+        hasSample = true;
+        lastSampleNanos = System.nanoTime();
+    }
+
+    /**
+     * 応答時間の移動平均 (ミリ秒)。直近に更新がない場合は 0。
+     */
+    public synchronized double getAverageMillis() {
+        if (!hasSample || System.nanoTime() - lastSampleNanos > STALE_NANOS) {
+            return 0;
+        }
+        return averageMillis;
+    }
+}
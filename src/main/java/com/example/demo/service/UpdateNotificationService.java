@@ -2,20 +2,43 @@
 
 package com.example.demo.service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.LongFunction;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.dto.ImportChangeSet;
+import com.example.demo.dto.UpdateReplay;
+import com.example.demo.model.ImportSummaryMessage;
 import com.example.demo.model.RemoteUpdateMessage; // 💡 RemoteUpdateMessage に変更
 
 @Service
 public class UpdateNotificationService {
 
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm");
+
+    private static final String UPDATES_TOPIC = "/topic/updates";
+
     private final SimpMessagingTemplate messagingTemplate;
 
+    // 💡 /topic/updates の通番 (単調増加。再起動後も前回より大きくなるよう起動時刻から開始)
+    //    採番・リングバッファへの追加・送信は publishLock の中で行い、送信順と通番の順序を一致させる
+    private long sequence = System.currentTimeMillis();
+    private final Object publishLock = new Object();
+
+    // 💡 直近のメッセージ (再接続したクライアントへの再送用)
+    private final UpdateReplayBuffer replayBuffer;
+
     @Autowired
-    public UpdateNotificationService(SimpMessagingTemplate messagingTemplate) {
+    public UpdateNotificationService(SimpMessagingTemplate messagingTemplate,
+                                     @Value("${updates.replay-buffer-size:1000}") int replayBufferSize) {
         this.messagingTemplate = messagingTemplate;
+        this.replayBuffer = new UpdateReplayBuffer(replayBufferSize);
     }
 
     /**
@@ -26,14 +49,58 @@ public class UpdateNotificationService {
                               String extraField, String extraValue, 
                               String updateTime, String entityType, String message) {
                                   
-        // 💡 全ての情報を含む DTO (RemoteUpdateMessage) を作成
-        RemoteUpdateMessage update = new RemoteUpdateMessage(
-            id, field, newValue, extraField, extraValue, 
+        // 💡 全ての情報を含む DTO (RemoteUpdateMessage) を作成し、/topic/updates へ送信（JSONに自動変換される）
+        Object update = publish(seq -> new RemoteUpdateMessage(
+            seq, id, field, newValue, extraField, extraValue, 
             updateTime, entityType, message
-        );
+        ));
+        System.out.println("DEBUG: WebSocketメッセージ送信: " + update);
+    }
+
+    /**
+     * CSVインポートで変更された行のIDをまとめて1件のメッセージでブロードキャストする。
+     * 💡 行ごとには送信しない (クライアントは変更された行だけを取得し直す)
+     */
+    public void notifyImportSummary(String entityType, ImportChangeSet changes, String message) {
+        String updateTime = LocalDateTime.now().format(DATETIME_FORMATTER);
+        publish(seq -> new ImportSummaryMessage(
+            entityType, changes.getInsertedIds(), changes.getUpdatedIds(),
+            changes.getInsertedCount(), changes.getUpdatedCount(), changes.isComplete(),
+            seq, updateTime, message
+        ));
+    }
+
+    /**
+     * 現在の最新の通番 (画面に埋め込み、再接続時の after に使用する)。
+     */
+    public long currentSequence() {
+        synchronized (publishLock) {
+            return sequence;
+        }
+    }
+
+    /**
+     * 通番が after より後のメッセージをメモリから返す。
+     * @param after クライアントが最後に受信した通番
+     * @return 破棄済みの範囲を含む場合 (または再起動前の通番の場合) は complete = false
+     */
+    public UpdateReplay replayAfter(long after) {
+        // 💡 最新の通番とバッファの内容を同じ時点で読むため、送信と同じロックの中で取得する
+        synchronized (publishLock) {
+            List<Object> messages = replayBuffer.after(after, sequence);
+            return messages != null
+                ? new UpdateReplay(after, sequence, true, messages)
+                : new UpdateReplay(after, sequence, false, List.of());
+        }
+    }
 
-        // 💡 /topic/updates へメッセージを送信（JSONに自動変換される）
-        messagingTemplate.convertAndSend("/topic/updates", update);
-        System.out.println("DEBUG: WebSocketメッセージ送信: " + update.toString());
+    private Object publish(LongFunction<Object> messageFactory) {
+        synchronized (publishLock) {
+            long next = ++sequence;
+            Object message = messageFactory.apply(next);
+            replayBuffer.add(next, message);
+            messagingTemplate.convertAndSend(UPDATES_TOPIC, message);
+            return message;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * /topic/updates へ送信したメッセージを、通番 (sequence) とともに直近の一定件数だけ保持するリングバッファ。
+ *
+ * 再接続したクライアントが、最後に受信した通番より後のメッセージをDBを使用せずに受け取るために使用する。
+ * 💡 上限を超えた古いメッセージは破棄する。クライアントの通番が破棄済みの範囲にある場合は replay できないため、
+ *    クライアントは差分同期 (GET /api/changes) に切り替える。
+ * 💡 通番は連続していること (書き込み側 {@link UpdateNotificationService} が採番と追加を同じロックの中で行う)。
+ */
+class UpdateReplayBuffer {
+
+    private final int capacity;
+    private final Deque<Entry> entries;
+
+    UpdateReplayBuffer(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.entries = new ArrayDeque<>(this.capacity);
+    }
+
+    synchronized void add(long sequence, Object message) {
+        if (entries.size() == capacity) {
+            entries.removeFirst();
+        }
+        entries.addLast(new Entry(sequence, message));
+    }
+
+    /**
+     * @param after クライアントが最後に受信した通番
+     * @param latest 現在の最新の通番
+     * @return after より後のメッセージ (通番順)。破棄済みのメッセージが含まれる範囲、または after が不正な場合は null
+     */
+    synchronized List<Object> after(long after, long latest) {
+        if (after > latest) {
+            return null; // このサーバーが発行していない通番 (別のサーバーなど)
+        }
+        long oldest = entries.isEmpty() ? latest + 1 : entries.peekFirst().sequence;
+        if (after + 1 < oldest) {
+            return null; // 続きのメッセージを既に破棄している (再起動前の通番もここに該当する)
+        }
+        List<Object> messages = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.sequence > after) {
+                messages.add(entry.message);
+            }
+        }
+        return messages;
+    }
+
+    private static final class Entry {
+        private final long sequence;
+        private final Object message;
+
+        private Entry(long sequence, Object message) {
+            this.sequence = sequence;
+            this.message = message;
+        }
+    }
+}
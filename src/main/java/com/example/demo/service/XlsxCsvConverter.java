@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Excel (.xlsx) の先頭シートを、CSVインポートと同じ形式のCSVファイルに変換する。
+ *
+ * ワークブック全体 (DOM) は読み込まず、シートのXMLをSAXで1行ずつ読みながらCSVへ書き出すため、
+ * 行数に関わらずメモリ使用量は一定 (共有文字列テーブル = 重複を除いた文字列の一覧のみ保持する)。
+ * 変換後のCSVは CsvService の通常の取り込み処理 (変換・重複検出・チェックポイント等) にそのまま渡す。
+ *
+ * - 日付/時刻の書式のセルは、セルの表示形式に関わらず CSV と同じ "yyyy/M/d H:mm" で出力する
+ * - 空のセルは空文字列、空の行は出力しない (CSVの空行と同じ扱い)
+ * - 各行はシートの使用範囲 (dimension) と minColumns のうち大きい方の列数まで空文字列で埋める
+ *   (Excelで末尾の列が空欄の行も、CSV保存時と同じく列数不足にならないようにする)
+ */
+public final class XlsxCsvConverter {
+
+    // CsvService の CSV 内の日時フォーマットと同じ
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/M/d H:mm");
+
+    private XlsxCsvConverter() {
+    }
+
+    /**
+     * @param xlsx 変換元の .xlsx ファイル
+     * @param csv 変換先のCSVファイル (UTF-8)
+     * @param minColumns 各行の最小列数
+     * @return 出力した行数
+     */
+    public static int convert(Path xlsx, Path csv, int minColumns) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(xlsx.toFile(), PackageAccess.READ);
+             Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT)) {
+
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader reader = new XSSFReader(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IllegalArgumentException("Excelファイルにシートがありません。");
+            }
+
+            RowWriter rowWriter = new RowWriter(printer, minColumns);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(styles, strings, rowWriter));
+                parser.parse(new InputSource(sheet));
+            }
+            return rowWriter.rows;
+        }
+    }
+
+    /**
+     * シートの使用範囲 (<dimension ref="A1:M100">) から列数を取得してから、POI のハンドラへ処理を渡す。
+     */
+    private static final class SheetHandler extends XSSFSheetXMLHandler {
+        private final RowWriter rowWriter;
+
+        SheetHandler(StylesTable styles, ReadOnlySharedStringsTable strings, RowWriter rowWriter) {
+            super(styles, strings, rowWriter, new CsvDataFormatter(), false);
+            this.rowWriter = rowWriter;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if ("dimension".equals(localName)) {
+                String ref = attributes.getValue("ref");
+                if (ref != null) {
+                    String last = ref.substring(ref.indexOf(':') + 1);
+                    rowWriter.width = Math.max(rowWriter.width, new CellReference(last).getCol() + 1);
+                }
+            }
+            super.startElement(uri, localName, qName, attributes);
+        }
+    }
+
+    /**
+     * 1行分のセルの値を列位置に合わせて並べ、CSVの1レコードとして出力する。
+     */
+    private static final class RowWriter implements SheetContentsHandler {
+        private final CSVPrinter printer;
+        private final List<String> values = new ArrayList<>();
+        private int width;
+        private int rows;
+
+        RowWriter(CSVPrinter printer, int minColumns) {
+            this.printer = printer;
+            this.width = minColumns;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : values.size();
+            while (values.size() < column) {
+                values.add("");
+            }
+            values.add(formattedValue != null ? formattedValue : "");
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (values.stream().allMatch(String::isBlank)) {
+                return;
+            }
+            while (values.size() < width) {
+                values.add("");
+            }
+            try {
+                printer.printRecord(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows++;
+        }
+    }
+
+    /**
+     * 日付/時刻の書式のセルを CSV と同じ "yyyy/M/d H:mm" で出力するフォーマッター。
+     * (時刻のみの値 = 1未満の値 は日付を補わず、セルの表示形式のまま出力する)
+     */
+    private static final class CsvDataFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (value >= 1 && DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                LocalDateTime dateTime = DateUtil.getLocalDateTime(value, use1904Windowing, true);
+                return dateTime.format(DATETIME_FORMATTER);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- CSVインポートの再開用チェックポイント
+-- CsvService はチャンクをコミットするたびに、同じトランザクションで「最後にコミットしたCSVの行番号」を記録する。
+-- 途中で失敗したファイルを再アップロードすると、ファイルのハッシュ値が一致するチェックポイントの続きから取り込む。
+-- 取り込みが最後まで成功した時点で行を削除する。
+
+USE `ceremonyhall_reservation`;
+
+CREATE TABLE `import_checkpoints` (
+    `checkpoint_id` INT PRIMARY KEY AUTO_INCREMENT,
+    `entity_type` VARCHAR(16) NOT NULL,          -- 'parking', 'visitor', 'bus'
+    `file_hash` CHAR(64) NOT NULL,               -- ファイル内容の SHA-256 (16進)
+    `file_name` VARCHAR(255),
+    `last_record_number` BIGINT NOT NULL,        -- コミット済みの最終CSV行番号
+    `rows_committed` INT NOT NULL,               -- コミット済みの件数 (新規・更新・変更なしの合計)
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY `uk_import_checkpoints_file` (`entity_type`, `file_hash`)
+);
@@ -0,0 +1,21 @@
+-- CSVインポートの一括UPSERT (INSERT ... ON DUPLICATE KEY UPDATE) 用の自然キー制約
+-- BulkUpsertRepository は以下のユニーク制約を前提に、既存行の判定をDB側に任せる。
+
+USE `ceremonyhall_reservation`;
+
+-- 💡 既に自然キーが重複している行があると制約を追加できないため、事前に確認すること
+-- SELECT `visitor_name`, `visit_reservation_time`, COUNT(*) FROM `parkings` GROUP BY 1, 2 HAVING COUNT(*) > 1;
+-- SELECT `visitor_name`, `visit_reservation_time`, COUNT(*) FROM `visitors` GROUP BY 1, 2 HAVING COUNT(*) > 1;
+-- SELECT `bus_name`, `visit_reservation_time`, COUNT(*) FROM `shuttlebus_reservations` GROUP BY 1, 2 HAVING COUNT(*) > 1;
+
+-- parkings (来館者名 + 予約日時)
+ALTER TABLE `parkings`
+    ADD UNIQUE KEY `uk_parkings_visitor_time` (`visitor_name`, `visit_reservation_time`);
+
+-- visitors (来館者名 + 予約日時)
+ALTER TABLE `visitors`
+    ADD UNIQUE KEY `uk_visitors_visitor_time` (`visitor_name`, `visit_reservation_time`);
+
+-- shuttlebus_reservations (バス会社名 + 予約日時)
+ALTER TABLE `shuttlebus_reservations`
+    ADD UNIQUE KEY `uk_shuttlebus_name_time` (`bus_name`, `visit_reservation_time`);
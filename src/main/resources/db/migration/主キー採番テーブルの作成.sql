@@ -0,0 +1,30 @@
+-- 主キーの採番テーブル
+-- 予約・社員・部署テーブルのIDを AUTO_INCREMENT (IDENTITY) から採番テーブルによる払い出しに切り替える。
+-- IDENTITY では Hibernate の INSERT がJDBCバッチにならないため、ID を 50件 (IdSequences.ALLOCATION_SIZE) ずつまとめて確保する。
+--
+-- 💡 next_val は「払い出し済みIDの最大値 + 50」を表す (JPA の @TableGenerator と IdBlockAllocator で共通)。
+--    既存データのIDと重複しないよう、各テーブルの現在の最大IDから初期値を設定する。
+--    各列の AUTO_INCREMENT は残したままでよい (アプリケーションからは常にIDを指定して INSERT する)。
+-- 💡 移行中にアプリケーションから登録されないよう、アプリケーションを停止した状態で実行すること。
+
+USE `ceremonyhall_reservation`;
+
+CREATE TABLE `id_sequences` (
+    `sequence_name` VARCHAR(64) NOT NULL PRIMARY KEY,
+    `next_val` BIGINT NOT NULL
+);
+
+INSERT INTO `id_sequences` (`sequence_name`, `next_val`)
+SELECT 'parkings', COALESCE(MAX(`parking_id`), 0) + 50 FROM `parkings`;
+
+INSERT INTO `id_sequences` (`sequence_name`, `next_val`)
+SELECT 'visitors', COALESCE(MAX(`visitor_id`), 0) + 50 FROM `visitors`;
+
+INSERT INTO `id_sequences` (`sequence_name`, `next_val`)
+SELECT 'shuttlebus_reservations', COALESCE(MAX(`bus_id`), 0) + 50 FROM `shuttlebus_reservations`;
+
+INSERT INTO `id_sequences` (`sequence_name`, `next_val`)
+SELECT 'employees', COALESCE(MAX(`employee_id`), 0) + 50 FROM `employees`;
+
+INSERT INTO `id_sequences` (`sequence_name`, `next_val`)
+SELECT 'departments', COALESCE(MAX(`department_id`), 0) + 50 FROM `departments`;
@@ -0,0 +1,16 @@
+-- 再接続時の差分同期 (GET /api/changes?since=...) 用のインデックス
+-- 更新日時が指定時刻以降の行を (更新日時, ID) の順に読み込むため、2列の複合インデックスとする。
+
+USE `ceremonyhall_reservation`;
+
+-- parkings
+ALTER TABLE `parkings`
+    ADD INDEX `idx_parkings_update_time` (`update_time`, `parking_id`);
+
+-- visitors
+ALTER TABLE `visitors`
+    ADD INDEX `idx_visitors_update_time` (`update_time`, `visitor_id`);
+
+-- shuttlebus_reservations
+ALTER TABLE `shuttlebus_reservations`
+    ADD INDEX `idx_shuttlebus_update_time` (`update_time`, `bus_id`);
@@ -0,0 +1,17 @@
+-- ダッシュボードの運用日 (予約日時の範囲) 検索とキーセットページング用のインデックス
+-- 予約日時の範囲で絞り込み、(予約日時, ID) の順に読み進めるため、2列の複合インデックスとする。
+-- (既存の自然キー制約は氏名が先頭のため、予約日時の範囲検索には使われない)
+
+USE `ceremonyhall_reservation`;
+
+-- parkings
+ALTER TABLE `parkings`
+    ADD INDEX `idx_parkings_time_id` (`visit_reservation_time`, `parking_id`);
+
+-- visitors
+ALTER TABLE `visitors`
+    ADD INDEX `idx_visitors_time_id` (`visit_reservation_time`, `visitor_id`);
+
+-- shuttlebus_reservations
+ALTER TABLE `shuttlebus_reservations`
+    ADD INDEX `idx_shuttlebus_time_id` (`visit_reservation_time`, `bus_id`);
@@ -91,25 +91,13 @@ document.addEventListener('DOMContentLoaded', () => {
     const busTableBody = document.querySelector('#content3 .excel-table tbody'); 
 
 	// ==========================================================
-	// 2. データの取得: ページロード時にAPIから状況リストを取得する関数
+	// 2. データの取得: ページロード時に状況リストを取得する関数
+	//    (画面に埋め込まれた初期データを優先し、ない場合のみAPIを呼ぶ)
 	// ==========================================================
 	async function fetchBusSituations() {
-	    console.log("DEBUG: fetchBusSituations関数が実行されました。APIを呼び出します。");
 	    try {
-            const token = document.querySelector('meta[name="_csrf"]')?.content;
-            const headerName = document.querySelector('meta[name="_csrf_header"]')?.content;
-
-            const headers = {};
-            if (headerName && token) {
-                headers[headerName] = token;
-            }
-
-	        const response = await fetch('/api/bus/situations', { headers: headers }); 
-	        if (!response.ok) {
-	            throw new Error(`HTTP error! status: ${response.status}`);
-	        }
 	        // グローバルスコープの変数に代入
-	        busSituationsData = await response.json(); 
+	        busSituationsData = await loadMasterList('busSituations', '/api/bus/situations');
 	        console.log("DEBUG: BusSituations data loaded:", busSituationsData);
 	    } catch (error) {
 	        console.error("DEBUG: Failed to fetch bus situations:", error);
@@ -9,6 +9,15 @@
 // ==========================================================
 
 let stompClient = null;
+// 接続が切れた後に再接続した場合 true (接続が切れている間の変更を GET /api/updates または GET /api/changes で取得する)
+let needsChangesSync = false;
+// 差分同期の開始位置 (サーバーが画面表示時と各同期の開始時に発行する syncToken)
+let syncToken = window.SYNC_TOKEN || null;
+// 最後に処理した /topic/updates の通番 (画面表示時はサーバーが埋め込んだ値)
+let lastSequence = window.UPDATE_SEQUENCE ?? null;
+// 再送の取得中に受信したメッセージ (再送の後に通番順で処理する)
+let replayInProgress = false;
+let pendingLiveUpdates = [];
 
 /**
  * WebSocket接続を確立する。
@@ -24,9 +33,24 @@ function connect() {
         stompClient.subscribe('/topic/updates', (message) => {
             handleRemoteUpdate(message.body);
         });
+        
+        // CSVインポートジョブの進捗 (進捗表示のある画面でのみ処理する)
+        stompClient.subscribe('/topic/import-progress', (message) => {
+            if (typeof window.updateImportProgress === 'function') {
+                window.updateImportProgress(JSON.parse(message.body));
+            }
+        });
+
+        // 💡 再接続の場合、接続が切れている間に送信されたメッセージをサーバーのメモリから取得して反映する
+        //    (メモリから破棄済みの場合は更新された行を取得する。いずれもページ全体は再読み込みしない)
+        if (needsChangesSync) {
+            needsChangesSync = false;
+            replayUpdatesSince();
+        }
 
     }, (error) => {
         console.error('DEBUG: STOMP Connection Error:', error);
+        needsChangesSync = true;
         
         const errorMessage = 'サーバーとの接続が切れました。自動再接続を試みます...';
         if (typeof showNotificationToast === 'function') {
@@ -42,6 +66,36 @@ function connect() {
  * @param {string} updateMessageJson - JSON文字列形式の更新メッセージ
  */
 function handleRemoteUpdate(updateMessageJson) {
+    let update;
+    try {
+        update = JSON.parse(updateMessageJson);
+    } catch (error) {
+        console.error("ERROR: Failed to parse remote update message:", error);
+        return;
+    }
+
+    // 💡 再送の取得中は、再送されるメッセージより先に処理しないよう保留する
+    if (replayInProgress) {
+        pendingLiveUpdates.push(update);
+        return;
+    }
+    applyRemoteUpdate(update);
+}
+
+/**
+ * 更新メッセージ (受信または再送されたもの) を画面に反映する。
+ * 処理済みの通番以前のメッセージ (再送と受信の重複) は無視する。
+ * @param {Object} update - RemoteUpdateMessage または ImportSummaryMessage
+ * @param {boolean} replayed - 再送されたメッセージの場合 true (タブの切り替えとトーストは行わない)
+ */
+function applyRemoteUpdate(update, replayed = false) {
+    if (typeof update.sequence === 'number') {
+        if (lastSequence !== null && update.sequence <= lastSequence) {
+            return;
+        }
+        lastSequence = update.sequence;
+    }
+
     // 🔴 【修正適用開始】
     // entityTypeに対応する日本語名称を定義する（関数スコープ内）
     const entityNameMap = {
@@ -51,7 +105,12 @@ function handleRemoteUpdate(updateMessageJson) {
     };
     
     try {
-        const update = JSON.parse(updateMessageJson);
+        // 💡 CSVインポート完了時の変更サマリー (行ごとの更新メッセージとは別形式)
+        if (update.type === 'import_summary') {
+            handleImportSummary(update);
+            return;
+        }
+
         // サーバーからの更新メッセージには updateTime が含まれることを想定
         const { id, field, newValue, extraField, extraValue, updateTime, entityType, message } = update;
         
@@ -69,7 +128,7 @@ function handleRemoteUpdate(updateMessageJson) {
         const notificationMessage = prefix + baseMessage;
         
         // 1. 💡 修正追加: タブ連動 (リモート更新されたタブに切り替える)
-        if (typeof setActiveTab === 'function') {
+        if (!replayed && typeof setActiveTab === 'function') {
             setActiveTab(entityType);
         }
         
@@ -79,7 +138,7 @@ function handleRemoteUpdate(updateMessageJson) {
         }
 
         // 3. トーストで通知
-        if (typeof showNotificationToast === 'function') {
+        if (!replayed && typeof showNotificationToast === 'function') {
              showNotificationToast(notificationMessage, 'info');
         }
         
@@ -100,10 +159,250 @@ function handleRemoteUpdate(updateMessageJson) {
 }
 // 🔴 【修正適用終了】
 
+/**
+ * CSVインポート完了時の変更サマリーを処理する。
+ * 新規/更新された行のID (insertedIds / updatedIds) を 'import-summary' イベントで各モジュールへ渡し、
+ * ページ全体を再読み込みせずに変更された行だけを取得し直せるようにする。
+ * (complete が false の場合はIDが省略されているため、一覧全体を取得し直す)
+ * @param {Object} summary - ImportSummaryMessage
+ */
+function handleImportSummary(summary) {
+    const { entityType, updateTime, message } = summary;
+
+    if (typeof updateLastOperationResult === 'function') {
+        updateLastOperationResult(entityType, message, updateTime, 'info');
+    }
+    if (typeof showNotificationToast === 'function') {
+        showNotificationToast(message, 'info');
+    }
+
+    document.dispatchEvent(new CustomEvent('import-summary', { detail: summary }));
+}
+
+/**
+ * 最後に処理した通番より後のメッセージを GET /api/updates で再送してもらい、順に反映する。
+ * サーバーのメモリから破棄済みの場合 (または取得に失敗した場合) は、更新された行の差分同期 (syncChangesSince) に切り替える。
+ */
+async function replayUpdatesSince() {
+    if (lastSequence === null) {
+        await syncChangesSince();
+        return;
+    }
+    replayInProgress = true;
+    try {
+        const response = await fetch(`/api/updates?after=${encodeURIComponent(lastSequence)}`);
+        if (!response.ok) {
+            throw new Error(`HTTP ${response.status}`);
+        }
+        const replay = await response.json();
+
+        if (replay.complete) {
+            replay.messages.forEach(update => applyRemoteUpdate(update, true));
+            if (replay.messages.length > 0 && typeof showNotificationToast === 'function') {
+                showNotificationToast(`接続が切れている間の更新 ${replay.messages.length}件を反映しました。`, 'info');
+            }
+        } else {
+            console.warn(`WARN: Updates after sequence ${lastSequence} are no longer buffered. Falling back to /api/changes.`);
+            await syncChangesSince();
+            // 💡 ここまでの変更は差分同期で反映済みのため、以降は最新の通番から処理する
+            if (lastSequence < replay.latestSequence) {
+                lastSequence = replay.latestSequence;
+            }
+        }
+    } catch (error) {
+        console.error("ERROR: Failed to replay updates after reconnect:", error);
+        await syncChangesSince();
+    } finally {
+        replayInProgress = false;
+        const pending = pendingLiveUpdates;
+        pendingLiveUpdates = [];
+        pending.forEach(update => applyRemoteUpdate(update));
+    }
+}
+
+// 差分同期で反映する列: 画面の表示値 (current) と異なる項目のみ、リモート更新と同じ DOM 更新関数で反映する
+const CHANGE_SYNC_FIELDS = {
+    parking: {
+        listKey: 'parkings',
+        rowSelector: id => `#content1 tr[data-parking-id="${id}"]`,
+        fields: [
+            { field: 'parkingStatus', value: r => r.parkingStatusId,
+              current: row => row.querySelector('.js-parking-status')?.getAttribute('data-status-id') },
+            { field: 'carNumber', value: r => r.carNumber,
+              current: row => row.querySelector('.js-vehicle-number-field .vehicle-number-text')?.textContent },
+            { field: 'remarksColumn', value: r => r.remarksColumn,
+              current: row => row.querySelector('.js-remarks-field .remarks-text')?.textContent },
+            { field: 'parkingPermit', value: r => r.parkingPermit,
+              current: row => row.querySelector('.js-permit-number')?.getAttribute('data-value') },
+            { field: 'parkingPosition', value: r => r.parkingPosition,
+              current: row => row.querySelector('.js-permit-location')?.getAttribute('data-value') }
+        ],
+        apply: (r, field, value, updateTime) => window.updateParkingRow?.(r.id, field, value,
+            'departureTime', r.departureTime ? formatDate(new Date(r.departureTime)) : null, updateTime)
+    },
+    visitor: {
+        listKey: 'visitors',
+        rowSelector: id => `#content2 tr[data-visit-id="${id}"]`,
+        fields: [
+            { field: 'visitSituation', value: r => r.visitSituationId,
+              current: row => row.querySelector('.js-visit-situation')?.getAttribute('data-situation-id') },
+            { field: 'remarksColumn', value: r => r.remarksColumn,
+              current: row => row.querySelector('.js-remarks-field-visit .remarks-text')?.textContent }
+        ],
+        apply: (r, field, value, updateTime) => window.updateVisitorRow?.(r.id, field, value, updateTime)
+    },
+    bus: {
+        listKey: 'buses',
+        rowSelector: id => `#content3 tr[data-bus-id="${id}"]`,
+        fields: [
+            { field: 'busSituation', value: r => r.busSituationId,
+              current: row => row.querySelector('.js-bus-status')?.getAttribute('data-status-id') },
+            { field: 'passengers', value: r => r.passengers,
+              current: row => row.querySelector('.passengers-text')?.dataset.originalValue },
+            { field: 'remarksColumn', value: r => r.remarksColumn,
+              current: row => row.querySelector('.js-remarks-field .remarks-text')?.textContent }
+        ],
+        apply: (r, field, value, updateTime) => window.updateBusRow?.(r.id, field, value, updateTime)
+    }
+};
+
+/**
+ * 前回の同期位置 (syncToken) 以降に更新された行を GET /api/changes で取得し、表示中の行に反映する。
+ * 表示されていない行 (新しい予約、次のページの行) は件数のみ通知する。
+ * 取得結果は 'changes-synced' イベントで各モジュールへ渡す。
+ * (complete が false の場合は変更が多すぎて一部のみのため、一覧全体を読み込み直す)
+ */
+async function syncChangesSince() {
+    if (!syncToken) {
+        return;
+    }
+    try {
+        const response = await fetch(`/api/changes?since=${encodeURIComponent(syncToken)}`);
+        if (!response.ok) {
+            throw new Error(`HTTP ${response.status}`);
+        }
+        const changes = await response.json();
+
+        if (!changes.complete) {
+            if (typeof showNotificationToast === 'function') {
+                showNotificationToast('接続が切れている間の変更が多いため、画面を読み込み直します。', 'warning');
+            }
+            setTimeout(() => location.reload(), 1500);
+            return;
+        }
+        syncToken = changes.syncToken;
+
+        let applied = 0;
+        let notShown = 0;
+        for (const [entityType, sync] of Object.entries(CHANGE_SYNC_FIELDS)) {
+            for (const r of changes[sync.listKey] || []) {
+                const row = document.querySelector(sync.rowSelector(r.id));
+                if (!row) {
+                    notShown++;
+                    continue;
+                }
+                const updateTime = r.updateTime ? formatDate(new Date(r.updateTime)) : '';
+                const differing = sync.fields.filter(f => String(f.value(r) ?? '') !== String(f.current(row) ?? ''));
+                differing.forEach(f => sync.apply(r, f.field, f.value(r) ?? '', updateTime));
+                if (differing.length > 0) {
+                    applied++;
+                }
+            }
+        }
+
+        if (applied > 0 || notShown > 0) {
+            let message = `接続が切れている間の変更 ${applied}件を反映しました。`;
+            if (notShown > 0) {
+                message += ` (表示されていない行の変更 ${notShown}件は再読み込みで表示されます)`;
+            }
+            if (typeof showNotificationToast === 'function') {
+                showNotificationToast(message, 'info');
+            }
+        }
+        document.dispatchEvent(new CustomEvent('changes-synced', { detail: changes }));
+
+    } catch (error) {
+        console.error("ERROR: Failed to sync changes after reconnect:", error);
+        if (typeof showNotificationToast === 'function') {
+            showNotificationToast('接続が切れている間の変更を取得できませんでした。画面を読み込み直してください。', 'error');
+        }
+    }
+}
+
 // ページロード時にWebSocket接続を開始
 document.addEventListener('DOMContentLoaded', connect);
 
 
+/**
+ * ステータスマスターの一覧を取得する。
+ * 画面に埋め込まれた初期データ (window.MASTER_DATA) があればそれを使い、通信しない。
+ * ない場合は一覧APIを呼ぶ (ETag により、変更がなければ 304 で本文を受信しない)。
+ * @param {string} key - 初期データ内のキー (例: 'parkingStatuses')
+ * @param {string} endpoint - 一覧APIのURL (例: /api/parking/statuses)
+ * @returns {Promise<Array>} - マスタの一覧 (ID順)
+ */
+async function loadMasterList(key, endpoint) {
+    const bootstrap = window.MASTER_DATA;
+    if (bootstrap && Array.isArray(bootstrap[key])) {
+        return bootstrap[key];
+    }
+    // バージョンが分かる場合は、長期キャッシュ可能なURLで取得する
+    const url = bootstrap && bootstrap.version
+        ? `${endpoint}?v=${encodeURIComponent(bootstrap.version)}`
+        : endpoint;
+    const response = await fetch(url);
+    if (!response.ok) {
+        throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return response.json();
+}
+
+/**
+ * 「さらに読み込む」ボタン (.js-load-more) の処理。
+ * GET /dashboard/rows/{entity} で次のページの行を取得し、同じセクションの表の末尾に追加する
+ * (data-target がある場合は、その tbody の末尾に追加する)。
+ * 次のページのカーソルは X-Next-Cursor ヘッダーで返る (ない場合は最終ページのためボタンを削除)。
+ * 💡 追加した行は 'dashboard-rows-appended' イベント (detail: { entityType, rows }) で通知する。
+ *    行ごとにイベントを登録している画面 (visitor.js など) はこのイベントで追加分を初期化する。
+ */
+document.addEventListener('click', async (event) => {
+    const button = event.target.closest('.js-load-more');
+    if (!button || button.disabled) return;
+
+    const { entity, cursor, date, target } = button.dataset;
+    const tbody = target
+        ? document.querySelector(target)
+        : button.closest('section')?.querySelector('table tbody');
+    if (!tbody) return;
+
+    button.disabled = true;
+    try {
+        const params = new URLSearchParams({ date, after: cursor });
+        const response = await fetch(`/dashboard/rows/${entity}?${params}`);
+        if (!response.ok) {
+            throw new Error(`HTTP error! status: ${response.status}`);
+        }
+
+        const template = document.createElement('template');
+        template.innerHTML = (await response.text()).trim();
+        const rows = Array.from(template.content.querySelectorAll('tr'));
+        tbody.append(...rows);
+        document.dispatchEvent(new CustomEvent('dashboard-rows-appended', { detail: { entityType: entity, rows } }));
+
+        const nextCursor = response.headers.get('X-Next-Cursor');
+        if (nextCursor) {
+            button.dataset.cursor = nextCursor;
+            button.disabled = false;
+        } else {
+            button.closest('.load-more-area')?.remove();
+        }
+    } catch (error) {
+        console.error('ERROR: 一覧の続きの読み込みに失敗しました:', error);
+        showNotificationToast('一覧の続きの読み込みに失敗しました。', 'error');
+        button.disabled = false;
+    }
+});
+
 // ==========================================================
 // II. サーバーへのデータ更新 (共通API呼び出し)
 // ==========================================================
@@ -93,17 +93,12 @@ document.addEventListener('DOMContentLoaded', () => {
     const parkingTableBody = document.querySelector('#content1 .excel-table tbody'); 
 
 	// ==========================================================
-	// 2. データの取得: ページロード時にAPIから状況リストを取得する関数
+	// 2. データの取得: ページロード時に状況リストを取得する関数
+	//    (画面に埋め込まれた初期データを優先し、ない場合のみAPIを呼ぶ)
 	// ==========================================================
 	async function fetchParkingStatuses() {
-	    console.log("DEBUG: fetchParkingStatuses関数が実行されました。APIを呼び出します。");
 	    try {
-	        const response = await fetch('/api/parking/statuses'); 
-            
-	        if (!response.ok) {
-	            throw new Error(`HTTP error! status: ${response.status}`);
-	        }
-	        parkingStatusesData = await response.json();
+	        parkingStatusesData = await loadMasterList('parkingStatuses', '/api/parking/statuses');
 	        console.log("DEBUG: ParkingStatuses data loaded:", parkingStatusesData);
 	    } catch (error) {
 	        console.error("DEBUG: Failed to fetch parking statuses:", error);
@@ -118,7 +118,8 @@ document.addEventListener('DOMContentLoaded', () => {
     const COMPLETED_SITUATION_IDS = ['2', '3']; // 例: ID 2=案内済, 3=退館済 を完了とみなす
     // ------------------------------------------
 
-    visitSituationCells.forEach(cell => {
+    // 💡 「さらに読み込む」で追加された行も初期化できるよう、1セル分の初期化を関数にしている
+    function initVisitSituationCell(cell) {
 		
 		// 1. 各要素を取得
 		    const viewModeText = cell.querySelector('.view-mode-text');
@@ -259,7 +260,9 @@ document.addEventListener('DOMContentLoaded', () => {
              selectElement.value = originalSituationId;
 	    });
         
-	});
+	}
+
+    visitSituationCells.forEach(initVisitSituationCell);
 
 
 	// ------------------------------------------------------------------
@@ -269,7 +272,7 @@ document.addEventListener('DOMContentLoaded', () => {
 	// セレクタはHTML構造に依存するためそのまま維持
 	const remarksFields = document.querySelectorAll('#content1 .js-remarks-field, #content2 .js-remarks-field-visit, #content3 .js-remarks-field');
 
-	remarksFields.forEach(field => {
+	function initRemarksField(field) {
 	    // 1. 各要素を取得
 	    const textSpan = field.querySelector('.remarks-text');
 	    const editForm = field.querySelector('.remarks-edit-form');
@@ -417,7 +420,22 @@ document.addEventListener('DOMContentLoaded', () => {
 	        textSpan.style.display = 'inline-block';
 	        textSpan.style.visibility = 'visible';
 	    });
-	});
+	}
+
+	remarksFields.forEach(initRemarksField);
+
+    // ------------------------------------------------------------------
+    // --- 「さらに読み込む」で追加された行の初期化 (common.js から通知される) ---
+    // ------------------------------------------------------------------
+    document.addEventListener('dashboard-rows-appended', (event) => {
+        const { entityType, rows } = event.detail;
+        rows.forEach(row => {
+            if (entityType === 'visitor') {
+                row.querySelectorAll('.js-visit-situation').forEach(initVisitSituationCell);
+            }
+            row.querySelectorAll('.js-remarks-field, .js-remarks-field-visit').forEach(initRemarksField);
+        });
+    });
 
     // ------------------------------------------------------------------
     // D. リモート更新後のDOM操作関数 (common.jsのhandleRemoteUpdateから呼び出される)
@@ -0,0 +1,121 @@
+package com.example.demo.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 営業中モードのインポートの接続が専用プールから取得されることのテスト (組み込みDB H2 を使用)。
+ */
+class ImportRoutingDataSourceTest {
+
+    private HikariDataSource main;
+    private HikariDataSource lowPriority;
+    private ImportRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        main = pool("main", "jdbc:h2:mem:routing_main;DB_CLOSE_DELAY=-1", 10);
+        lowPriority = pool("low-priority-import", "jdbc:h2:mem:routing_low;DB_CLOSE_DELAY=-1",
+                           DataSourceConfig.lowPriorityPoolSize(1));
+        routing = new ImportRoutingDataSource(main, lowPriority);
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+    }
+
+    @Test
+    void usesMainPoolOutsideLowPriorityScope() throws Exception {
+        assertEquals("jdbc:h2:mem:routing_main", urlOf(routing));
+    }
+
+    @Test
+    void usesLowPriorityPoolInsideScopeIncludingNestedCalls() throws Exception {
+        String url = ImportRoutingDataSource.withLowPriorityPool(() -> urlOf(routing));
+        assertEquals("jdbc:h2:mem:routing_low", url);
+
+        String nested = ImportRoutingDataSource.withLowPriorityPool(
+            () -> ImportRoutingDataSource.withLowPriorityPool(() -> urlOf(routing)) + " " + urlOf(routing));
+        assertEquals("jdbc:h2:mem:routing_low jdbc:h2:mem:routing_low", nested);
+
+        // スコープを抜けた後は通常のプールに戻る
+        assertEquals("jdbc:h2:mem:routing_main", urlOf(routing));
+    }
+
+    @Test
+    void otherThreadsKeepUsingMainPool() throws Exception {
+        String[] other = new String[1];
+        ImportRoutingDataSource.withLowPriorityPool(() -> {
+            Thread thread = new Thread(() -> {
+                try {
+                    other[0] = urlOf(routing);
+                } catch (SQLException e) {
+                    other[0] = e.toString();
+                }
+            });
+            thread.start();
+            thread.join();
+            return null;
+        });
+        assertEquals("jdbc:h2:mem:routing_main", other[0]);
+    }
+
+    @Test
+    void lowPriorityScopeNeverExceedsItsPoolSize() throws Exception {
+        ImportRoutingDataSource.withLowPriorityPool(() -> {
+            try (Connection first = routing.getConnection(); Connection second = routing.getConnection()) {
+                // 専用プール (2接続) を使い切っている間は、通常のプールの空きがあっても待たされる
+                assertThrows(SQLException.class, routing::getConnection);
+                assertEquals(2, activeConnections(lowPriority));
+                assertEquals(0, activeConnections(main));
+            }
+            return null;
+        });
+        // 通常の処理は影響を受けない
+        try (Connection connection = routing.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+    }
+
+    @Test
+    void lowPriorityPoolHasAtLeastTwoConnections() {
+        assertEquals(2, DataSourceConfig.lowPriorityPoolSize(0));
+        assertEquals(2, DataSourceConfig.lowPriorityPoolSize(2));
+        assertEquals(4, DataSourceConfig.lowPriorityPoolSize(4));
+    }
+
+    private static String urlOf(ImportRoutingDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            String url = connection.getMetaData().getURL();
+            int options = url.indexOf(';');
+            return options < 0 ? url : url.substring(0, options);
+        }
+    }
+
+    private static int activeConnections(HikariDataSource pool) {
+        // まだ一度も接続を取得していないプールは開始されていない
+        return pool.getHikariPoolMXBean() == null ? 0 : pool.getHikariPoolMXBean().getActiveConnections();
+    }
+
+    private static HikariDataSource pool(String name, String url, int maxSize) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setMaximumPoolSize(maxSize);
+        pool.setMinimumIdle(0);
+        pool.setConnectionTimeout(250);
+        return pool;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.ImportChangeSet;
+import com.example.demo.dto.ImportResult;
+import com.example.demo.model.IdSequences;
+import com.example.demo.model.Parking;
+import com.example.demo.model.ParkingStatus;
+
+/**
+ * BulkUpsertRepository のテスト (組み込みDB H2 の MySQL 互換モードで、MySQL 用の INSERT ... ON DUPLICATE KEY UPDATE の経路を使用)。
+ * 自然キーインデックスの読み込み後に他の処理で追加された行も、内容が同じなら「変更なし」、変わった場合のみ「更新」になること。
+ *
+ * 💡 IDの確保 (IdBlockAllocator) は独立したトランザクションのため、テストデータはコミットしてから使用する。
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ BulkUpsertRepository.class, IdBlockAllocator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkUpsertRepositoryTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 10, 29, 9, 0);
+    private static final ParkingStatus RESERVED = new ParkingStatus(1, "予約中");
+
+    @Autowired
+    private BulkUpsertRepository bulkUpsertRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET MODE MySQL");
+        ReflectionTestUtils.setField(bulkUpsertRepository, "mysql", true);
+        // db/migration のインポート用自然キー制約・update_time の既定値
+        jdbcTemplate.execute("ALTER TABLE parkings ADD CONSTRAINT IF NOT EXISTS uk_parkings_natural_key"
+                             + " UNIQUE (visitor_name, visit_reservation_time)");
+        jdbcTemplate.execute("ALTER TABLE parkings ALTER COLUMN update_time SET DEFAULT CURRENT_TIMESTAMP");
+        jdbcTemplate.update("MERGE INTO " + IdSequences.TABLE + " (" + IdSequences.NAME_COLUMN + ", "
+                            + IdSequences.VALUE_COLUMN + ") KEY (" + IdSequences.NAME_COLUMN + ") VALUES (?, 1000)",
+                            IdSequences.PARKINGS);
+        jdbcTemplate.update("MERGE INTO parking_statuses (parking_status_id, parking_status_name) KEY (parking_status_id)"
+                            + " VALUES (1, '予約中')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM parkings");
+    }
+
+    @Test
+    void rowAddedAfterTheIndexWithTheSameContentIsUnchanged() {
+        NaturalKeyIndex index = bulkUpsertRepository.loadParkingKeys(TIME, TIME, false);
+        insertExisting(1, "山田太郎", "備考");
+
+        ImportChangeSet changes = new ImportChangeSet(100);
+        ImportResult result = upsert(List.of(parking("山田太郎", "備考")), index, changes);
+
+        assertCounts(0, 0, 1, result);
+        assertEquals(0, changes.getUpdatedCount());
+        assertEquals(0, changes.getInsertedCount());
+        assertEquals(1, index.get("山田太郎", TIME));
+    }
+
+    @Test
+    void rowAddedAfterTheIndexWithNewContentIsUpdatedById() {
+        NaturalKeyIndex index = bulkUpsertRepository.loadParkingKeys(TIME, TIME, false);
+        insertExisting(1, "山田太郎", "備考");
+
+        ImportChangeSet changes = new ImportChangeSet(100);
+        ImportResult result = upsert(List.of(parking("山田太郎", "変更後")), index, changes);
+
+        assertCounts(0, 1, 0, result);
+        assertArrayEquals(new int[] { 1 }, changes.getUpdatedIds());
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT remarks_column, family_names FROM parkings WHERE parking_id = 1");
+        assertEquals("変更後", row.get("remarks_column"));
+        // 既存行の更新では参列家名を上書きしない
+        assertEquals("既存の家", row.get("family_names"));
+    }
+
+    @Test
+    void newAndMergedRowsAreCountedSeparately() {
+        NaturalKeyIndex index = bulkUpsertRepository.loadParkingKeys(TIME, TIME, false);
+        insertExisting(1, "山田太郎", "備考");
+        insertExisting(2, "佐藤花子", "備考");
+
+        ImportChangeSet changes = new ImportChangeSet(100);
+        ImportResult result = upsert(List.of(parking("山田太郎", "備考"), parking("佐藤花子", "変更後"),
+                                             parking("鈴木一郎", "備考")), index, changes);
+
+        assertCounts(1, 1, 1, result);
+        assertArrayEquals(new int[] { 2 }, changes.getUpdatedIds());
+        assertEquals(1, changes.getInsertedCount());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM parkings", Integer.class));
+
+        // 同じファイルの後続のチャンクでは、インデックスから変更なしと判定する
+        ImportResult again = upsert(List.of(parking("山田太郎", "備考"), parking("佐藤花子", "変更後"),
+                                            parking("鈴木一郎", "備考")), index, new ImportChangeSet(100));
+        assertCounts(0, 0, 3, again);
+    }
+
+    private ImportResult upsert(List<Parking> parkings, NaturalKeyIndex index, ImportChangeSet changes) {
+        return new TransactionTemplate(transactionManager)
+            .execute(status -> bulkUpsertRepository.upsertParkings(parkings, index, changes));
+    }
+
+    /**
+     * インデックスの読み込み後に他の処理 (画面からの登録など) で追加された行。
+     */
+    private void insertExisting(int id, String visitorName, String remarks) {
+        jdbcTemplate.update("INSERT INTO parkings (parking_id, visit_reservation_time, errands_relationship, car_number,"
+                            + " visitor_name, family_names, manager_name, parking_permit, parking_position,"
+                            + " parking_status_id, remarks_column)"
+                            + " VALUES (?, ?, '通夜', '品川 300 あ 1234', ?, '既存の家', '佐藤', '1', 'A', 1, ?)",
+                            id, TIME, visitorName, remarks);
+    }
+
+    private static Parking parking(String visitorName, String remarks) {
+        Parking parking = new Parking();
+        parking.setVisitReservationTime(TIME);
+        parking.setErrandsRelationship("通夜");
+        parking.setCarNumber("品川 300 あ 1234");
+        parking.setVisitorName(visitorName);
+        parking.setFamilyNames("CSVの家");
+        parking.setManagerName("佐藤");
+        parking.setParkingPermit("1");
+        parking.setParkingPosition("A");
+        parking.setParkingStatus(RESERVED);
+        parking.setRemarksColumn(remarks);
+        return parking;
+    }
+
+    private static void assertCounts(int inserted, int updated, int unchanged, ImportResult result) {
+        assertEquals(inserted, result.getInserted(), "新規");
+        assertEquals(updated, result.getUpdated(), "更新");
+        assertEquals(unchanged, result.getUnchanged(), "変更なし");
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.demo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.ImportResult;
+import com.example.demo.model.IdSequences;
+import com.example.demo.service.CsvService;
+
+/**
+ * 主キーの採番方式による取り込み速度の比較 (MySQL で実行するベンチマーク)。
+ *
+ * 生成した N 件の駐車場予約CSVを、次の3通りで登録して1秒あたりの件数を表示する。
+ *   1. identity  : 従来の AUTO_INCREMENT (IDENTITY)。1行ごとに INSERT し、生成されたIDを受け取る
+ *                  (Hibernate の IDENTITY と同じく、行ごとに1往復でJDBCバッチにならない)
+ *   2. pooled    : IdBlockAllocator で採番テーブルからチャンク分のIDを確保し、IDを指定した INSERT をJDBCバッチで送信
+ *   3. csvImport : CsvService.importParkingData による取り込み全体 (2. の方式。解析・自然キーの照合を含む)
+ * 1. と 2. はCSVの解析済みの同じ行を、取り込みと同じチャンクサイズ (csv.import.chunk-size) のトランザクションで登録する。
+ *
+ * 実行方法 (local プロファイルの MySQL に接続。通常の mvn test では実行しない):
+ *   mvn test -Dtest=IdStrategyImportBenchmark -Dbenchmark.mysql=true \
+ *       -Dbenchmark.rows=20000 -Dbenchmark.repetitions=3
+ *
+ * 💡 登録した行は計測ごとに削除する (備考欄の識別子で判別)。採番テーブルの値は進んだままになる。
+ *    本番のDBではなく、採番テーブルの移行 (db/migration/主キー採番テーブルの作成.sql) を適用した検証用のDBで実行すること。
+ */
+@SpringBootTest
+@ActiveProfiles("local")
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark.mysql", matches = "true")
+class IdStrategyImportBenchmark {
+
+    private static final DateTimeFormatter CSV_DATETIME = DateTimeFormatter.ofPattern("yyyy/M/d H:mm");
+
+    private static final String INSERT_COLUMNS = "visit_reservation_time, errands_relationship, car_number,"
+        + " visitor_name, family_names, manager_name, parking_permit, parking_position, parking_status_id, remarks_column";
+    private static final String IDENTITY_INSERT_SQL = "INSERT INTO parkings (" + INSERT_COLUMNS + ")"
+        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String POOLED_INSERT_SQL = "INSERT INTO parkings (parking_id, " + INSERT_COLUMNS + ")"
+        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private CsvService csvService;
+    @Autowired
+    private IdBlockAllocator idBlockAllocator;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Value("${csv.import.chunk-size:500}")
+    private int chunkSize;
+
+    @TempDir
+    private Path tempDir;
+
+    private final int rows = Integer.getInteger("benchmark.rows", 10_000);
+    private final int repetitions = Integer.getInteger("benchmark.repetitions", 3);
+    // 💡 このベンチマークで登録した行の識別子 (備考欄)
+    private final String marker = "id-strategy-benchmark-" + System.currentTimeMillis();
+
+    private TransactionTemplate transaction;
+    private int parkingStatusId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        parkingStatusId = jdbcTemplate.queryForObject(
+            "SELECT parking_status_id FROM parking_statuses WHERE parking_status_name = '予約中'", Integer.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteBenchmarkRows();
+    }
+
+    @Test
+    void compareIdStrategies() throws Exception {
+        Path csv = generateCsv(tempDir.resolve("parkings.csv"));
+        List<Object[]> parsed = parseCsv(csv);
+
+        // 💡 JIT・接続プールのウォームアップ (計測しない)
+        insertWithIdentity(parsed.subList(0, Math.min(parsed.size(), chunkSize)));
+        deleteBenchmarkRows();
+
+        long[] identity = new long[repetitions];
+        long[] pooled = new long[repetitions];
+        long[] csvImport = new long[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            identity[i] = measure(() -> insertWithIdentity(parsed));
+            pooled[i] = measure(() -> insertWithPooledIds(parsed));
+            csvImport[i] = measure(() -> {
+                ImportResult result = csvService.importParkingData(new FileSystemResource(csv));
+                assertEquals(rows, result.getInserted(), result.getSummary());
+            });
+        }
+
+        System.out.println("INFO: 主キーの採番方式の比較 (" + rows + "件, チャンク " + chunkSize + "件, " + repetitions + "回の中央値)");
+        report("identity (従来: AUTO_INCREMENT, 1行ずつ)", identity);
+        report("pooled (採番テーブル + JDBCバッチ)", pooled);
+        report("csvImport (CsvService の取り込み全体)", csvImport);
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 採番方式ごとの登録 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * 従来の方式: IDを指定せずに1行ずつ INSERT し、生成されたIDを受け取る。
+     */
+    private void insertWithIdentity(List<Object[]> parsed) {
+        for (List<Object[]> chunk : chunks(parsed)) {
+            transaction.executeWithoutResult(status -> {
+                for (Object[] values : chunk) {
+                    GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement ps = connection.prepareStatement(IDENTITY_INSERT_SQL,
+                                                                           new String[] { "parking_id" });
+                        for (int i = 0; i < values.length; i++) {
+                            ps.setObject(i + 1, values[i]);
+                        }
+                        return ps;
+                    }, keyHolder);
+                    if (keyHolder.getKey() == null) {
+                        throw new IllegalStateException("生成されたIDを取得できませんでした");
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 現在の方式: チャンク分のIDを採番テーブルから確保し、IDを指定した INSERT をJDBCバッチで送信する。
+     */
+    private void insertWithPooledIds(List<Object[]> parsed) {
+        for (List<Object[]> chunk : chunks(parsed)) {
+            transaction.executeWithoutResult(status -> {
+                int firstId = idBlockAllocator.allocate(IdSequences.PARKINGS, chunk.size());
+                List<Object[]> batch = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    Object[] values = chunk.get(i);
+                    Object[] withId = new Object[values.length + 1];
+                    withId[0] = firstId + i;
+                    System.arraycopy(values, 0, withId, 1, values.length);
+                    batch.add(withId);
+                }
+                jdbcTemplate.batchUpdate(POOLED_INSERT_SQL, batch);
+            });
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // --- 入力の生成・計測 ---
+    // ----------------------------------------------------------------------
+
+    /**
+     * 取り込み画面と同じ列構成 (ヘッダーあり) の駐車場予約CSVを生成する。
+     * 予約は 2099年の日付に1分刻みで並べ、既存の予約と自然キー (来館者氏名 + 予約日時) が重ならないようにする。
+     */
+    private Path generateCsv(Path path) throws IOException {
+        LocalDateTime start = LocalDateTime.of(2099, 1, 1, 9, 0);
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("駐車場予約リストID,来館予定日時,用件と続柄,車両ナンバー,来館者氏名,参列家名,担当,出庫時刻,"
+                         + "駐車証No.,駐車位置,利用状況,更新日時,備考欄\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("," + start.plusMinutes(i).format(CSV_DATETIME) + ",通夜 友人,品川 300 あ " + (1000 + i % 9000)
+                             + ",ベンチマーク" + i + ",山田家,佐藤,," + (i % 100) + ",P" + (i % 40)
+                             + ",予約中,," + marker + "\n");
+            }
+        }
+        return path;
+    }
+
+    /**
+     * CSVを INSERT の値 (INSERT_COLUMNS の順) に変換する。
+     */
+    private List<Object[]> parseCsv(Path csv) throws IOException {
+        List<Object[]> parsed = new ArrayList<>(rows);
+        CSVFormat format = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build();
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            for (CSVRecord record : format.parse(reader)) {
+                parsed.add(new Object[] {
+                    Timestamp.valueOf(LocalDateTime.parse(record.get(1), CSV_DATETIME)),
+                    record.get(2), record.get(3), record.get(4), record.get(5), record.get(6),
+                    record.get(8), record.get(9), parkingStatusId, record.get(12)
+                });
+            }
+        }
+        return parsed;
+    }
+
+    private List<List<Object[]>> chunks(List<Object[]> parsed) {
+        List<List<Object[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < parsed.size(); from += chunkSize) {
+            chunks.add(parsed.subList(from, Math.min(parsed.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+
+    @FunctionalInterface
+    private interface Run {
+        void run() throws Exception;
+    }
+
+    /**
+     * 1回分の登録時間 (ナノ秒) を計測し、登録件数を確認してから削除する。
+     */
+    private long measure(Run run) throws Exception {
+        long start = System.nanoTime();
+        run.run();
+        long elapsed = System.nanoTime() - start;
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM parkings WHERE remarks_column = ?",
+                                                    Integer.class, marker);
+        assertEquals(rows, count);
+        deleteBenchmarkRows();
+        return elapsed;
+    }
+
+    private void report(String label, long[] elapsedNanos) {
+        long[] sorted = elapsedNanos.clone();
+        Arrays.sort(sorted);
+        long median = sorted[sorted.length / 2];
+        System.out.printf("INFO:   %-40s %8.1f ms  %10.0f 件/秒%n", label, median / 1_000_000.0,
+                          rows / (median / 1_000_000_000.0));
+    }
+
+    private void deleteBenchmarkRows() {
+        jdbcTemplate.update("DELETE FROM parkings WHERE remarks_column = ?", marker);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.model.Parking;
+import com.example.demo.model.ShuttleBusReservation;
+import com.example.demo.model.Visitor;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * ダッシュボード・CSVインポート画面の一覧用クエリが、件数によらず1回のSQLで読み込まれることのテスト (組み込みDB H2 を使用)。
+ * 💡 各行に別々の状況マスタを割り当てるため、状況を行ごと (またはバッチ単位) に追加で読み込んでいれば件数とともにSQLの回数が増える。
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ListQueryStatementCountTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 29);
+    private static final int SMALL = 10;
+    // hibernate.default_batch_fetch_size (50) より多くして、バッチでの追加読み込みも検出できるようにする
+    private static final int LARGE = 120;
+
+    @Autowired
+    private ParkingRepository parkingRepository;
+    @Autowired
+    private VisitorRepository visitorRepository;
+    @Autowired
+    private ShuttleBusReservationRepository shuttleBusReservationRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void dayPageQueriesUseOneStatementRegardlessOfRowCount() {
+        insertRows(1, SMALL);
+        long parkingsSmall = countStatements(() -> parkingDayPage(SMALL));
+        long visitorsSmall = countStatements(() -> visitorDayPage(SMALL));
+        long busesSmall = countStatements(() -> busDayPage(SMALL));
+
+        insertRows(SMALL + 1, LARGE - SMALL);
+        long parkingsLarge = countStatements(() -> parkingDayPage(LARGE));
+        long visitorsLarge = countStatements(() -> visitorDayPage(LARGE));
+        long busesLarge = countStatements(() -> busDayPage(LARGE));
+
+        assertEquals(parkingsSmall, parkingsLarge);
+        assertEquals(visitorsSmall, visitorsLarge);
+        assertEquals(busesSmall, busesLarge);
+        assertEquals(1, parkingsLarge);
+        assertEquals(1, visitorsLarge);
+        assertEquals(1, busesLarge);
+    }
+
+    @Test
+    void importScreenListsFetchSituationsInTheSameStatement() {
+        insertRows(1, SMALL);
+        long parkingsSmall = countStatements(() -> parkingEntities(SMALL));
+        long visitorsSmall = countStatements(() -> visitorEntities(SMALL));
+        long busesSmall = countStatements(() -> busEntities(SMALL));
+
+        insertRows(SMALL + 1, LARGE - SMALL);
+        long parkingsLarge = countStatements(() -> parkingEntities(LARGE));
+        long visitorsLarge = countStatements(() -> visitorEntities(LARGE));
+        long busesLarge = countStatements(() -> busEntities(LARGE));
+
+        assertEquals(parkingsSmall, parkingsLarge);
+        assertEquals(visitorsSmall, visitorsLarge);
+        assertEquals(busesSmall, busesLarge);
+        assertEquals(1, parkingsLarge);
+        assertEquals(1, visitorsLarge);
+        assertEquals(1, busesLarge);
+    }
+
+    private void parkingDayPage(int expected) {
+        LocalDateTime from = DAY.atStartOfDay();
+        assertSize(expected, parkingRepository.findDayPage(from, from.plusDays(1), from, 0, PageRequest.of(0, 500)));
+    }
+
+    private void visitorDayPage(int expected) {
+        LocalDateTime from = DAY.atStartOfDay();
+        assertSize(expected, visitorRepository.findDayPage(from, from.plusDays(1), from, 0, PageRequest.of(0, 500)));
+    }
+
+    private void busDayPage(int expected) {
+        LocalDateTime from = DAY.atStartOfDay();
+        assertSize(expected,
+            shuttleBusReservationRepository.findDayPage(from, from.plusDays(1), from, 0, PageRequest.of(0, 500)));
+    }
+
+    // 💡 画面の描画と同じく、読み込んだ後に各行の状況名を参照する
+    private void parkingEntities(int expected) {
+        List<Parking> parkings = parkingRepository.findAllByOrderByIdAsc();
+        parkings.forEach(p -> p.getParkingStatus().getStatusName());
+        assertSize(expected, parkings);
+    }
+
+    private void visitorEntities(int expected) {
+        List<Visitor> visitors = visitorRepository.findAllByOrderByIdAsc();
+        visitors.forEach(v -> v.getVisitSituation().getSituationName());
+        assertSize(expected, visitors);
+    }
+
+    private void busEntities(int expected) {
+        List<ShuttleBusReservation> buses = shuttleBusReservationRepository.findAllByOrderByIdAsc();
+        buses.forEach(b -> b.getBusSituation().getName());
+        assertSize(expected, buses);
+    }
+
+    private static void assertSize(int expected, List<?> rows) {
+        assertEquals(expected, rows.size());
+    }
+
+    /**
+     * 永続化コンテキストを空にしてから実行し、その間に発行された (準備された) SQLの数を返す。
+     */
+    private long countStatements(Runnable load) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        load.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * ID first から count 件の駐車場・来館者・送迎バスの予約を、それぞれ専用の状況マスタとともに登録する。
+     */
+    private void insertRows(int first, int count) {
+        for (int id = first; id < first + count; id++) {
+            LocalDateTime time = DAY.atTime(9, 0).plusMinutes(id);
+            jdbcTemplate.update("INSERT INTO parking_statuses (parking_status_id, parking_status_name) VALUES (?, ?)",
+                                id, "状況" + id);
+            jdbcTemplate.update("INSERT INTO visit_situations (visit_situation_id, visit_situations_name) VALUES (?, ?)",
+                                id, "状況" + id);
+            jdbcTemplate.update("INSERT INTO bus_situations (bus_situations_id, bus_situations_name) VALUES (?, ?)",
+                                id, "状況" + id);
+            jdbcTemplate.update("INSERT INTO parkings (parking_id, visit_reservation_time, errands_relationship,"
+                                + " car_number, visitor_name, family_names, manager_name, parking_permit,"
+                                + " parking_position, parking_status_id, update_time)"
+                                + " VALUES (?, ?, '通夜', ?, ?, '山田家', '佐藤', '有', 'A', ?, CURRENT_TIMESTAMP)",
+                                id, time, "品川 300 あ " + id, "来館者" + id, id);
+            jdbcTemplate.update("INSERT INTO visitors (visitor_id, visit_reservation_time, errands_relationship,"
+                                + " visitor_name, family_names, manager_name, visit_situation_id, update_time)"
+                                + " VALUES (?, ?, '通夜', ?, '山田家', '佐藤', ?, CURRENT_TIMESTAMP)",
+                                id, time, "来館者" + id, id);
+            jdbcTemplate.update("INSERT INTO shuttlebus_reservations (bus_id, visit_reservation_time, bus_name,"
+                                + " bus_destination, scheduled_dep_time, family_names, manager_name, passengers,"
+                                + " bus_situations_id, update_time)"
+                                + " VALUES (?, ?, '1号車', '駅', ?, '山田家', '佐藤', 20, ?, CURRENT_TIMESTAMP)",
+                                id, time, time.plusHours(2), id);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * NaturalKeyIndex (オープンアドレス法のハッシュインデックス) のテスト。
+ */
+class NaturalKeyIndexTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 10, 29, 14, 30);
+
+    @Test
+    void putAndGetByNameAndTime() {
+        NaturalKeyIndex index = new NaturalKeyIndex();
+        index.put("山田太郎", TIME, 10);
+        index.put("山田太郎", TIME.plusMinutes(30), 11);
+        index.put("佐藤花子", TIME, 12);
+
+        assertEquals(10, index.get("山田太郎", TIME));
+        assertEquals(11, index.get("山田太郎", TIME.plusMinutes(30)));
+        assertEquals(12, index.get("佐藤花子", TIME));
+        assertEquals(-1, index.get("佐藤花子", TIME.plusMinutes(30)));
+        assertEquals(-1, index.get("鈴木一郎", TIME));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void putOverwritesIdAndFingerprintOfExistingKey() {
+        NaturalKeyIndex index = new NaturalKeyIndex();
+        index.put("山田太郎", TIME, 10, 111L);
+        index.put("山田太郎", TIME, 20, 222L);
+
+        assertEquals(20, index.get("山田太郎", TIME));
+        assertEquals(222L, index.getFingerprint("山田太郎", TIME));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void fingerprintIsNoneWhenMissingOrNotGiven() {
+        NaturalKeyIndex index = new NaturalKeyIndex();
+        index.put("山田太郎", TIME, 10);
+
+        assertEquals(NaturalKeyIndex.NO_FINGERPRINT, index.getFingerprint("山田太郎", TIME));
+        assertEquals(NaturalKeyIndex.NO_FINGERPRINT, index.getFingerprint("佐藤花子", TIME));
+    }
+
+    @Test
+    void nullTimeIsAKeyAndNullNameIsNeverFound() {
+        NaturalKeyIndex index = new NaturalKeyIndex();
+        index.put("山田太郎", null, 10);
+
+        assertEquals(10, index.get("山田太郎", null));
+        assertFalse(index.contains("山田太郎", TIME));
+        assertFalse(index.contains(null, null));
+        assertEquals(-1, index.get(null, TIME));
+    }
+
+    @Test
+    void growsFromTheSmallestCapacityWithoutLosingEntries() {
+        NaturalKeyIndex index = new NaturalKeyIndex(1);
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            index.put("来館者" + i, TIME.plusMinutes(i % 48), i, i + 1L);
+        }
+
+        assertEquals(count, index.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, index.get("来館者" + i, TIME.plusMinutes(i % 48)));
+            assertEquals(i + 1L, index.getFingerprint("来館者" + i, TIME.plusMinutes(i % 48)));
+        }
+    }
+
+    @Test
+    void keysWithTheSameHashShareOneProbeChain() {
+        // 💡 "Aa" と "BB" は String.hashCode が同じため、その組み合わせの文字列は全て同じハッシュ値になる
+        List<String> names = collidingNames(8);
+        NaturalKeyIndex index = new NaturalKeyIndex();
+        for (int i = 0; i < names.size(); i++) {
+            index.put(names.get(i), TIME, i);
+        }
+
+        assertEquals(names.size(), index.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i, index.get(names.get(i), TIME));
+        }
+        assertEquals(-1, index.get(names.get(0), TIME.plusMinutes(1)));
+        assertEquals(-1, index.get("AaAaAaAaAaAaAaAa", TIME.plusMinutes(1)));
+    }
+
+    @Test
+    void matchesHashMapForRandomKeys() {
+        Random random = new Random(42);
+        NaturalKeyIndex index = new NaturalKeyIndex(4);
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            String name = "N" + random.nextInt(500);
+            LocalDateTime time = random.nextInt(20) == 0 ? null : TIME.plusMinutes(random.nextInt(50));
+            index.put(name, time, i);
+            expected.put(name + "|" + time, i);
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (int n = 0; n < 500; n++) {
+            for (int m = -1; m < 50; m++) {
+                LocalDateTime time = m < 0 ? null : TIME.plusMinutes(m);
+                Integer id = expected.get("N" + n + "|" + time);
+                assertEquals(id == null ? -1 : id, index.get("N" + n, time));
+                assertTrue(id == null || index.contains("N" + n, time));
+            }
+        }
+    }
+
+    private static List<String> collidingNames(int blocks) {
+        List<String> names = new ArrayList<>();
+        names.add("");
+        for (int i = 0; i < blocks; i++) {
+            List<String> next = new ArrayList<>(names.size() * 2);
+            for (String name : names) {
+                next.add(name + "Aa");
+                next.add(name + "BB");
+            }
+            names = next;
+        }
+        return names;
+    }
+}
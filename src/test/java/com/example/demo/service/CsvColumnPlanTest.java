@@ -0,0 +1,143 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CsvColumnPlan のテスト: 1行目によるヘッダーの判定と、列の対応の決定。
+ */
+class CsvColumnPlanTest {
+
+    /**
+     * 項目名 → 値 (と列番号) を記録する行。
+     */
+    private static final class Row {
+        final Map<String, String> values = new LinkedHashMap<>();
+        final Map<String, Integer> columns = new LinkedHashMap<>();
+        boolean finished;
+    }
+
+    private static CsvColumnPlan.ColumnSetter<Row> record() {
+        return (row, value, column, name) -> {
+            row.values.put(name, value);
+            row.columns.put(name, column);
+        };
+    }
+
+    // 固定の列位置: 0:ID (読み飛ばし), 1:来館予定日時, 2:来館者氏名, 3:担当, 4:備考欄 (任意)
+    private static final CsvColumnPlan<Row> PLAN = CsvColumnPlan.builder(Row::new, 5)
+        .column("来館予定日時", 1, record(), "予約日時")
+        .column("来館者氏名", 2, record(), "来館者名", "氏名")
+        .column("担当", 3, record(), "担当者")
+        .optionalColumn("備考欄", 4, record(), "備考")
+        .finish(row -> row.finished = true)
+        .build();
+
+    @Test
+    void dataInTheFirstRowUsesFixedPositions() throws IOException {
+        List<CSVRecord> records = parse("1,2025/4/12 9:00,山田太郎,佐藤,メモ\n");
+        CsvColumnPlan.Compiled<Row> compiled = PLAN.compile(records.get(0));
+
+        assertFalse(compiled.hasHeader());
+        assertEquals(0, compiled.getHeaderRecordNumber());
+        assertEquals(5, compiled.getMinColumns());
+
+        Row row = compiled.map(records.get(0));
+        assertEquals(Map.of("来館予定日時", "2025/4/12 9:00", "来館者氏名", "山田太郎", "担当", "佐藤", "備考欄", "メモ"),
+                     row.values);
+        assertEquals(2, row.columns.get("来館者氏名"));
+        assertTrue(row.finished);
+    }
+
+    @Test
+    void emptyFileUsesFixedPositions() {
+        CsvColumnPlan.Compiled<Row> compiled = PLAN.compile(null);
+
+        assertFalse(compiled.hasHeader());
+        assertEquals(4, compiled.indexOf("備考欄"));
+    }
+
+    @Test
+    void headerColumnsAreMatchedByNameAndAliasInAnyOrder() throws IOException {
+        // 全角英数・空白・BOM の表記ゆれは無視する
+        List<CSVRecord> records = parse("﻿担当者,氏名, 予約 日時 ,ID\n"
+                                        + " 佐藤 ,山田太郎,2025/4/12 9:00,1\n");
+        CsvColumnPlan.Compiled<Row> compiled = PLAN.compile(records.get(0));
+
+        assertTrue(compiled.hasHeader());
+        assertEquals(1, compiled.getHeaderRecordNumber());
+        assertEquals(3, compiled.getMinColumns());
+        assertEquals(2, compiled.indexOf("来館予定日時"));
+        assertEquals(1, compiled.indexOf("来館者氏名"));
+        assertEquals(0, compiled.indexOf("担当"));
+        // 任意項目でファイルにない列
+        assertEquals(-1, compiled.indexOf("備考欄"));
+
+        Row row = compiled.map(records.get(1));
+        assertEquals(Map.of("担当", "佐藤", "来館者氏名", "山田太郎", "来館予定日時", "2025/4/12 9:00"), row.values);
+        assertEquals(2, row.columns.get("来館予定日時"));
+        assertTrue(row.finished);
+    }
+
+    @Test
+    void fullWidthHeaderNamesAreNormalized() throws IOException {
+        CsvColumnPlan<Row> plan = CsvColumnPlan.builder(Row::new, 2)
+            .column("駐車証No.", 0, record())
+            .column("駐車位置", 1, record())
+            .build();
+        CsvColumnPlan.Compiled<Row> compiled = plan.compile(parse("駐車位置,駐車証Ｎｏ．\n").get(0));
+
+        assertTrue(compiled.hasHeader());
+        assertEquals(1, compiled.indexOf("駐車証No."));
+        assertEquals(0, compiled.indexOf("駐車位置"));
+    }
+
+    @Test
+    void headerMissingARequiredColumnIsRejected() throws IOException {
+        CSVRecord header = parse("来館予定日時,来館者氏名,備考欄\n").get(0);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PLAN.compile(header));
+        assertTrue(e.getMessage().contains("担当"), e.getMessage());
+    }
+
+    @Test
+    void firstRowMatchingFewerThanHalfOfTheRequiredNamesIsData() throws IOException {
+        // 必須3項目のうち1項目のみ一致 (データ行にたまたま項目名と同じ値がある場合)
+        CSVRecord first = parse("1,2025/4/12 9:00,担当,佐藤,\n").get(0);
+        CsvColumnPlan.Compiled<Row> compiled = PLAN.compile(first);
+
+        assertFalse(compiled.hasHeader());
+        assertEquals(3, compiled.indexOf("担当"));
+    }
+
+    @Test
+    void indexOfRejectsUnknownNames() {
+        assertThrows(IllegalArgumentException.class, () -> PLAN.compile(null).indexOf("車両ナンバー"));
+    }
+
+    @Test
+    void toPositionalMapsFixedPositionsToFileColumns() throws IOException {
+        CsvColumnPlan.Compiled<Row> compiled = PLAN.compile(parse("備考,担当,氏名,予約日時\n").get(0));
+
+        assertArrayEquals(new int[] { -1, 3, 2, 1, 0 }, compiled.toPositional(5));
+        // 列数より後ろの列位置は含めない
+        assertArrayEquals(new int[] { -1, 3, 2 }, compiled.toPositional(3));
+    }
+
+    private static List<CSVRecord> parse(String csv) throws IOException {
+        return CSVFormat.DEFAULT.parse(new StringReader(csv)).getRecords();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * CSV日時解析のベンチマーク: DateTimeFormatter による従来の解析 と CsvDateTimeParser の比較。
+ * 
+ * 実行方法 (テストクラスパス上の main メソッドから起動):
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.demo.service.CsvDateTimeParserBenchmark
+ * 
+ * 入力は取り込みCSVを模して、同じ予約枠 (30分刻み・1日分) が繰り返し現れる1万件の日時文字列。
+ * cachedParser は実際の取り込みと同じくキャッシュあり、fastPathOnly はキャッシュなしの解析のみ。
+ * (同じ入力で従来の解析と結果が一致することは CsvDateTimeParserTest で確認している)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvDateTimeParserBenchmark {
+
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/M/d H:mm");
+
+    private String[] inputs;
+    private CsvDateTimeParser parser;
+
+    @Setup
+    public void setUp() {
+        inputs = new String[10_000];
+        for (int i = 0; i < inputs.length; i++) {
+            int slot = i % 24; // 9:00～20:30 の30分刻み
+            // 取り込み時と同様、行ごとに別の String インスタンスとする
+            inputs[i] = new String("2025/4/12 " + (9 + slot / 2) + ":" + (slot % 2 == 0 ? "00" : "30"));
+        }
+        parser = new CsvDateTimeParser(DATETIME_FORMATTER);
+    }
+
+    @Benchmark
+    public void dateTimeFormatter(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(LocalDateTime.parse(input, DATETIME_FORMATTER));
+        }
+    }
+
+    @Benchmark
+    public void fastPathOnly(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(CsvDateTimeParser.parseFast(input));
+        }
+    }
+
+    @Benchmark
+    public void cachedParser(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(parser.parse(input));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(CsvDateTimeParserBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * CsvDateTimeParser のテスト: 高速パス・キャッシュの結果とエラーが、従来の DateTimeFormatter (SMART) と一致すること。
+ */
+class CsvDateTimeParserTest {
+
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy/M/d H:mm");
+
+    @ParameterizedTest
+    @ValueSource(strings = { "2025/4/12 9:00", "2025/1/2 3:04", "2025/12/31 23:59", "2024/2/29 0:00",
+                             "2025/10/1 10:30", "0001/1/1 0:00" })
+    void fastPathParsesTheCsvFormat(String text) {
+        LocalDateTime fast = CsvDateTimeParser.parseFast(text);
+        assertNotNull(fast);
+        assertEquals(LocalDateTime.parse(text, DATETIME_FORMATTER), fast);
+        assertEquals(fast, new CsvDateTimeParser(DATETIME_FORMATTER).parse(text));
+    }
+
+    /**
+     * 高速パスでは扱わず、フォーマッターの解決ルールに委ねる入力 (2/30 は SMART で月末に丸める、24:00 など)。
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "2025/2/30 10:00", "2025/2/29 10:00", "2025/4/31 9:00", "2025/1/1 24:00",
+                             "2025/12/31 24:00" })
+    void unusualDatesFallBackToTheFormatterResolution(String text) {
+        assertNull(CsvDateTimeParser.parseFast(text));
+        assertSameAsFormatter(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "2025/13/1 10:00", "2025/1/32 10:00", "2025/1/1 10:60", "2025/1/1 25:00",
+                             "2025/1/1 10:0", "2025/1/1 10:00:00", "25/1/1 10:00", "2025-1-1 10:00",
+                             "２０２５/1/1 10:00", "2025/01/001 10:00", "2025/1/1  10:00", "2025/1/1 10:00 " })
+    void malformedInputFailsLikeTheFormatter(String text) {
+        assertNull(CsvDateTimeParser.parseFast(text));
+        assertSameAsFormatter(text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "2025/01/02 03:04", "2025/1/02 3:04", "2025/01/2 03:04" })
+    void zeroPaddedFieldsMatchTheFormatter(String text) {
+        assertSameAsFormatter(text);
+    }
+
+    /**
+     * ベンチマーク (CsvDateTimeParserBenchmark) と同じ入力で、キャッシュを含めた結果が従来の解析と一致すること。
+     */
+    @Test
+    void matchesTheFormatterForRepeatedReservationSlots() {
+        CsvDateTimeParser parser = new CsvDateTimeParser(DATETIME_FORMATTER);
+        for (int i = 0; i < 10_000; i++) {
+            int slot = i % 24; // 9:00～20:30 の30分刻み
+            String input = new String("2025/4/12 " + (9 + slot / 2) + ":" + (slot % 2 == 0 ? "00" : "30"));
+            assertEquals(LocalDateTime.parse(input, DATETIME_FORMATTER), parser.parse(input), input);
+        }
+    }
+
+    @Test
+    void cacheSlotCollisionsReturnTheRightValue() {
+        // キャッシュの同じスロットに入る (hashCode の下位8ビットが同じ) 2つの日時文字列を探す
+        String first = "2025/4/12 9:00";
+        String second = null;
+        for (int minute = 1; second == null; minute++) {
+            String candidate = LocalDateTime.of(2025, 4, 12, 9, 0).plusMinutes(minute).format(DATETIME_FORMATTER);
+            if ((candidate.hashCode() & 255) == (first.hashCode() & 255)) {
+                second = candidate;
+            }
+        }
+        assertNotEquals(first, second);
+
+        CsvDateTimeParser parser = new CsvDateTimeParser(DATETIME_FORMATTER);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(LocalDateTime.parse(first, DATETIME_FORMATTER), parser.parse(first));
+            assertEquals(LocalDateTime.parse(second, DATETIME_FORMATTER), parser.parse(second));
+        }
+    }
+
+    /**
+     * 解析結果、またはエラー (DateTimeParseException とメッセージ) が LocalDateTime.parse(text, DATETIME_FORMATTER) と同じであること。
+     */
+    private static void assertSameAsFormatter(String text) {
+        CsvDateTimeParser parser = new CsvDateTimeParser(DATETIME_FORMATTER);
+        LocalDateTime expected;
+        try {
+            expected = LocalDateTime.parse(text, DATETIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            DateTimeParseException actual = assertThrows(DateTimeParseException.class, () -> parser.parse(text));
+            assertEquals(e.getMessage(), actual.getMessage());
+            return;
+        }
+        assertEquals(expected, parser.parse(text), text);
+        // 2回目はキャッシュから返る
+        assertEquals(expected, parser.parse(text), text);
+    }
+}
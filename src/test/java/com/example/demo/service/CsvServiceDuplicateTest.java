@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.dto.ImportResult;
+import com.example.demo.model.Parking;
+import com.example.demo.model.ParkingStatus;
+import com.example.demo.repository.BulkUpsertRepository;
+import com.example.demo.repository.ImportCheckpointRepository;
+import com.example.demo.repository.NaturalKeyIndex;
+import com.example.demo.repository.StagingImportRepository;
+
+/**
+ * CsvService のファイル内重複の扱いのテスト: エラー行を除いて取り込む場合に、
+ * 採用する行が変換できる行の中から選ばれること (不正な行のために正しい行が捨てられないこと)。
+ */
+class CsvServiceDuplicateTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final BulkUpsertRepository bulkUpsertRepository = mock(BulkUpsertRepository.class);
+    private final ImportCheckpointRepository checkpointRepository = mock(ImportCheckpointRepository.class);
+    // DBへ送られた行
+    private final List<Parking> written = new ArrayList<>();
+
+    private CsvService csvService;
+
+    @BeforeEach
+    void setUp() {
+        MasterDataRegistry masterData = mock(MasterDataRegistry.class);
+        when(masterData.findParkingStatusByName("予約中")).thenReturn(Optional.of(new ParkingStatus(1, "予約中")));
+        when(bulkUpsertRepository.loadParkingKeys(any(), any(), any(Boolean.class))).thenReturn(new NaturalKeyIndex());
+        when(bulkUpsertRepository.upsertParkings(any(), any(), any())).thenAnswer(invocation -> {
+            List<Parking> rows = invocation.getArgument(0);
+            written.addAll(rows);
+            return new ImportResult(rows.size(), 0, 0);
+        });
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        csvService = new CsvService(masterData, bulkUpsertRepository, checkpointRepository,
+            mock(StagingImportRepository.class), new UpdateLatencyMonitor(), mock(UpdateNotificationService.class),
+            mock(TodayReadModel.class), mock(PlatformTransactionManager.class),
+            500, 1, DuplicatePolicy.LAST_WINS, 0, 2000, 50, 2, 300, 5000);
+    }
+
+    @Test
+    void lastWinsKeepsTheValidRowWhenTheLaterDuplicateIsInvalid() throws Exception {
+        String csv = row("山田太郎", "予約中", "1行目")
+            + row("佐藤花子", "予約中", "2行目")
+            + row("山田太郎", "未登録の状況", "3行目");
+
+        ImportResult result = importTolerant(csv, DuplicatePolicy.LAST_WINS);
+
+        assertEquals(List.of("1行目", "2行目"), writtenRemarks());
+        assertEquals(0, result.getDuplicates());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of("3"), reportedRecordNumbers());
+    }
+
+    @Test
+    void firstWinsKeepsTheValidRowWhenTheFirstDuplicateIsInvalid() throws Exception {
+        String csv = row("山田太郎", "未登録の状況", "1行目")
+            + row("佐藤花子", "予約中", "2行目")
+            + row("山田太郎", "予約中", "3行目");
+
+        ImportResult result = importTolerant(csv, DuplicatePolicy.FIRST_WINS);
+
+        assertEquals(List.of("2行目", "3行目"), writtenRemarks());
+        assertEquals(0, result.getDuplicates());
+        assertEquals(1, result.getFailed());
+        assertEquals(List.of("1"), reportedRecordNumbers());
+    }
+
+    @Test
+    void validDuplicatesAreStillCollapsedAroundAnInvalidOne() throws Exception {
+        String csv = row("山田太郎", "予約中", "1行目")
+            + row("山田太郎", "予約中", "2行目")
+            + row("山田太郎", "未登録の状況", "3行目");
+
+        ImportResult lastWins = importTolerant(csv, DuplicatePolicy.LAST_WINS);
+        assertEquals(List.of("2行目"), writtenRemarks());
+        assertEquals(1, lastWins.getDuplicates());
+
+        written.clear();
+        ImportResult firstWins = importTolerant(csv, DuplicatePolicy.FIRST_WINS);
+        assertEquals(List.of("1行目"), writtenRemarks());
+        assertEquals(1, firstWins.getDuplicates());
+    }
+
+    private ImportResult importTolerant(String csv, DuplicatePolicy duplicatePolicy) throws Exception {
+        ImportOptions options = new ImportOptions();
+        options.setTolerant(true);
+        options.setDuplicatePolicy(duplicatePolicy);
+        try (ImportErrorReport errorReport = new ImportErrorReport(tempDir.resolve("errors.csv"))) {
+            options.setErrorReport(errorReport);
+            return csvService.importParkingData(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)), options);
+        }
+    }
+
+    /**
+     * ヘッダーなしの駐車場予約CSVの1行 (予約日時は全行同じ)。
+     */
+    private static String row(String visitorName, String statusName, String remarks) {
+        return "," + "2025/4/12 9:00" + ",通夜 友人,品川 300 あ 1234," + visitorName + ",山田家,佐藤,,1,P1,"
+            + statusName + ",," + remarks + "\n";
+    }
+
+    private List<String> writtenRemarks() {
+        return written.stream().map(Parking::getRemarksColumn).toList();
+    }
+
+    private List<String> reportedRecordNumbers() throws IOException {
+        try (Reader reader = Files.newBufferedReader(tempDir.resolve("errors.csv"), StandardCharsets.UTF_8)) {
+            return CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
+                .parse(reader).stream().map(record -> record.get(0)).toList();
+        }
+    }
+}
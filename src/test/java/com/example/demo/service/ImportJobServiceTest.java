@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.example.demo.dto.ImportJob;
+
+/**
+ * ImportJobService のテスト: ジョブを実行できなかった場合に、種類のロックと一時ファイルが解放されること。
+ */
+class ImportJobServiceTest {
+
+    /**
+     * 退避先の一時ファイルを記録するアップロードファイル。
+     */
+    private static final class RecordingFile extends MockMultipartFile {
+        Path transferredTo;
+
+        RecordingFile() {
+            super("file", "parkings.csv", "text/csv", "1,2025/4/12 9:00\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void transferTo(Path dest) throws IOException {
+            transferredTo = dest;
+            super.transferTo(dest);
+        }
+    }
+
+    @Test
+    void rejectedJobIsFailedAndReleasesItsEntityTypeAndTempFile() throws IOException {
+        ImportJobService service = new ImportJobService(mock(CsvService.class), mock(SimpMessagingTemplate.class));
+        service.shutdown();
+
+        RecordingFile file = new RecordingFile();
+        assertThrows(RejectedExecutionException.class, () -> service.submitParkingImport(file, false, false));
+
+        assertFalse(Files.exists(file.transferredTo));
+        List<ImportJob> jobs = service.findRecentJobs();
+        assertEquals(1, jobs.size());
+        assertEquals(ImportJob.Status.FAILED, jobs.get(0).getStatus());
+        // 「実行中」のまま残らない (次の登録も実行中エラーにならない)
+        assertThrows(RejectedExecutionException.class, () -> service.submitParkingImport(new RecordingFile(), false, false));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Semaphore;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * ImportThrottle のテスト: 営業中モードのチャンクサイズ (加算で増やし、乗算で減らす) とコミットの枠。
+ */
+class ImportThrottleTest {
+
+    private static final double TARGET_MILLIS = 50;
+
+    /**
+     * 応答時間の移動平均をテストから指定する UpdateLatencyMonitor。
+     */
+    private static final class FixedLatency extends UpdateLatencyMonitor {
+        volatile double averageMillis;
+
+        @Override
+        public double getAverageMillis() {
+            return averageMillis;
+        }
+    }
+
+    @Test
+    void fixedModeKeepsTheChunkSizeAndNeverWaits() throws InterruptedException {
+        ImportThrottle throttle = ImportThrottle.fixed(500);
+        for (int i = 0; i < 3; i++) {
+            throttle.beforeCommit();
+            throttle.afterCommit();
+            assertEquals(500, throttle.chunkSize());
+        }
+    }
+
+    @Test
+    void chunkSizeGrowsByTheMinimumWhileUpdatesAreFast() throws InterruptedException {
+        FixedLatency latency = new FixedLatency();
+        ImportThrottle throttle = ImportThrottle.lowPriority(latency, new Semaphore(1), 50, 200, TARGET_MILLIS, 1);
+
+        assertEquals(50, throttle.chunkSize());
+        int[] expected = { 100, 150, 200, 200 };
+        for (int size : expected) {
+            commit(throttle);
+            assertEquals(size, throttle.chunkSize());
+        }
+    }
+
+    @Test
+    void chunkSizeHalvesDownToTheMinimumWhileUpdatesAreSlow() throws InterruptedException {
+        FixedLatency latency = new FixedLatency();
+        ImportThrottle throttle = ImportThrottle.lowPriority(latency, new Semaphore(1), 50, 400, TARGET_MILLIS, 1);
+        for (int i = 0; i < 7; i++) {
+            commit(throttle);
+        }
+        assertEquals(400, throttle.chunkSize());
+
+        latency.averageMillis = TARGET_MILLIS + 1;
+        int[] expected = { 200, 100, 50, 50 };
+        for (int size : expected) {
+            commit(throttle);
+            assertEquals(size, throttle.chunkSize());
+        }
+
+        // 目標以内に戻れば、再び加算で増やす
+        latency.averageMillis = TARGET_MILLIS;
+        commit(throttle);
+        assertEquals(100, throttle.chunkSize());
+    }
+
+    @Test
+    void minimumIsClampedToBetweenOneAndTheMaximum() {
+        FixedLatency latency = new FixedLatency();
+        assertEquals(100, ImportThrottle.lowPriority(latency, new Semaphore(1), 500, 100, TARGET_MILLIS, 1).chunkSize());
+        assertEquals(1, ImportThrottle.lowPriority(latency, new Semaphore(1), 0, 100, TARGET_MILLIS, 1).chunkSize());
+    }
+
+    @Test
+    void commitSlotIsHeldFromBeforeToAfterCommit() throws InterruptedException {
+        Semaphore slots = new Semaphore(2);
+        ImportThrottle throttle = ImportThrottle.lowPriority(new FixedLatency(), slots, 50, 200, TARGET_MILLIS, 1);
+
+        throttle.beforeCommit();
+        assertEquals(1, slots.availablePermits());
+        throttle.afterCommit();
+        assertEquals(2, slots.availablePermits());
+    }
+
+    @Test
+    void waitsBeforeCommitWhileUpdatesAreSlow() throws InterruptedException {
+        FixedLatency latency = new FixedLatency();
+        latency.averageMillis = TARGET_MILLIS + 1;
+        ImportThrottle throttle = ImportThrottle.lowPriority(latency, new Semaphore(1), 50, 200, TARGET_MILLIS, 20);
+
+        long start = System.nanoTime();
+        throttle.beforeCommit();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        throttle.afterCommit();
+
+        assertTrue(elapsedMillis >= 20, "待機時間: " + elapsedMillis + "ms");
+    }
+
+    private static void commit(ImportThrottle throttle) throws InterruptedException {
+        throttle.beforeCommit();
+        throttle.afterCommit();
+    }
+}
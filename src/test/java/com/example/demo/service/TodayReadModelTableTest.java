@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * TodayReadModel.Table のテスト: (予約日時, ID) 順のページングと、変更した行の差し替え。
+ */
+class TodayReadModelTableTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 10, 29);
+    private static final LocalDateTime FROM = DAY.atStartOfDay();
+
+    /**
+     * 一覧の1行 (ID と予約日時のみ)。
+     */
+    private static final class Item {
+        private final int id;
+        private final LocalDateTime time;
+
+        Item(int id, LocalDateTime time) {
+            this.id = id;
+            this.time = time;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        LocalDateTime getTime() {
+            return time;
+        }
+    }
+
+    @Test
+    void listIsOrderedByTimeThenId() {
+        TodayReadModel.Table<Item> table = table(item(3, 10, 0), item(1, 10, 0), item(2, 9, 30));
+
+        assertEquals(List.of(2, 1, 3), ids(table.list()));
+    }
+
+    @Test
+    void firstPageStartsAtMidnight() {
+        // 💡 1ページ目のカーソルは (当日 0:00, ID 0)。0:00 ちょうどの予約も含む
+        TodayReadModel.Table<Item> table = table(item(5, 0, 0), item(4, 9, 0));
+
+        assertEquals(List.of(5, 4), ids(table.page(FROM, 0, 10)));
+    }
+
+    @Test
+    void pageStartsAfterTheCursorRow() {
+        TodayReadModel.Table<Item> table = table(item(1, 10, 0), item(2, 10, 0), item(3, 10, 0), item(4, 10, 30),
+                                                 item(5, 11, 0));
+
+        // 同じ予約日時は ID で続きを判定する
+        assertEquals(List.of(3, 4), ids(table.page(FROM.withHour(10), 2, 2)));
+        // 一覧にない日時のカーソル (行が削除された場合) は、その後の行から
+        assertEquals(List.of(4, 5), ids(table.page(FROM.withHour(10).withMinute(15), 1, 10)));
+        // 最後の行の後は空
+        assertEquals(List.of(), ids(table.page(FROM.withHour(11), 5, 10)));
+    }
+
+    @Test
+    void followingTheCursorVisitsEveryRowOnce() {
+        List<Item> items = new ArrayList<>();
+        for (int id = 1; id <= 23; id++) {
+            items.add(item(id, 9 + id % 4, id % 3 * 15));
+        }
+        TodayReadModel.Table<Item> table = new TodayReadModel.Table<>(items, Item::getId, Item::getTime, FROM);
+
+        List<Integer> visited = new ArrayList<>();
+        LocalDateTime afterTime = FROM;
+        int afterId = 0;
+        for (List<Item> page = table.page(afterTime, afterId, 5); !page.isEmpty();
+             page = table.page(afterTime, afterId, 5)) {
+            visited.addAll(ids(page));
+            Item last = page.get(page.size() - 1);
+            afterTime = last.getTime();
+            afterId = last.getId();
+        }
+
+        assertEquals(ids(table.list()), visited);
+    }
+
+    @Test
+    void withReplacesChangedRowsAndDropsRowsOutsideTheDay() {
+        TodayReadModel.Table<Item> table = table(item(1, 9, 0), item(2, 10, 0), item(3, 11, 0), item(4, 12, 0));
+
+        TodayReadModel.Table<Item> next = table.with(List.of(1, 2, 3, 5, 6), List.of(
+            item(1, 13, 0),                                  // 時刻の変更: 並び順が変わる
+            new Item(2, FROM.plusDays(1).withHour(10)),      // 翌日に変更: 取り除く
+            // 3 は読み直した結果なし (削除)
+            item(5, 8, 0),                                   // 新規
+            new Item(6, null)));                             // 予約日時なし: 当日の一覧に含めない
+
+        assertEquals(List.of(5, 4, 1), ids(next.list()));
+        assertEquals(List.of(4, 1), ids(next.page(FROM.withHour(8), 5, 10)));
+        // 元の一覧は変わらない
+        assertEquals(List.of(1, 2, 3, 4), ids(table.list()));
+    }
+
+    private static TodayReadModel.Table<Item> table(Item... items) {
+        return new TodayReadModel.Table<>(List.of(items), Item::getId, Item::getTime, FROM);
+    }
+
+    private static Item item(int id, int hour, int minute) {
+        return new Item(id, FROM.withHour(hour).withMinute(minute));
+    }
+
+    private static List<Integer> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
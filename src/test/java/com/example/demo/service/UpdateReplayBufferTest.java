@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * UpdateReplayBuffer のテスト: 最後に受信した通番より後のメッセージと、replay できない範囲 (破棄済み・再起動前・最新より後の通番)。
+ */
+class UpdateReplayBufferTest {
+
+    @Test
+    void emptyBufferHasNothingToReplay() {
+        UpdateReplayBuffer buffer = new UpdateReplayBuffer(10);
+
+        assertEquals(List.of(), buffer.after(0, 0));
+    }
+
+    @Test
+    void returnsMessagesAfterTheSequenceInOrder() {
+        UpdateReplayBuffer buffer = filled(10, 5);
+
+        assertEquals(List.of("m3", "m4", "m5"), buffer.after(2, 5));
+        assertEquals(List.of("m1", "m2", "m3", "m4", "m5"), buffer.after(0, 5));
+        // 最新まで受信済み
+        assertEquals(List.of(), buffer.after(5, 5));
+    }
+
+    @Test
+    void sequencesBeforeTheOldestKeptMessageCannotBeReplayed() {
+        // 容量3: 1, 2 は破棄され、3～5 が残る
+        UpdateReplayBuffer buffer = filled(3, 5);
+
+        assertEquals(List.of("m3", "m4", "m5"), buffer.after(2, 5));
+        assertNull(buffer.after(1, 5));
+        assertNull(buffer.after(0, 5));
+    }
+
+    @Test
+    void sequencesAheadOfTheLatestCannotBeReplayed() {
+        // 💡 このサーバーが発行していない通番 (別のサーバー、時計が戻った後の再起動など)
+        UpdateReplayBuffer buffer = filled(10, 2);
+
+        assertNull(buffer.after(57, 2));
+        assertNull(buffer.after(3, 2));
+        assertNull(new UpdateReplayBuffer(10).after(57, 0));
+    }
+
+    @Test
+    void sequencesFromBeforeARestartCannotBeReplayed() {
+        // 💡 UpdateNotificationService は通番を起動時刻 (ミリ秒) から始めるため、再起動後の通番はクライアントの通番より大きい。
+        //    バッファは空 (または再起動後のメッセージのみ) で、クライアントの続きは破棄済みと同じ扱いになる
+        long beforeRestart = 1_700_000_000_050L;
+        long afterRestart = 1_700_000_600_000L;
+
+        UpdateReplayBuffer empty = new UpdateReplayBuffer(10);
+        assertNull(empty.after(beforeRestart, afterRestart));
+
+        UpdateReplayBuffer buffer = new UpdateReplayBuffer(10);
+        buffer.add(afterRestart + 1, "m1");
+        buffer.add(afterRestart + 2, "m2");
+        assertNull(buffer.after(beforeRestart, afterRestart + 2));
+        assertEquals(List.of("m1", "m2"), buffer.after(afterRestart, afterRestart + 2));
+    }
+
+    @Test
+    void capacityIsAtLeastOne() {
+        UpdateReplayBuffer buffer = filled(0, 3);
+
+        assertEquals(List.of("m3"), buffer.after(2, 3));
+        assertNull(buffer.after(1, 3));
+    }
+
+    private static UpdateReplayBuffer filled(int capacity, int count) {
+        UpdateReplayBuffer buffer = new UpdateReplayBuffer(capacity);
+        for (int sequence = 1; sequence <= count; sequence++) {
+            buffer.add(sequence, "m" + sequence);
+        }
+        return buffer;
+    }
+}
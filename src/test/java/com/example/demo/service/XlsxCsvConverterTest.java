@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * XlsxCsvConverter のテスト: .xlsx の先頭シートが、取り込みと同じ形式のCSVに変換されること。
+ */
+class XlsxCsvConverterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void convertsTheFirstSheetWithCsvDateFormatAndPadding() throws Exception {
+        Path xlsx = tempDir.resolve("parkings.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            CellStyle dateTime = workbook.createCellStyle();
+            dateTime.setDataFormat(workbook.createDataFormat().getFormat("yyyy/mm/dd hh:mm"));
+            CellStyle timeOnly = workbook.createCellStyle();
+            timeOnly.setDataFormat(workbook.createDataFormat().getFormat("h:mm"));
+
+            Sheet sheet = workbook.createSheet("予約");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("来館予定日時");
+            header.createCell(1).setCellValue("来館者氏名");
+            header.createCell(2).setCellValue("乗車人数");
+            header.createCell(3).setCellValue("出庫時刻");
+            header.createCell(4).setCellValue("備考欄");
+
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue(LocalDateTime.of(2025, 4, 12, 9, 5));
+            first.getCell(0).setCellStyle(dateTime);
+            first.createCell(1).setCellValue("山田, 太郎");
+            first.createCell(2).setCellValue(3);
+            first.createCell(3).setCellValue(0.5);
+            first.getCell(3).setCellStyle(timeOnly);
+
+            // 空の行 (空白のみのセルを含む) は出力しない
+            sheet.createRow(2).createCell(1).setCellValue(" ");
+
+            // 途中の列が空欄の行: 列位置を保ち、末尾は使用範囲の列数まで埋める
+            Row second = sheet.createRow(4);
+            second.createCell(1).setCellValue("佐藤花子");
+            second.createCell(4).setCellValue("備考");
+            Row third = sheet.createRow(5);
+            third.createCell(0).setCellValue(LocalDateTime.of(2025, 12, 31, 23, 59));
+            third.getCell(0).setCellStyle(dateTime);
+
+            workbook.createSheet("2枚目").createRow(0).createCell(0).setCellValue("変換しない");
+            try (OutputStream out = Files.newOutputStream(xlsx)) {
+                workbook.write(out);
+            }
+        }
+
+        Path csv = tempDir.resolve("parkings.csv");
+        int rows = XlsxCsvConverter.convert(xlsx, csv, 3);
+
+        assertEquals(4, rows);
+        assertEquals(List.of(
+            List.of("来館予定日時", "来館者氏名", "乗車人数", "出庫時刻", "備考欄"),
+            List.of("2025/4/12 9:05", "山田, 太郎", "3", "12:00", ""),
+            List.of("", "佐藤花子", "", "", "備考"),
+            List.of("2025/12/31 23:59", "", "", "", "")), readCsv(csv));
+    }
+
+    @Test
+    void padsRowsToMinColumnsWhenTheSheetIsNarrower() throws Exception {
+        Path xlsx = tempDir.resolve("narrow.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("A");
+            sheet.createRow(1).createCell(1).setCellValue("B");
+            try (OutputStream out = Files.newOutputStream(xlsx)) {
+                workbook.write(out);
+            }
+        }
+
+        Path csv = tempDir.resolve("narrow.csv");
+        assertEquals(2, XlsxCsvConverter.convert(xlsx, csv, 4));
+        assertEquals(List.of(List.of("A", "", "", ""), List.of("", "B", "", "")), readCsv(csv));
+    }
+
+    private static List<List<String>> readCsv(Path csv) throws IOException {
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            return CSVFormat.DEFAULT.parse(reader).stream().map(CSVRecord::toList).toList();
+        }
+    }
+}